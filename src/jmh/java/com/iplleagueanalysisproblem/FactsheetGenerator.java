@@ -0,0 +1,97 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes synthetic factsheets in the schema of the IPL 2019 runs and wickets
+ * files. Rows come from a seeded Random so every run of a benchmark reads the
+ * same data, and half of the bowlers are also batsmen so the all-rounder use
+ * cases have players to join.
+ */
+final class FactsheetGenerator {
+	static final String RUNS_HEADER = "POS,PLAYER,Mat,Inns,NO,Runs,HS,Avg,BF,SR,100,50,4s,6s";
+	static final String WICKETS_HEADER = "POS,PLAYER,Mat,Inns,Ov,Runs,Wkts,BBI,Avg,Econ,SR,4w,5w";
+
+	private FactsheetGenerator() {
+	}
+
+	/**
+	 * Writes a runs factsheet of the given number of rows
+	 * 
+	 * @param file
+	 * @param rows
+	 * @param seed
+	 * @throws IOException
+	 */
+	static void writeRuns(Path file, int rows, long seed) throws IOException {
+		Random random = new Random(seed);
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(RUNS_HEADER);
+			writer.newLine();
+			for (int row = 0; row < rows; row++) {
+				int matches = 1 + random.nextInt(17);
+				int innings = 1 + random.nextInt(matches);
+				int notOut = random.nextInt(innings + 1);
+				int ballsFaced = 1 + random.nextInt(40 * innings);
+				int runs = random.nextInt(2 * ballsFaced + 1);
+				int highScore = Math.min(runs, random.nextInt(130));
+				int hundreds = runs >= 100 ? random.nextInt(Math.min(innings, runs / 100) + 1) : 0;
+				int fiftys = runs >= 50 ? random.nextInt(Math.min(innings, runs / 50) - hundreds + 1) : 0;
+				int fours = random.nextInt(runs / 4 + 1);
+				int sixes = random.nextInt((runs - 4 * fours) / 6 + 1);
+				String average = innings == notOut ? "-" : decimal((double) runs / (innings - notOut));
+				writer.write((row + 1) + "," + playerName(row) + "," + matches + "," + innings + "," + notOut + ","
+						+ runs + "," + highScore + (random.nextInt(4) == 0 ? "*" : "") + "," + average + ","
+						+ ballsFaced + "," + decimal(runs * 100.0 / ballsFaced) + "," + hundreds + "," + fiftys + ","
+						+ fours + "," + sixes);
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Writes a wickets factsheet of the given number of rows
+	 * 
+	 * @param file
+	 * @param rows
+	 * @param seed
+	 * @throws IOException
+	 */
+	static void writeWickets(Path file, int rows, long seed) throws IOException {
+		Random random = new Random(seed);
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(WICKETS_HEADER);
+			writer.newLine();
+			for (int row = 0; row < rows; row++) {
+				int matches = 1 + random.nextInt(17);
+				int innings = 1 + random.nextInt(matches);
+				int balls = 6 + random.nextInt(24 * innings);
+				int runs = random.nextInt(3 * balls) / 2;
+				int wickets = random.nextInt(balls / 12 + 1);
+				int fourWickets = wickets >= 4 ? random.nextInt(wickets / 4 + 1) : 0;
+				int fiveWickets = fourWickets > 0 ? random.nextInt(fourWickets + 1) : 0;
+				String overs = balls % 6 == 0 ? Integer.toString(balls / 6) : balls / 6 + "." + balls % 6;
+				String average = wickets == 0 ? "-" : decimal((double) runs / wickets);
+				String strikeRate = wickets == 0 ? "-" : decimal((double) balls / wickets);
+				writer.write((row + 1) + "," + playerName(rows / 2 + row) + "," + matches + "," + innings + ","
+						+ overs + "," + runs + "," + wickets + ",0," + average + "," + decimal(runs * 6.0 / balls)
+						+ "," + strikeRate + "," + fourWickets + "," + fiveWickets);
+				writer.newLine();
+			}
+		}
+	}
+
+	private static String playerName(int index) {
+		return "Player " + index;
+	}
+
+	private static String decimal(double value) {
+		return String.format(Locale.ROOT, "%.2f", value);
+	}
+}
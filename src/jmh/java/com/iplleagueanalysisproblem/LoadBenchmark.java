@@ -0,0 +1,75 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures loading a generated factsheet, sequentially and on the common
+ * pool, from CSV and from a binary snapshot
+ */
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+	@Param({ "100", "10000", "1000000" })
+	public int rows;
+
+	private Path directory;
+	private String runsFile;
+	private String wicketsFile;
+	private String snapshotFile;
+	private IPLAnalysis iplAnalysis;
+
+	@Setup
+	public void setUp() throws IOException, IPLLeagueAnalyserException {
+		directory = Files.createTempDirectory("ipl-jmh");
+		runsFile = directory.resolve("runs.csv").toString();
+		wicketsFile = directory.resolve("wickets.csv").toString();
+		snapshotFile = directory.resolve("factsheets.snapshot").toString();
+		FactsheetGenerator.writeRuns(directory.resolve("runs.csv"), rows, 1);
+		FactsheetGenerator.writeWickets(directory.resolve("wickets.csv"), rows, 2);
+		iplAnalysis = new IPLAnalysis();
+		iplAnalysis.loadRunsCSV(runsFile);
+		iplAnalysis.loadWicketsCSV(wicketsFile);
+		iplAnalysis.saveSnapshot(snapshotFile);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		for (String file : new String[] { runsFile, wicketsFile, snapshotFile })
+			Files.deleteIfExists(Path.of(file));
+		Files.deleteIfExists(directory);
+	}
+
+	@Benchmark
+	public int loadRunsCSV() throws IPLLeagueAnalyserException {
+		return iplAnalysis.loadRunsCSV(runsFile);
+	}
+
+	@Benchmark
+	public int loadWicketsCSV() throws IPLLeagueAnalyserException {
+		return iplAnalysis.loadWicketsCSV(wicketsFile);
+	}
+
+	@Benchmark
+	public int loadRunsCSVParallel() throws IPLLeagueAnalyserException {
+		return iplAnalysis.loadRunsCSV(runsFile, ForkJoinPool.commonPool());
+	}
+
+	@Benchmark
+	public int loadWicketsCSVParallel() throws IPLLeagueAnalyserException {
+		return iplAnalysis.loadWicketsCSV(wicketsFile, ForkJoinPool.commonPool());
+	}
+
+	@Benchmark
+	public boolean loadWithSnapshot() throws IPLLeagueAnalyserException {
+		return new IPLAnalysis().loadWithSnapshot(runsFile, wicketsFile, snapshotFile);
+	}
+}
@@ -0,0 +1,92 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures building each ranking from scratch, the sort path the use case
+ * benchmarks only hit on their first call. Every invocation ranks a fresh
+ * dataset holding the same loaded table.
+ */
+public class RankingBenchmark {
+	@State(Scope.Benchmark)
+	public static class Batting {
+		@Param({ "100", "10000", "1000000" })
+		public int rows;
+
+		@Param
+		public BattingMetric metric;
+
+		RunsTable table;
+
+		@Setup
+		public void setUp() throws IOException, IPLLeagueAnalyserException {
+			Path file = Files.createTempFile("ipl-jmh-runs", ".csv");
+			try {
+				FactsheetGenerator.writeRuns(file, rows, 1);
+				table = parse(file, new RunsTable.Builder()).build();
+			} finally {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Bowling {
+		@Param({ "100", "10000", "1000000" })
+		public int rows;
+
+		@Param
+		public BowlingMetric metric;
+
+		WicketsTable table;
+
+		@Setup
+		public void setUp() throws IOException, IPLLeagueAnalyserException {
+			Path file = Files.createTempFile("ipl-jmh-wickets", ".csv");
+			try {
+				FactsheetGenerator.writeWickets(file, rows, 2);
+				table = parse(file, new WicketsTable.Builder()).build();
+			} finally {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	private static <k extends FactsheetSink> k parse(Path file, k sink)
+			throws IOException, IPLLeagueAnalyserException {
+		try (InputStream input = Files.newInputStream(file)) {
+			new FactsheetParser(input).parse(sink);
+		}
+		return sink;
+	}
+
+	@Benchmark
+	public RowList<CSVRuns> battingRanking(Batting state) {
+		return IPLDataset.EMPTY.withRuns(state.table, null, Collections.emptyMap()).ranking(state.metric);
+	}
+
+	@Benchmark
+	public RowList<CSVRuns> battingTop10(Batting state) {
+		return IPLDataset.EMPTY.withRuns(state.table, null, Collections.emptyMap()).topRows(state.metric, 10);
+	}
+
+	@Benchmark
+	public RowList<CSVWickets> bowlingRanking(Bowling state) {
+		return IPLDataset.EMPTY.withWickets(state.table, null, Collections.emptyMap()).ranking(state.metric);
+	}
+
+	@Benchmark
+	public RowList<CSVWickets> bowlingTop10(Bowling state) {
+		return IPLDataset.EMPTY.withWickets(state.table, null, Collections.emptyMap()).topRows(state.metric, 10);
+	}
+}
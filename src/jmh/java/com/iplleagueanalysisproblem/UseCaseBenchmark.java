@@ -0,0 +1,145 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures every use case against loaded generated factsheets. Rankings are
+ * kept by the dataset after the first call, so these are the warm ranking
+ * numbers; {@link RankingBenchmark} measures building a ranking from scratch.
+ * With cached true, results and JSON documents also come from the result
+ * cache; with cached false the cache holds nothing, so every call walks the
+ * ranking and serialises again.
+ */
+@State(Scope.Benchmark)
+public class UseCaseBenchmark {
+	@Param({ "100", "10000", "1000000" })
+	public int rows;
+
+	@Param({ "true", "false" })
+	public boolean cached;
+
+	private IPLAnalysis iplAnalysis;
+
+	@Setup
+	public void setUp() throws IOException, IPLLeagueAnalyserException {
+		Path runsFile = Files.createTempFile("ipl-jmh-runs", ".csv");
+		Path wicketsFile = Files.createTempFile("ipl-jmh-wickets", ".csv");
+		try {
+			FactsheetGenerator.writeRuns(runsFile, rows, 1);
+			FactsheetGenerator.writeWickets(wicketsFile, rows, 2);
+			iplAnalysis = cached ? new IPLAnalysis() : new IPLAnalysis(0, 10, TimeUnit.MINUTES);
+			iplAnalysis.loadRunsCSV(runsFile.toString());
+			iplAnalysis.loadWicketsCSV(wicketsFile.toString());
+		} finally {
+			Files.deleteIfExists(runsFile);
+			Files.deleteIfExists(wicketsFile);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		iplAnalysis = null;
+	}
+
+	@Benchmark
+	public List<CSVRuns> uc01TopBattingAvg() {
+		return iplAnalysis.getTopBattingAvg();
+	}
+
+	@Benchmark
+	public double uc02TopStrikingRate() {
+		return iplAnalysis.getTopStrikingRate();
+	}
+
+	@Benchmark
+	public CSVRuns uc03PlayerMaxSixes() {
+		return iplAnalysis.getPlayerMaxSixes();
+	}
+
+	@Benchmark
+	public CSVRuns uc03PlayerMaxFours() {
+		return iplAnalysis.getPlayerMaxFours();
+	}
+
+	@Benchmark
+	public CSVRuns uc04PlayerMaxStrikeRateWithFoursSixes() {
+		return iplAnalysis.getPlayerMaxStrikeRateWithFoursSixes();
+	}
+
+	@Benchmark
+	public String uc05SortedJsonMaxAvgAndStrikeRate() {
+		return iplAnalysis.getSortedJsonMaxAvgAndStrikeRate();
+	}
+
+	@Benchmark
+	public String uc06SortedJsonMaxRunsAndAverage() {
+		return iplAnalysis.getSortedJsonMaxRunsAndAverage();
+	}
+
+	@Benchmark
+	public List<CSVWickets> uc07TopBowlingAvg() {
+		return iplAnalysis.getTopBowlingAvg();
+	}
+
+	@Benchmark
+	public double uc08TopStrikeRate() {
+		return iplAnalysis.getTopStrikeRate();
+	}
+
+	@Benchmark
+	public double uc09TopEconomy() {
+		return iplAnalysis.getTopEconomy();
+	}
+
+	@Benchmark
+	public String uc10PlayerWithBestStrikeRateWith4w5w() {
+		return iplAnalysis.getPlayerWithBestStrikeRateWith4w5w();
+	}
+
+	@Benchmark
+	public String uc11SortedJsonBestBowlingAvgAndStrikeRate() {
+		return iplAnalysis.getSortedJsonBestBowlingAvgAndStrikeRate();
+	}
+
+	@Benchmark
+	public String uc12SortedJsonMaxWicketsWithBestBowlingAvg() {
+		return iplAnalysis.getSortedJsonMaxWicketsWithBestBowlingAvg();
+	}
+
+	@Benchmark
+	public List<String> uc13PlayerWithBestBattingAndBowlingAvg() {
+		return iplAnalysis.getPlayerWithBestBattingAndBowlingAvg();
+	}
+
+	@Benchmark
+	public List<String> uc14BestAllRounder() {
+		return iplAnalysis.getBestAllRounder();
+	}
+
+	@Benchmark
+	public List<CSVRuns> uc15PlayersWithMaxHundredsBestBattingAverage() {
+		return iplAnalysis.getPlayersWithMaxHundredsBestBattingAverage();
+	}
+
+	@Benchmark
+	public List<CSVRuns> uc16PlayerHittingZeroHundredsAndFiftysWithBestAverage() {
+		return iplAnalysis.getPlayerHittingZeroHundredsAndFiftysWithBestAverage();
+	}
+
+	@Benchmark
+	public AggregateSummary scalarUseCasesInOnePass() {
+		return iplAnalysis.getAggregates(EnumSet.allOf(ScalarAggregate.class));
+	}
+}
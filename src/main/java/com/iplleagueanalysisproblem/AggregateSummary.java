@@ -0,0 +1,78 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+/**
+ * Answers of one {@link IPLAnalysis#getAggregates(java.util.Set)} call, all
+ * taken from the same version of the data
+ */
+public class AggregateSummary {
+	private final RunsTable runs;
+	private final WicketsTable wickets;
+	private final int[] bestRows = new int[ScalarAggregate.values().length];
+
+	AggregateSummary(RunsTable runs, WicketsTable wickets) {
+		this.runs = runs;
+		this.wickets = wickets;
+		Arrays.fill(bestRows, -1);
+	}
+
+	void set(ScalarAggregate aggregate, int row) {
+		bestRows[aggregate.ordinal()] = row;
+	}
+
+	private int row(ScalarAggregate aggregate) {
+		int row = bestRows[aggregate.ordinal()];
+		if (row < 0)
+			throw new IllegalArgumentException(aggregate + " was not requested");
+		return row;
+	}
+
+	/**
+	 * Returns the value of the field the aggregate is taken over for the best
+	 * player, for example the top striking rate
+	 * 
+	 * @param aggregate
+	 * @return
+	 */
+	public double value(ScalarAggregate aggregate) {
+		int row = row(aggregate);
+		return aggregate.battingField != null ? aggregate.battingField.column.compute(runs, row)
+				: aggregate.bowlingField.column.compute(wickets, row);
+	}
+
+	/**
+	 * Returns the name of the best player
+	 * 
+	 * @param aggregate
+	 * @return
+	 */
+	public String playerName(ScalarAggregate aggregate) {
+		int row = row(aggregate);
+		return aggregate.battingField != null ? runs.playerName(row) : wickets.playerName(row);
+	}
+
+	/**
+	 * Returns the runs row of the best player of a batting aggregate
+	 * 
+	 * @param aggregate
+	 * @return
+	 */
+	public CSVRuns battingRow(ScalarAggregate aggregate) {
+		if (aggregate.battingField == null)
+			throw new IllegalArgumentException(aggregate + " is a bowling aggregate");
+		return runs.row(row(aggregate));
+	}
+
+	/**
+	 * Returns the wickets row of the best player of a bowling aggregate
+	 * 
+	 * @param aggregate
+	 * @return
+	 */
+	public CSVWickets bowlingRow(ScalarAggregate aggregate) {
+		if (aggregate.bowlingField == null)
+			throw new IllegalArgumentException(aggregate + " is a batting aggregate");
+		return wickets.row(row(aggregate));
+	}
+}
@@ -0,0 +1,23 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Player found in both the runs and the wickets factsheet, with the batting
+ * and bowling figures used by the all-rounder use cases
+ */
+public class AllRounder {
+	public String playerName;
+	public int runs;
+	public double battingAverage;
+	public double battingStrikeRate;
+	public int wickets;
+	public double bowlingAverage;
+	public double economy;
+
+	@Override
+	public String toString() {
+		return "AllRounder{" + "Player='" + playerName + '\'' + ", Runs='" + runs + '\'' + ", Batting Average='"
+				+ battingAverage + '\'' + ", Batting Strike Rate='" + battingStrikeRate + '\'' + ", Wickets='"
+				+ wickets + '\'' + ", Bowling Average='" + bowlingAverage + '\'' + ", Economy='" + economy + '}'
+				+ "\n";
+	}
+}
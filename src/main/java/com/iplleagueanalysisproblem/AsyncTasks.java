@@ -0,0 +1,112 @@
+package com.iplleagueanalysisproblem;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking loads and queries off the caller's thread. Tasks run on
+ * virtual threads when the runtime has them and on a cached pool of daemon
+ * threads otherwise, found by reflection so the code still builds for
+ * runtimes without them. A task whose future completes early, by
+ * cancel(true), orTimeout or completeExceptionally, has its thread
+ * interrupted, which stops a file read on an interruptible channel.
+ */
+final class AsyncTasks {
+	private AsyncTasks() {
+	}
+
+	/**
+	 * Returns the executor shared by every analysis that was not given one
+	 * 
+	 * @return
+	 */
+	static Executor defaultExecutor() {
+		return DefaultExecutor.INSTANCE;
+	}
+
+	private static final class DefaultExecutor {
+		static final ExecutorService INSTANCE = create();
+
+		private static ExecutorService create() {
+			try {
+				Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) virtualThreads.invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException unavailable) {
+				return Executors.newCachedThreadPool(new DaemonThreadFactory());
+			}
+		}
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+		private final AtomicInteger threads = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "ipl-async-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Runs the task on the executor and returns its future
+	 * 
+	 * @param <T>
+	 * @param executor
+	 * @param task
+	 * @return
+	 */
+	static <T> CompletableFuture<T> submit(Executor executor, Callable<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		Worker worker = new Worker();
+		future.whenComplete((result, failure) -> worker.interrupt());
+		executor.execute(() -> {
+			if (!worker.start())
+				return;
+			try {
+				future.complete(task.call());
+			} catch (Throwable failure) {
+				future.completeExceptionally(failure);
+			} finally {
+				worker.finish();
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Thread running a task. Interrupting and finishing hold the lock, so a
+	 * thread is never interrupted after it has moved on to another task.
+	 */
+	private static final class Worker {
+		private Thread thread;
+		private boolean done;
+
+		synchronized boolean start() {
+			if (done)
+				return false;
+			thread = Thread.currentThread();
+			return true;
+		}
+
+		synchronized void interrupt() {
+			if (thread != null && thread != Thread.currentThread())
+				thread.interrupt();
+			done = true;
+		}
+
+		void finish() {
+			synchronized (this) {
+				thread = null;
+				done = true;
+			}
+			Thread.interrupted();
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Batting totals of one player over any number of factsheet rows or innings.
+ * Counts are summed and the best score kept, average and strike rate are
+ * derived only when the totals are turned into a row. Aggregates of separate
+ * rows merge, so partitions can be summed independently and combined
+ * afterwards.
+ */
+final class BattingAggregate {
+	String playerName;
+	int matches;
+	int innings;
+	int notOut;
+	int runs;
+	int highScore;
+	boolean highScoreNotOut;
+	int ballsFaced;
+	int hundreds;
+	int fiftys;
+	int fours;
+	int sixes;
+
+	BattingAggregate(String playerName) {
+		this.playerName = playerName;
+	}
+
+	/**
+	 * Adds the totals of a row of the table
+	 * 
+	 * @param table
+	 * @param row
+	 */
+	void add(RunsTable table, int row) {
+		matches += table.matches[row];
+		innings += table.innings[row];
+		notOut += table.notOut[row];
+		runs += table.runs[row];
+		ballsFaced += table.ballsFaced[row];
+		hundreds += table.hundreds[row];
+		fiftys += table.fiftys[row];
+		fours += table.fours[row];
+		sixes += table.sixes[row];
+		String score = table.highScores.decode(table.highScore[row]);
+		boolean scoreNotOut = score.endsWith("*");
+		String digits = scoreNotOut ? score.substring(0, score.length() - 1) : score;
+		if (!digits.isEmpty() && digits.chars().allMatch(Character::isDigit))
+			addHighScore(Integer.parseInt(digits), scoreNotOut);
+	}
+
+	/**
+	 * Adds one innings of the player
+	 * 
+	 * @param score
+	 * @param balls
+	 * @param inningsFours
+	 * @param inningsSixes
+	 * @param out
+	 */
+	void addInnings(int score, int balls, int inningsFours, int inningsSixes, boolean out) {
+		innings++;
+		if (!out)
+			notOut++;
+		runs += score;
+		ballsFaced += balls;
+		fours += inningsFours;
+		sixes += inningsSixes;
+		if (score >= 100)
+			hundreds++;
+		else if (score >= 50)
+			fiftys++;
+		addHighScore(score, !out);
+	}
+
+	private void addHighScore(int score, boolean scoreNotOut) {
+		if (score > highScore || (score == highScore && scoreNotOut)) {
+			highScore = score;
+			highScoreNotOut = scoreNotOut;
+		}
+	}
+
+	/**
+	 * Adds the totals of an aggregate of later rows. The player keeps the name
+	 * spelling of the later rows.
+	 * 
+	 * @param later
+	 * @return
+	 */
+	BattingAggregate merge(BattingAggregate later) {
+		playerName = later.playerName;
+		matches += later.matches;
+		innings += later.innings;
+		notOut += later.notOut;
+		runs += later.runs;
+		ballsFaced += later.ballsFaced;
+		hundreds += later.hundreds;
+		fiftys += later.fiftys;
+		fours += later.fours;
+		sixes += later.sixes;
+		addHighScore(later.highScore, later.highScoreNotOut);
+		return this;
+	}
+
+	/**
+	 * Returns the totals as a factsheet row, with average and strike rate rounded
+	 * to two decimals like the factsheets. Both are 0 where the factsheets print
+	 * "-".
+	 * 
+	 * @param position
+	 * @return
+	 */
+	CSVRuns toCSVRuns(int position) {
+		CSVRuns entry = new CSVRuns();
+		entry.position = position;
+		entry.playerName = playerName;
+		entry.matches = matches;
+		entry.innings = innings;
+		entry.notOut = notOut;
+		entry.runs = runs;
+		entry.highScore = highScore + (highScoreNotOut ? "*" : "");
+		entry.average = innings > notOut ? round(runs / (double) (innings - notOut)) : 0;
+		entry.ballsFaced = ballsFaced;
+		entry.strikeRate = ballsFaced > 0 ? round(runs * 100.0 / ballsFaced) : 0;
+		entry.hundreds = hundreds;
+		entry.fiftys = fiftys;
+		entry.fours = fours;
+		entry.sixes = sixes;
+		return entry;
+	}
+
+	/**
+	 * Returns the table of the players, most runs first and positioned in that
+	 * order like the factsheets. Players with equal runs keep their order.
+	 * 
+	 * @param players
+	 * @return
+	 */
+	static RunsTable tableOf(Collection<BattingAggregate> players) {
+		List<BattingAggregate> ranked = new ArrayList<>(players);
+		ranked.sort(Comparator.comparingInt((BattingAggregate player) -> player.runs).reversed());
+		RunsTable.Builder builder = new RunsTable.Builder();
+		for (int index = 0; index < ranked.size(); index++)
+			builder.add(ranked.get(index).toCSVRuns(index + 1));
+		return builder.build();
+	}
+
+	static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+}
@@ -0,0 +1,26 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Runs table columns that {@link BattingQuery} can filter and order by
+ */
+public enum BattingField {
+	POSITION((table, row) -> table.position[row]),
+	MATCHES((table, row) -> table.matches[row]),
+	INNINGS((table, row) -> table.innings[row]),
+	NOT_OUT((table, row) -> table.notOut[row]),
+	RUNS((table, row) -> table.runs[row]),
+	AVERAGE((table, row) -> table.average[row]),
+	BALLS_FACED((table, row) -> table.ballsFaced[row]),
+	STRIKE_RATE((table, row) -> table.strikeRate[row]),
+	HUNDREDS((table, row) -> table.hundreds[row]),
+	FIFTYS((table, row) -> table.fiftys[row]),
+	FOURS((table, row) -> table.fours[row]),
+	SIXES((table, row) -> table.sixes[row]),
+	BOUNDARY_STRIKE_RATE((table, row) -> table.boundaryStrikeRate[row]);
+
+	final DerivedMetric<RunsTable> column;
+
+	BattingField(DerivedMetric<RunsTable> column) {
+		this.column = column;
+	}
+}
@@ -0,0 +1,34 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Batting rankings available through {@link IPLAnalysis#topK(BattingMetric, int)}.
+ * The comparator orders a better player as the greater one.
+ */
+public enum BattingMetric {
+	AVERAGE((table, left, right) -> Double.compare(table.average[left], table.average[right])),
+	AVERAGE_AND_STRIKE_RATE(AVERAGE.comparator
+			.thenComparing((table, left, right) -> Double.compare(table.strikeRate[left], table.strikeRate[right]))),
+	RUNS((table, left, right) -> Integer.compare(table.runs[left], table.runs[right])),
+	RUNS_AND_AVERAGE(RUNS.comparator.thenComparing(AVERAGE.comparator)),
+	STRIKE_RATE((table, left, right) -> Double.compare(table.strikeRate[left], table.strikeRate[right])),
+	HUNDREDS_AND_AVERAGE(((RowComparator<RunsTable>) (table, left, right) -> Integer
+			.compare(table.hundreds[left], table.hundreds[right])).thenComparing(AVERAGE.comparator)),
+	FOURS((table, left, right) -> Integer.compare(table.fours[left], table.fours[right])),
+	SIXES((table, left, right) -> Integer.compare(table.sixes[left], table.sixes[right])),
+	AVERAGE_WITHOUT_HUNDREDS_FIFTYS(AVERAGE.comparator,
+			(table, row) -> table.hundreds[row] + table.fiftys[row] == 0),
+	BOUNDARY_STRIKE_RATE((table, left, right) -> Double.compare(table.boundaryStrikeRate[left],
+			table.boundaryStrikeRate[right]));
+
+	final RowComparator<RunsTable> comparator;
+	final RowFilter<RunsTable> filter;
+
+	BattingMetric(RowComparator<RunsTable> comparator) {
+		this(comparator, RowFilter.all());
+	}
+
+	BattingMetric(RowComparator<RunsTable> comparator, RowFilter<RunsTable> filter) {
+		this.comparator = comparator;
+		this.filter = filter;
+	}
+}
@@ -0,0 +1,180 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leaderboard over the runs table, run by {@link IPLAnalysis#query(BattingQuery)}:
+ * conditions on the rows, order keys applied in turn and a limit. Conditions
+ * are joined by and, {@link #whereNot} negates one and {@link #or()} starts an
+ * alternative group, so a row is kept when it meets every condition of any
+ * group. For example
+ * 
+ * <pre>
+ * new BattingQuery().where(BattingField.INNINGS, Comparison.AT_LEAST, 10)
+ * 		.whereNot(BattingField.STRIKE_RATE, Comparison.LESS_THAN, 130)
+ * 		.or().where(BattingField.HUNDREDS, Comparison.AT_LEAST, 1)
+ * 		.orderByDescending(BattingField.AVERAGE).orderByDescending(BattingField.STRIKE_RATE).limit(5)
+ * </pre>
+ * 
+ * Queries of the same shape share one compiled plan, whatever their bounds and
+ * limit.
+ */
+public class BattingQuery {
+	private final List<BattingField> filterFields = new ArrayList<>();
+	private final List<Comparison> comparisons = new ArrayList<>();
+	private final List<Double> bounds = new ArrayList<>();
+	private final List<Boolean> negated = new ArrayList<>();
+	/**
+	 * Number of conditions before each or
+	 */
+	private final List<Integer> groupEnds = new ArrayList<>();
+	private final List<BattingField> orderFields = new ArrayList<>();
+	private final List<Boolean> descending = new ArrayList<>();
+	private int limit = Integer.MAX_VALUE;
+
+	/**
+	 * Keeps only rows whose field compares to the bound as given
+	 * 
+	 * @param field
+	 * @param comparison
+	 * @param bound
+	 * @return
+	 */
+	public BattingQuery where(BattingField field, Comparison comparison, double bound) {
+		return condition(field, comparison, bound, false);
+	}
+
+	/**
+	 * Keeps only rows whose field does not compare to the bound as given
+	 * 
+	 * @param field
+	 * @param comparison
+	 * @param bound
+	 * @return
+	 */
+	public BattingQuery whereNot(BattingField field, Comparison comparison, double bound) {
+		return condition(field, comparison, bound, true);
+	}
+
+	/**
+	 * Starts an alternative group of conditions: rows meeting every condition
+	 * given so far since the last or are kept as well as rows meeting every
+	 * condition that follows. An or with no condition before it is ignored.
+	 * 
+	 * @return
+	 */
+	public BattingQuery or() {
+		if (filterFields.size() > lastGroupEnd())
+			groupEnds.add(filterFields.size());
+		return this;
+	}
+
+	private BattingQuery condition(BattingField field, Comparison comparison, double bound, boolean not) {
+		filterFields.add(field);
+		comparisons.add(comparison);
+		bounds.add(bound);
+		negated.add(not);
+		return this;
+	}
+
+	/**
+	 * Orders by the field, greatest first, after any earlier order keys
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public BattingQuery orderByDescending(BattingField field) {
+		orderFields.add(field);
+		descending.add(true);
+		return this;
+	}
+
+	/**
+	 * Orders by the field, smallest first, after any earlier order keys
+	 * 
+	 * @param field
+	 * @return
+	 */
+	public BattingQuery orderByAscending(BattingField field) {
+		orderFields.add(field);
+		descending.add(false);
+		return this;
+	}
+
+	/**
+	 * Returns at most limit rows
+	 * 
+	 * @param limit
+	 * @return
+	 */
+	public BattingQuery limit(int limit) {
+		this.limit = Math.max(limit, 0);
+		return this;
+	}
+
+	/**
+	 * Returns the ids of the matching rows of the table in query order
+	 * 
+	 * @param table
+	 * @return
+	 */
+	int[] run(RunsTable table) {
+		QueryPlan<RunsTable> plan = QueryPlan.of(shape(), () -> {
+			List<DerivedMetric<RunsTable>> filterColumns = new ArrayList<>();
+			filterFields.forEach(field -> filterColumns.add(field.column));
+			List<DerivedMetric<RunsTable>> orderColumns = new ArrayList<>();
+			orderFields.forEach(field -> orderColumns.add(field.column));
+			return QueryPlan.compile(filterColumns, comparisons, negated, groups(), orderColumns, descending);
+		});
+		double[] values = new double[bounds.size()];
+		for (int index = 0; index < values.length; index++)
+			values[index] = bounds.get(index);
+		return plan.run(table, table.filters, values, limit);
+	}
+
+	private int lastGroupEnd() {
+		return groupEnds.isEmpty() ? 0 : groupEnds.get(groupEnds.size() - 1);
+	}
+
+	/**
+	 * Returns the number of conditions at the end of each group, leaving out an
+	 * empty group after the last or
+	 * 
+	 * @return
+	 */
+	private List<Integer> groups() {
+		List<Integer> groups = new ArrayList<>(groupEnds);
+		if (groups.isEmpty() || filterFields.size() > lastGroupEnd())
+			groups.add(filterFields.size());
+		return groups;
+	}
+
+	/**
+	 * Returns the key of the result of this query: its shape, bounds and limit
+	 * 
+	 * @return
+	 */
+	String key() {
+		return shape() + " bounds " + bounds + " limit " + limit;
+	}
+
+	/**
+	 * Returns the key of the plan of this query: its fields, comparisons, groups
+	 * and sort directions
+	 * 
+	 * @return
+	 */
+	String shape() {
+		StringBuilder shape = new StringBuilder("runs");
+		List<Integer> groups = groups();
+		for (int index = 0; index < filterFields.size(); index++)
+			shape.append(index == 0 ? " where " : groups.contains(index) ? " or " : " and ")
+					.append(negated.get(index) ? "not " : "").append(filterFields.get(index)).append(' ')
+					.append(comparisons.get(index));
+		for (int index = 0; index < orderFields.size(); index++)
+			shape.append(index == 0 ? " order by " : ", ").append(orderFields.get(index))
+					.append(descending.get(index) ? " desc" : " asc");
+		return shape.toString();
+	}
+}
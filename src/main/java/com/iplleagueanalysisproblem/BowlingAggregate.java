@@ -0,0 +1,126 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bowling totals of one player over any number of factsheet rows or innings.
+ * Overs are summed as balls, and average, economy and strike rate are derived
+ * only when the totals are turned into a row. Aggregates of separate rows
+ * merge, so partitions can be summed independently and combined afterwards.
+ */
+final class BowlingAggregate {
+	String playerName;
+	int matches;
+	int innings;
+	int balls;
+	int runs;
+	int wickets;
+	int bbi;
+	int fourWickets;
+	int fiveWickets;
+
+	BowlingAggregate(String playerName) {
+		this.playerName = playerName;
+	}
+
+	/**
+	 * Adds the totals of a row of the table
+	 * 
+	 * @param table
+	 * @param row
+	 */
+	void add(WicketsTable table, int row) {
+		matches += table.matches[row];
+		innings += table.innings[row];
+		balls += (int) table.ballsBowled[row];
+		runs += table.runs[row];
+		wickets += table.wickets[row];
+		bbi = Math.max(bbi, table.bbi[row]);
+		fourWickets += table.fourWickets[row];
+		fiveWickets += table.fiveWickets[row];
+	}
+
+	/**
+	 * Adds one innings of the player, bowled in legal deliveries
+	 * 
+	 * @param legalBalls
+	 * @param conceded
+	 * @param inningsWickets
+	 */
+	void addInnings(int legalBalls, int conceded, int inningsWickets) {
+		innings++;
+		balls += legalBalls;
+		runs += conceded;
+		wickets += inningsWickets;
+		bbi = Math.max(bbi, inningsWickets);
+		if (inningsWickets >= 5)
+			fiveWickets++;
+		else if (inningsWickets == 4)
+			fourWickets++;
+	}
+
+	/**
+	 * Adds the totals of an aggregate of later rows. The player keeps the name
+	 * spelling of the later rows.
+	 * 
+	 * @param later
+	 * @return
+	 */
+	BowlingAggregate merge(BowlingAggregate later) {
+		playerName = later.playerName;
+		matches += later.matches;
+		innings += later.innings;
+		balls += later.balls;
+		runs += later.runs;
+		wickets += later.wickets;
+		bbi = Math.max(bbi, later.bbi);
+		fourWickets += later.fourWickets;
+		fiveWickets += later.fiveWickets;
+		return this;
+	}
+
+	/**
+	 * Returns the totals as a factsheet row, overs in cricket notation and
+	 * average, economy and strike rate rounded to two decimals like the
+	 * factsheets. Each is 0 where the factsheets print "-".
+	 * 
+	 * @param position
+	 * @return
+	 */
+	CSVWickets toCSVWickets(int position) {
+		CSVWickets entry = new CSVWickets();
+		entry.position = position;
+		entry.playerName = playerName;
+		entry.matches = matches;
+		entry.innings = innings;
+		entry.overs = Overs.fromBalls(balls);
+		entry.runs = runs;
+		entry.wickets = wickets;
+		entry.bbi = bbi;
+		entry.average = wickets > 0 ? BattingAggregate.round(runs / (double) wickets) : 0;
+		entry.economy = balls > 0 ? BattingAggregate.round(runs * 6.0 / balls) : 0;
+		entry.strikeRate = wickets > 0 ? BattingAggregate.round(balls / (double) wickets) : 0;
+		entry.fourWickets = fourWickets;
+		entry.fiveWickets = fiveWickets;
+		return entry;
+	}
+
+	/**
+	 * Returns the table of the players, most wickets first and positioned in that
+	 * order like the factsheets. Players with equal wickets keep their order.
+	 * 
+	 * @param players
+	 * @return
+	 */
+	static WicketsTable tableOf(Collection<BowlingAggregate> players) {
+		List<BowlingAggregate> ranked = new ArrayList<>(players);
+		ranked.sort(Comparator.comparingInt((BowlingAggregate player) -> player.wickets).reversed());
+		WicketsTable.Builder builder = new WicketsTable.Builder();
+		for (int index = 0; index < ranked.size(); index++)
+			builder.add(ranked.get(index).toCSVWickets(index + 1));
+		return builder.build();
+	}
+}
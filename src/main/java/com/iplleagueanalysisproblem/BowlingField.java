@@ -0,0 +1,27 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Wickets table columns that {@link BowlingQuery} can filter and order by
+ */
+public enum BowlingField {
+	POSITION((table, row) -> table.position[row]),
+	MATCHES((table, row) -> table.matches[row]),
+	INNINGS((table, row) -> table.innings[row]),
+	OVERS((table, row) -> table.overs[row]),
+	BALLS_BOWLED((table, row) -> table.ballsBowled[row]),
+	RUNS((table, row) -> table.runs[row]),
+	WICKETS((table, row) -> table.wickets[row]),
+	BBI((table, row) -> table.bbi[row]),
+	AVERAGE((table, row) -> table.average[row]),
+	ECONOMY((table, row) -> table.economy[row]),
+	STRIKE_RATE((table, row) -> table.strikeRate[row]),
+	FOUR_WICKETS((table, row) -> table.fourWickets[row]),
+	FIVE_WICKETS((table, row) -> table.fiveWickets[row]),
+	STRIKE_RATE_WITH_4W_5W((table, row) -> table.strikeRateWith4w5w[row]);
+
+	final DerivedMetric<WicketsTable> column;
+
+	BowlingField(DerivedMetric<WicketsTable> column) {
+		this.column = column;
+	}
+}
@@ -0,0 +1,42 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Bowling rankings available through {@link IPLAnalysis#topK(BowlingMetric, int)}.
+ * The comparator orders a better player as the greater one, so averages,
+ * strike rates and economies are reversed.
+ */
+public enum BowlingMetric {
+	AVERAGE(((RowComparator<WicketsTable>) (table, left, right) -> Double.compare(table.average[left],
+			table.average[right])).reversed(), BowlingMetric::hasWicketsAndAverage),
+	AVERAGE_AND_STRIKE_RATE(((RowComparator<WicketsTable>) (table, left, right) -> Double
+			.compare(table.average[left], table.average[right]))
+					.thenComparing((table, left, right) -> Double.compare(table.strikeRate[left],
+							table.strikeRate[right]))
+					.reversed(),
+			AVERAGE.filter),
+	STRIKE_RATE(((RowComparator<WicketsTable>) (table, left, right) -> Double.compare(table.strikeRate[left],
+			table.strikeRate[right])).reversed(), new NonZeroFilter<>(table -> table.wickets)),
+	WICKETS((table, left, right) -> Integer.compare(table.wickets[left], table.wickets[right])),
+	WICKETS_AND_AVERAGE(WICKETS.comparator.thenComparing(AVERAGE.comparator), AVERAGE.filter),
+	ECONOMY(((RowComparator<WicketsTable>) (table, left, right) -> Double.compare(table.economy[left],
+			table.economy[right])).reversed()),
+	STRIKE_RATE_WITH_4W_5W(((RowComparator<WicketsTable>) (table, left, right) -> Double
+			.compare(table.strikeRateWith4w5w[left], table.strikeRateWith4w5w[right])).reversed(),
+			(table, row) -> table.fourWickets[row] + table.fiveWickets[row] != 0);
+
+	final RowComparator<WicketsTable> comparator;
+	final RowFilter<WicketsTable> filter;
+
+	BowlingMetric(RowComparator<WicketsTable> comparator) {
+		this(comparator, RowFilter.all());
+	}
+
+	BowlingMetric(RowComparator<WicketsTable> comparator, RowFilter<WicketsTable> filter) {
+		this.comparator = comparator;
+		this.filter = filter;
+	}
+
+	private static boolean hasWicketsAndAverage(WicketsTable table, int row) {
+		return table.wickets[row] != 0 && table.average[row] != 0;
+	}
+}
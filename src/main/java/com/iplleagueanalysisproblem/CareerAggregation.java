@@ -0,0 +1,122 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Sums season tables into career aggregates per player with fork/join. Each
+ * season is aggregated on its own and the results are merged pairwise on the
+ * way back up, earlier seasons first, so no season rows are ever concatenated
+ * or sorted. Players are matched on {@link PlayerIndex#normalize(String)}.
+ */
+final class CareerAggregation {
+	private CareerAggregation() {
+	}
+
+	/**
+	 * Returns the career batting aggregates of the seasons, keyed by player, in
+	 * order of first appearance
+	 * 
+	 * @param seasons tables in season order
+	 * @param pool
+	 * @return
+	 */
+	static Map<String, BattingAggregate> batting(List<RunsTable> seasons, ForkJoinPool pool) {
+		return pool.invoke(new MergeTask<>(seasons, 0, seasons.size(), CareerAggregation::battingOf,
+				BattingAggregate::merge));
+	}
+
+	/**
+	 * Returns the career bowling aggregates of the seasons, keyed by player, in
+	 * order of first appearance
+	 * 
+	 * @param seasons tables in season order
+	 * @param pool
+	 * @return
+	 */
+	static Map<String, BowlingAggregate> bowling(List<WicketsTable> seasons, ForkJoinPool pool) {
+		return pool.invoke(new MergeTask<>(seasons, 0, seasons.size(), CareerAggregation::bowlingOf,
+				BowlingAggregate::merge));
+	}
+
+	private static Map<String, BattingAggregate> battingOf(RunsTable table) {
+		String[] keys = keysOf(table.names);
+		Map<String, BattingAggregate> players = new LinkedHashMap<>();
+		for (int row = 0; row < table.size; row++) {
+			String key = keys[table.playerName[row]];
+			BattingAggregate player = players.get(key);
+			if (player == null) {
+				player = new BattingAggregate(table.playerName(row));
+				players.put(key, player);
+			}
+			player.add(table, row);
+		}
+		return players;
+	}
+
+	private static Map<String, BowlingAggregate> bowlingOf(WicketsTable table) {
+		String[] keys = keysOf(table.names);
+		Map<String, BowlingAggregate> players = new LinkedHashMap<>();
+		for (int row = 0; row < table.size; row++) {
+			String key = keys[table.playerName[row]];
+			BowlingAggregate player = players.get(key);
+			if (player == null) {
+				player = new BowlingAggregate(table.playerName(row));
+				players.put(key, player);
+			}
+			player.add(table, row);
+		}
+		return players;
+	}
+
+	/**
+	 * Normalizes every name of the dictionary once rather than once per row
+	 */
+	private static String[] keysOf(StringDictionary names) {
+		String[] keys = new String[names.size()];
+		for (int code = 0; code < keys.length; code++)
+			keys[code] = PlayerIndex.normalize(names.decode(code));
+		return keys;
+	}
+
+	/**
+	 * Aggregates the seasons in [from, to): one season directly, more by forking
+	 * the earlier half and merging the later half into it
+	 */
+	@SuppressWarnings("serial")
+	private static final class MergeTask<T, A> extends RecursiveTask<Map<String, A>> {
+		private final List<T> seasons;
+		private final int from;
+		private final int to;
+		private final Function<T, Map<String, A>> leaf;
+		private final BinaryOperator<A> merge;
+
+		MergeTask(List<T> seasons, int from, int to, Function<T, Map<String, A>> leaf, BinaryOperator<A> merge) {
+			this.seasons = seasons;
+			this.from = from;
+			this.to = to;
+			this.leaf = leaf;
+			this.merge = merge;
+		}
+
+		@Override
+		protected Map<String, A> compute() {
+			if (to - from == 0)
+				return new LinkedHashMap<>();
+			if (to - from == 1)
+				return leaf.apply(seasons.get(from));
+			int middle = (from + to) >>> 1;
+			MergeTask<T, A> earlier = new MergeTask<>(seasons, from, middle, leaf, merge);
+			earlier.fork();
+			Map<String, A> later = new MergeTask<>(seasons, middle, to, leaf, merge).compute();
+			Map<String, A> players = earlier.join();
+			later.forEach((player, aggregate) -> players.merge(player, aggregate, merge));
+			return players;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Scans over primitive columns. Maxima and minima follow Double.compare, so
+ * NaN ranks above every number and -0.0 below 0.0, and on ties the first row
+ * wins, as in a scan with Stream.max. {@link #get()} returns SIMD kernels
+ * built on jdk.incubator.vector when that module is present and the scalar
+ * ones otherwise; both give identical results.
+ */
+interface ColumnKernels {
+	/**
+	 * Returns the first row holding the greatest of the first size values
+	 * 
+	 * @param values
+	 * @param size   at least 1
+	 * @return
+	 */
+	int argMax(double[] values, int size);
+
+	/**
+	 * Returns the first row holding the greatest of the first size values
+	 * 
+	 * @param values
+	 * @param size   at least 1
+	 * @return
+	 */
+	int argMax(int[] values, int size);
+
+	/**
+	 * Returns the first row holding the smallest of the first size values
+	 * 
+	 * @param values
+	 * @param size   at least 1
+	 * @return
+	 */
+	int argMin(double[] values, int size);
+
+	/**
+	 * Returns the rows whose value is not 0, in row order
+	 * 
+	 * @param values
+	 * @param size
+	 * @return
+	 */
+	int[] selectNonZero(int[] values, int size);
+
+	/**
+	 * Computes runs scored in fours and sixes per 100 balls faced, 0 without
+	 * balls faced, into out
+	 * 
+	 * @param fours
+	 * @param sixes
+	 * @param ballsFaced
+	 * @param out
+	 * @param size
+	 */
+	void boundaryStrikeRate(int[] fours, int[] sixes, int[] ballsFaced, double[] out, int size);
+
+	/**
+	 * Returns the kernels in use
+	 * 
+	 * @return
+	 */
+	static ColumnKernels get() {
+		return Loaded.INSTANCE;
+	}
+
+	/**
+	 * Loads the vector kernels by name, so this class still loads where they
+	 * were not compiled or the incubator module is not resolved. Setting the
+	 * system property ipl.vector to false forces the scalar kernels.
+	 */
+	final class Loaded {
+		static final ColumnKernels INSTANCE = load();
+
+		private Loaded() {
+		}
+
+		private static ColumnKernels load() {
+			if (!Boolean.parseBoolean(System.getProperty("ipl.vector", "true")))
+				return new ScalarKernels();
+			try {
+				return (ColumnKernels) Class.forName("com.iplleagueanalysisproblem.VectorKernels")
+						.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError | RuntimeException unavailable) {
+				return new ScalarKernels();
+			}
+		}
+	}
+}
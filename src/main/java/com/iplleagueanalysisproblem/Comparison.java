@@ -0,0 +1,8 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Comparison of a column value with a bound in a query condition
+ */
+public enum Comparison {
+	LESS_THAN, AT_MOST, EQUAL_TO, NOT_EQUAL_TO, AT_LEAST, GREATER_THAN
+}
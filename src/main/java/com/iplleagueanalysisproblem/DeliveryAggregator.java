@@ -0,0 +1,357 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates a ball-by-ball file, one row per delivery in the columns of the
+ * Cricsheet csv format, into batting and bowling totals per player. The
+ * deliveries of a match must be consecutive. Each match is copied into a
+ * batch as the file streams through and aggregated on the pool, and the
+ * totals of the matches are merged in file order, so at most a few matches
+ * are held at once and memory otherwise stays at one aggregate per player.
+ *
+ * Balls faced count every delivery but wides, fours and sixes are deliveries
+ * with 4 or 6 runs off the bat. Bowlers are charged the runs off the bat,
+ * wides and no balls, and balls bowled are the deliveries that are neither.
+ * Run outs, retirements and obstructing the field are not bowler wickets, and
+ * retired hurt batsmen are not out. Innings past the second are super overs
+ * and are left out. A player gets a match for every match in any role.
+ */
+final class DeliveryAggregator implements FactsheetSink {
+	static final String[] COLUMNS = { "match_id", "innings", "striker", "non_striker", "bowler", "runs_off_bat",
+			"wides", "noballs", "wicket_type", "player_dismissed" };
+	private static final int MATCH = 0;
+	private static final int INNINGS = 1;
+	private static final int STRIKER = 2;
+	private static final int NON_STRIKER = 3;
+	private static final int BOWLER = 4;
+	private static final int RUNS_OFF_BAT = 5;
+	private static final int WIDES = 6;
+	private static final int NO_BALLS = 7;
+	private static final int WICKET_TYPE = 8;
+	private static final int PLAYER_DISMISSED = 9;
+	private static final Set<String> NOT_BOWLER_WICKETS = Set.of("run out", "retired hurt", "retired out",
+			"retired not out", "obstructing the field");
+	private static final Set<String> NOT_OUT = Set.of("retired hurt", "retired not out");
+
+	private final ExecutorService pool;
+	private final int maxPending;
+	private final int[] columns = new int[COLUMNS.length];
+	private int requiredFields;
+	private final Deque<Future<MatchTotals>> pending = new ArrayDeque<>();
+	private final Set<String> finishedMatches = new HashSet<>();
+	private final Map<String, BattingAggregate> batting = new LinkedHashMap<>();
+	private final Map<String, BowlingAggregate> bowling = new LinkedHashMap<>();
+	private byte[] matchId;
+	private Match match;
+	private long deliveries;
+
+	/**
+	 * @param pool        aggregates the matches
+	 * @param parallelism matches aggregated at once
+	 */
+	DeliveryAggregator(ExecutorService pool, int parallelism) {
+		this.pool = pool;
+		this.maxPending = Math.max(1, parallelism) * 2;
+	}
+
+	@Override
+	public void header(FactsheetRow header) throws IPLLeagueAnalyserException {
+		for (int column = 0; column < COLUMNS.length; column++) {
+			columns[column] = header.indexOf(COLUMNS[column]);
+			if (columns[column] < 0)
+				throw new IPLLeagueAnalyserException("Missing column " + COLUMNS[column],
+						IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			requiredFields = Math.max(requiredFields, columns[column] + 1);
+		}
+	}
+
+	@Override
+	public void accept(FactsheetRow row) throws IPLLeagueAnalyserException {
+		if (row.fieldCount() < requiredFields)
+			throw new IPLLeagueAnalyserException(
+					"Expected " + requiredFields + " columns but found " + row.fieldCount(),
+					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+		if (match == null || !isCurrentMatch(row)) {
+			String id = row.string(columns[MATCH]);
+			if (!finishedMatches.add(id))
+				throw new IPLLeagueAnalyserException("Deliveries of match " + id + " are not consecutive",
+						IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			submitMatch();
+			matchId = Arrays.copyOfRange(row.buffer, row.start(columns[MATCH]),
+					row.start(columns[MATCH]) + row.length(columns[MATCH]));
+			match = new Match();
+		}
+		match.add(row, columns);
+		deliveries++;
+	}
+
+	/**
+	 * Aggregates the last match and waits for every match still being
+	 * aggregated
+	 *
+	 * @throws IPLLeagueAnalyserException
+	 */
+	void finish() throws IPLLeagueAnalyserException {
+		submitMatch();
+		while (!pending.isEmpty())
+			mergeOldest();
+	}
+
+	/**
+	 * Stops the matches still being aggregated after a failure
+	 */
+	void cancel() {
+		pending.forEach(future -> future.cancel(true));
+		pending.clear();
+	}
+
+	long deliveries() {
+		return deliveries;
+	}
+
+	/**
+	 * Returns the batting totals of every player who batted as a runs table
+	 *
+	 * @return
+	 */
+	RunsTable runsTable() {
+		return BattingAggregate
+				.tableOf(batting.values().stream().filter(player -> player.innings > 0).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Returns the bowling totals of every player who bowled as a wickets table
+	 *
+	 * @return
+	 */
+	WicketsTable wicketsTable() {
+		return BowlingAggregate
+				.tableOf(bowling.values().stream().filter(player -> player.innings > 0).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Compares the match id of the row with the current one byte by byte, so
+	 * deliveries of the same match allocate nothing for it
+	 */
+	private boolean isCurrentMatch(FactsheetRow row) {
+		int start = row.start(columns[MATCH]);
+		int length = row.length(columns[MATCH]);
+		if (length != matchId.length)
+			return false;
+		for (int index = 0; index < length; index++)
+			if (row.buffer[start + index] != matchId[index])
+				return false;
+		return true;
+	}
+
+	private void submitMatch() throws IPLLeagueAnalyserException {
+		if (match == null)
+			return;
+		Match submitted = match;
+		match = null;
+		pending.add(pool.submit(submitted::aggregate));
+		while (pending.size() > maxPending)
+			mergeOldest();
+	}
+
+	private void mergeOldest() throws IPLLeagueAnalyserException {
+		MatchTotals totals;
+		try {
+			totals = pending.peekFirst().get();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			cancel();
+			throw new IPLLeagueAnalyserException("Interrupted while loading",
+					IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
+		} catch (ExecutionException exception) {
+			cancel();
+			throw new IPLLeagueAnalyserException(String.valueOf(exception.getCause()),
+					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+		}
+		pending.removeFirst();
+		totals.batting.forEach((player, aggregate) -> batting.merge(player, aggregate, BattingAggregate::merge));
+		totals.bowling.forEach((player, aggregate) -> bowling.merge(player, aggregate, BowlingAggregate::merge));
+	}
+
+	/**
+	 * Totals of one match per player, keyed by {@link PlayerIndex#normalize}
+	 */
+	private static final class MatchTotals {
+		final Map<String, BattingAggregate> batting = new LinkedHashMap<>();
+		final Map<String, BowlingAggregate> bowling = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Deliveries of one match, copied out of the parser with player names
+	 * encoded in a dictionary of the match
+	 */
+	private static final class Match {
+		private final StringDictionary names = new StringDictionary();
+		private int size;
+		private int[] innings = new int[256];
+		private int[] striker = new int[256];
+		private int[] nonStriker = new int[256];
+		private int[] bowler = new int[256];
+		private int[] runsOffBat = new int[256];
+		private int[] wides = new int[256];
+		private int[] noBalls = new int[256];
+		private int[] dismissed = new int[256];
+		private boolean[] bowlerWicket = new boolean[256];
+
+		void add(FactsheetRow row, int[] columns) throws IPLLeagueAnalyserException {
+			if (size == innings.length)
+				grow();
+			innings[size] = row.intField(columns[INNINGS]);
+			striker[size] = name(row, columns[STRIKER]);
+			nonStriker[size] = name(row, columns[NON_STRIKER]);
+			bowler[size] = name(row, columns[BOWLER]);
+			runsOffBat[size] = row.intField(columns[RUNS_OFF_BAT]);
+			wides[size] = count(row, columns[WIDES]);
+			noBalls[size] = count(row, columns[NO_BALLS]);
+			String wicketType = row.length(columns[WICKET_TYPE]) == 0 ? ""
+					: row.string(columns[WICKET_TYPE]).trim();
+			dismissed[size] = row.length(columns[PLAYER_DISMISSED]) == 0 || NOT_OUT.contains(wicketType) ? -1
+					: name(row, columns[PLAYER_DISMISSED]);
+			bowlerWicket[size] = !wicketType.isEmpty() && !NOT_BOWLER_WICKETS.contains(wicketType);
+			size++;
+		}
+
+		private int name(FactsheetRow row, int field) {
+			return names.encode(row.buffer, row.start(field), row.length(field));
+		}
+
+		/**
+		 * Reads an extras column, empty when there were none
+		 */
+		private static int count(FactsheetRow row, int field) throws IPLLeagueAnalyserException {
+			return row.length(field) == 0 ? 0 : row.intField(field);
+		}
+
+		private void grow() {
+			int capacity = size * 2;
+			innings = Arrays.copyOf(innings, capacity);
+			striker = Arrays.copyOf(striker, capacity);
+			nonStriker = Arrays.copyOf(nonStriker, capacity);
+			bowler = Arrays.copyOf(bowler, capacity);
+			runsOffBat = Arrays.copyOf(runsOffBat, capacity);
+			wides = Arrays.copyOf(wides, capacity);
+			noBalls = Arrays.copyOf(noBalls, capacity);
+			dismissed = Arrays.copyOf(dismissed, capacity);
+			bowlerWicket = Arrays.copyOf(bowlerWicket, capacity);
+		}
+
+		/**
+		 * Sums the deliveries innings by innings into the totals of the match
+		 */
+		MatchTotals aggregate() {
+			int players = names.size();
+			InningsTotals current = new InningsTotals(players);
+			boolean[] appeared = new boolean[players];
+			MatchTotals totals = new MatchTotals();
+			String[] keys = new String[players];
+			for (int code = 0; code < players; code++)
+				keys[code] = PlayerIndex.normalize(names.decode(code));
+			int currentInnings = -1;
+			for (int delivery = 0; delivery < size; delivery++) {
+				if (innings[delivery] != currentInnings) {
+					current.addTo(totals, keys, names);
+					current = new InningsTotals(players);
+					currentInnings = innings[delivery];
+				}
+				appeared[striker[delivery]] = true;
+				appeared[nonStriker[delivery]] = true;
+				appeared[bowler[delivery]] = true;
+				if (currentInnings > 2)
+					continue;
+				current.add(this, delivery);
+			}
+			current.addTo(totals, keys, names);
+			for (int code = 0; code < players; code++)
+				if (appeared[code]) {
+					String playerName = names.decode(code);
+					totals.batting.computeIfAbsent(keys[code], key -> new BattingAggregate(playerName)).matches++;
+					totals.bowling.computeIfAbsent(keys[code], key -> new BowlingAggregate(playerName)).matches++;
+				}
+			return totals;
+		}
+	}
+
+	/**
+	 * Figures of every player of a match in one innings
+	 */
+	private static final class InningsTotals {
+		final boolean[] batted;
+		final boolean[] out;
+		final int[] runs;
+		final int[] ballsFaced;
+		final int[] fours;
+		final int[] sixes;
+		final boolean[] bowled;
+		final int[] ballsBowled;
+		final int[] conceded;
+		final int[] wickets;
+
+		InningsTotals(int players) {
+			batted = new boolean[players];
+			out = new boolean[players];
+			runs = new int[players];
+			ballsFaced = new int[players];
+			fours = new int[players];
+			sixes = new int[players];
+			bowled = new boolean[players];
+			ballsBowled = new int[players];
+			conceded = new int[players];
+			wickets = new int[players];
+		}
+
+		void add(Match match, int delivery) {
+			int striker = match.striker[delivery];
+			int bowler = match.bowler[delivery];
+			int runsOffBat = match.runsOffBat[delivery];
+			boolean wide = match.wides[delivery] > 0;
+			boolean noBall = match.noBalls[delivery] > 0;
+			batted[striker] = true;
+			batted[match.nonStriker[delivery]] = true;
+			runs[striker] += runsOffBat;
+			if (!wide)
+				ballsFaced[striker]++;
+			if (runsOffBat == 4)
+				fours[striker]++;
+			else if (runsOffBat == 6)
+				sixes[striker]++;
+			bowled[bowler] = true;
+			conceded[bowler] += runsOffBat + match.wides[delivery] + match.noBalls[delivery];
+			if (!wide && !noBall)
+				ballsBowled[bowler]++;
+			if (match.dismissed[delivery] >= 0) {
+				batted[match.dismissed[delivery]] = true;
+				out[match.dismissed[delivery]] = true;
+			}
+			if (match.bowlerWicket[delivery])
+				wickets[bowler]++;
+		}
+
+		void addTo(MatchTotals totals, String[] keys, StringDictionary names) {
+			for (int code = 0; code < batted.length; code++) {
+				String playerName = names.decode(code);
+				if (batted[code])
+					totals.batting.computeIfAbsent(keys[code], key -> new BattingAggregate(playerName))
+							.addInnings(runs[code], ballsFaced[code], fours[code], sixes[code], out[code]);
+				if (bowled[code])
+					totals.bowling.computeIfAbsent(keys[code], key -> new BowlingAggregate(playerName))
+							.addInnings(ballsBowled[code], conceded[code], wickets[code]);
+			}
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derived metrics of a table, each computed once per row into a column when
+ * the table is built rather than on every comparison. Metrics are registered
+ * by name for runs or wickets tables; a metric registered after a table was
+ * built is computed on its first lookup. An upserted table starts from the
+ * columns of the table it was copied from and only recomputes its changed rows.
+ *
+ * @param <T> table type
+ */
+final class DerivedColumns<T> {
+	/**
+	 * Runs scored in fours and sixes per 100 balls faced, 0 without balls faced
+	 */
+	static final String BOUNDARY_STRIKE_RATE = "boundaryStrikeRate";
+	/**
+	 * Overs in cricket notation as balls
+	 */
+	static final String BALLS_BOWLED = "ballsBowled";
+	/**
+	 * Balls bowled per wicket of the 4 and 5 wicket hauls, Double.MAX_VALUE
+	 * without any haul
+	 */
+	static final String STRIKE_RATE_WITH_4W_5W = "strikeRateWith4w5w";
+
+	private static final Map<String, DerivedMetric<RunsTable>> BATTING = new ConcurrentHashMap<>();
+	private static final Map<String, DerivedMetric<WicketsTable>> BOWLING = new ConcurrentHashMap<>();
+
+	static {
+		registerBatting(BOUNDARY_STRIKE_RATE, new DerivedMetric<RunsTable>() {
+			@Override
+			public double compute(RunsTable table, int row) {
+				return ScalarKernels.boundaryStrikeRate(table.fours[row], table.sixes[row], table.ballsFaced[row]);
+			}
+
+			@Override
+			public void computeColumn(RunsTable table, int size, double[] out) {
+				ColumnKernels.get().boundaryStrikeRate(table.fours, table.sixes, table.ballsFaced, out, size);
+			}
+		});
+		registerBowling(BALLS_BOWLED, (table, row) -> Overs.toBalls(table.overs[row]));
+		registerBowling(STRIKE_RATE_WITH_4W_5W, (table, row) -> {
+			int wicketsInHauls = table.fourWickets[row] * 4 + table.fiveWickets[row] * 5;
+			return wicketsInHauls == 0 ? Double.MAX_VALUE
+					: Overs.toBalls(table.overs[row]) / (double) wicketsInHauls;
+		});
+	}
+
+	private final T table;
+	private final int size;
+	private final Map<String, DerivedMetric<T>> registry;
+	private final Map<String, double[]> columns = new ConcurrentHashMap<>();
+
+	private DerivedColumns(T table, int size, Map<String, DerivedMetric<T>> registry) {
+		this(table, size, registry, Map.of());
+	}
+
+	private DerivedColumns(T table, int size, Map<String, DerivedMetric<T>> registry, Map<String, double[]> columns) {
+		this.table = table;
+		this.size = size;
+		this.registry = registry;
+		this.columns.putAll(columns);
+		for (String name : registry.keySet())
+			column(name);
+	}
+
+	/**
+	 * Returns the derived columns of the next table, which differs from this
+	 * one in the changed rows only. A column is shared with this table when none
+	 * of its values change.
+	 * 
+	 * @param next
+	 * @param nextSize
+	 * @param changedRows
+	 * @return
+	 */
+	DerivedColumns<T> patched(T next, int nextSize, int[] changedRows) {
+		Map<String, double[]> patched = new ConcurrentHashMap<>();
+		columns.forEach((name, values) -> patched.put(name,
+				patch(registry.get(name), next, nextSize, values, changedRows)));
+		return new DerivedColumns<>(next, nextSize, registry, patched);
+	}
+
+	private static <T> double[] patch(DerivedMetric<T> metric, T next, int nextSize, double[] values,
+			int[] changedRows) {
+		double[] patched = values.length == nextSize ? values : Arrays.copyOf(values, nextSize);
+		for (int row : changedRows) {
+			double value = metric.compute(next, row);
+			if (Double.compare(patched[row], value) == 0)
+				continue;
+			if (patched == values)
+				patched = values.clone();
+			patched[row] = value;
+		}
+		return patched;
+	}
+
+	static DerivedColumns<RunsTable> of(RunsTable table) {
+		return new DerivedColumns<>(table, table.size, BATTING);
+	}
+
+	static DerivedColumns<WicketsTable> of(WicketsTable table) {
+		return new DerivedColumns<>(table, table.size, BOWLING);
+	}
+
+	/**
+	 * Adds a metric to every runs table
+	 * 
+	 * @param name
+	 * @param metric
+	 */
+	static void registerBatting(String name, DerivedMetric<RunsTable> metric) {
+		BATTING.put(name, metric);
+	}
+
+	/**
+	 * Adds a metric to every wickets table
+	 * 
+	 * @param name
+	 * @param metric
+	 */
+	static void registerBowling(String name, DerivedMetric<WicketsTable> metric) {
+		BOWLING.put(name, metric);
+	}
+
+	/**
+	 * Returns the column of the metric, one value per row
+	 * 
+	 * @param name
+	 * @return
+	 */
+	double[] column(String name) {
+		double[] values = columns.get(name);
+		if (values == null) {
+			DerivedMetric<T> metric = registry.get(name);
+			if (metric == null)
+				throw new IllegalArgumentException("Unknown derived metric " + name);
+			values = new double[size];
+			metric.computeColumn(table, size, values);
+			double[] raced = columns.putIfAbsent(name, values);
+			if (raced != null)
+				values = raced;
+		}
+		return values;
+	}
+}
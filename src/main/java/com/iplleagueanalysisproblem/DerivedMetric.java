@@ -0,0 +1,24 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Value computed from the stored columns of one row of a columnar table
+ *
+ * @param <T> table type
+ */
+@FunctionalInterface
+interface DerivedMetric<T> {
+	double compute(T table, int row);
+
+	/**
+	 * Computes the metric of the first size rows into out. Metrics with a
+	 * column kernel override this to compute many rows at a time.
+	 * 
+	 * @param table
+	 * @param size
+	 * @param out
+	 */
+	default void computeColumn(T table, int size, double[] out) {
+		for (int row = 0; row < size; row++)
+			out[row] = compute(table, row);
+	}
+}
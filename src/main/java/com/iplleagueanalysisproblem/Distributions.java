@@ -0,0 +1,68 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Builds distribution summaries of one column over the rows a filter accepts.
+ * Undefined values (NaN) are left out.
+ */
+final class Distributions {
+	private Distributions() {
+	}
+
+	/**
+	 * Returns the quantile summary of the column, exact or sketched as the mode
+	 * says
+	 * 
+	 * @param <T>
+	 * @param table
+	 * @param size
+	 * @param column
+	 * @param filter
+	 * @param mode
+	 * @return
+	 */
+	static <T> QuantileSummary summarize(T table, int size, DerivedMetric<T> column, RowFilter<T> filter,
+			QuantileMode mode) {
+		boolean exact = mode == QuantileMode.EXACT
+				|| (mode == QuantileMode.AUTO && size <= QuantileMode.EXACT_LIMIT);
+		QuantileSketch sketch = exact ? new ExactQuantiles() : new KllSketch();
+		for (int row = 0; row < size; row++) {
+			if (!filter.test(table, row))
+				continue;
+			double value = column.compute(table, row);
+			if (!Double.isNaN(value))
+				sketch.add(value);
+		}
+		return sketch.summary();
+	}
+
+	/**
+	 * Returns the number of values per bucket of the given width, keyed by the
+	 * lower bound of the bucket. Empty buckets are left out.
+	 * 
+	 * @param <T>
+	 * @param table
+	 * @param size
+	 * @param column
+	 * @param filter
+	 * @param bucketWidth
+	 * @return
+	 */
+	static <T> SortedMap<Double, Integer> histogram(T table, int size, DerivedMetric<T> column, RowFilter<T> filter,
+			double bucketWidth) {
+		if (!(bucketWidth > 0))
+			throw new IllegalArgumentException("Bucket width must be positive but was " + bucketWidth);
+		SortedMap<Double, Integer> buckets = new TreeMap<>();
+		for (int row = 0; row < size; row++) {
+			if (!filter.test(table, row))
+				continue;
+			double value = column.compute(table, row);
+			if (!Double.isNaN(value))
+				buckets.merge(Math.floor(value / bucketWidth) * bucketWidth, 1, Integer::sum);
+		}
+		return Collections.unmodifiableSortedMap(buckets);
+	}
+}
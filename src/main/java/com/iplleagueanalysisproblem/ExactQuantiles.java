@@ -0,0 +1,28 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every value, so its summary answers exactly
+ */
+final class ExactQuantiles implements QuantileSketch {
+	private double[] values = new double[64];
+	private int size;
+
+	@Override
+	public void add(double value) {
+		if (size == values.length)
+			values = Arrays.copyOf(values, size * 2);
+		values[size++] = value;
+	}
+
+	@Override
+	public QuantileSummary summary() {
+		double[] sorted = Arrays.copyOf(values, size);
+		Arrays.sort(sorted);
+		long[] cumulativeWeights = new long[size];
+		for (int index = 0; index < size; index++)
+			cumulativeWeights[index] = index + 1;
+		return new QuantileSummary(sorted, cumulativeWeights);
+	}
+}
@@ -0,0 +1,108 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * JSON output of the leaderboards. Rankings are streamed straight from the
+ * table columns to a JsonWriter, so no CSVRuns or CSVWickets objects are
+ * built. The field names and order, and the HTML-safe escaping, match the
+ * reflective output of a default Gson on the POJOs.
+ */
+final class FactsheetJson {
+	private FactsheetJson() {
+	}
+
+	/**
+	 * Writes the rows of the ranking from offset, at most limit of them, as a
+	 * JSON array
+	 * 
+	 * @param writer
+	 * @param table
+	 * @param ranking
+	 * @param offset
+	 * @param limit
+	 * @throws IOException
+	 */
+	static void writeRuns(Writer writer, RunsTable table, RowList<CSVRuns> ranking, int offset, int limit)
+			throws IOException {
+		JsonWriter out = writer(writer);
+		out.beginArray();
+		int end = end(ranking.size(), offset, limit);
+		for (int index = Math.max(offset, 0); index < end; index++)
+			writeRuns(out, table, ranking.rowAt(index));
+		out.endArray();
+		out.flush();
+	}
+
+	/**
+	 * Writes the rows of the ranking from offset, at most limit of them, as a
+	 * JSON array
+	 * 
+	 * @param writer
+	 * @param table
+	 * @param ranking
+	 * @param offset
+	 * @param limit
+	 * @throws IOException
+	 */
+	static void writeWickets(Writer writer, WicketsTable table, RowList<CSVWickets> ranking, int offset, int limit)
+			throws IOException {
+		JsonWriter out = writer(writer);
+		out.beginArray();
+		int end = end(ranking.size(), offset, limit);
+		for (int index = Math.max(offset, 0); index < end; index++)
+			writeWickets(out, table, ranking.rowAt(index));
+		out.endArray();
+		out.flush();
+	}
+
+	private static JsonWriter writer(Writer writer) {
+		JsonWriter out = new JsonWriter(writer);
+		out.setHtmlSafe(true);
+		return out;
+	}
+
+	private static int end(int size, int offset, int limit) {
+		return (int) Math.min(size, Math.max(offset, 0) + (long) Math.max(limit, 0));
+	}
+
+	static void writeRuns(JsonWriter out, RunsTable table, int row) throws IOException {
+		out.beginObject();
+		out.name("position").value(table.position[row]);
+		out.name("playerName").value(table.playerName(row));
+		out.name("matches").value(table.matches[row]);
+		out.name("innings").value(table.innings[row]);
+		out.name("notOut").value(table.notOut[row]);
+		out.name("runs").value(table.runs[row]);
+		out.name("highScore").value(table.highScores.decode(table.highScore[row]));
+		out.name("average").value(table.average[row]);
+		out.name("ballsFaced").value(table.ballsFaced[row]);
+		out.name("strikeRate").value(table.strikeRate[row]);
+		out.name("hundreds").value(table.hundreds[row]);
+		out.name("fiftys").value(table.fiftys[row]);
+		out.name("fours").value(table.fours[row]);
+		out.name("sixes").value(table.sixes[row]);
+		out.endObject();
+	}
+
+	static void writeWickets(JsonWriter out, WicketsTable table, int row) throws IOException {
+		out.beginObject();
+		out.name("position").value(table.position[row]);
+		out.name("playerName").value(table.playerName(row));
+		out.name("matches").value(table.matches[row]);
+		out.name("innings").value(table.innings[row]);
+		out.name("overs").value(table.overs[row]);
+		out.name("runs").value(table.runs[row]);
+		out.name("wickets").value(table.wickets[row]);
+		out.name("bbi").value(table.bbi[row]);
+		out.name("average").value(table.average[row]);
+		out.name("economy").value(table.economy[row]);
+		out.name("strikeRate").value(table.strikeRate[row]);
+		out.name("fourWickets").value(table.fourWickets[row]);
+		out.name("fiveWickets").value(table.fiveWickets[row]);
+		out.endObject();
+	}
+}
@@ -0,0 +1,191 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for the IPL factsheet CSV files. Reads the input in fixed
+ * size blocks, splits each line into field offsets in place and hands a reused
+ * {@link FactsheetRow} to the sink, so memory stays bounded by the longest line
+ * whatever the size of the file.
+ */
+final class FactsheetParser {
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	private final InputStream input;
+	private final FactsheetRow row = new FactsheetRow();
+	private byte[] buffer = new byte[BLOCK_SIZE];
+	private int position;
+	private int limit;
+	private boolean endOfInput;
+	private long bytesRead;
+
+	FactsheetParser(InputStream input) {
+		this.input = input;
+		row.buffer = buffer;
+	}
+
+	/**
+	 * Parses the header line and every data line into the sink and returns the
+	 * number of data rows
+	 * 
+	 * @param sink
+	 * @return
+	 * @throws IOException
+	 * @throws IPLLeagueAnalyserException
+	 */
+	long parse(FactsheetSink sink) throws IOException, IPLLeagueAnalyserException {
+		readHeader(sink);
+		try {
+			return parseRows(sink);
+		} catch (IPLLeagueAnalyserException exception) {
+			throw new IPLLeagueAnalyserException("Line " + row.lineNumber + ": " + exception.getMessage(),
+					exception.type);
+		}
+	}
+
+	/**
+	 * Reads the first line of the input and hands it to the sink as the header
+	 * 
+	 * @param sink
+	 * @throws IOException
+	 * @throws IPLLeagueAnalyserException
+	 */
+	void readHeader(FactsheetSink sink) throws IOException, IPLLeagueAnalyserException {
+		if (!nextLine())
+			throw new IPLLeagueAnalyserException("File has no header",
+					IPLLeagueAnalyserException.ExceptionType.NO_STATISTICS_DATA);
+		skipByteOrderMark();
+		sink.header(row);
+	}
+
+	/**
+	 * Parses the remaining lines of the input as data rows and returns how many
+	 * there were. Failures are thrown as raised by the sink, see
+	 * {@link #lineNumber()} for the line they happened on.
+	 * 
+	 * @param sink
+	 * @return
+	 * @throws IOException
+	 * @throws IPLLeagueAnalyserException
+	 */
+	long parseRows(FactsheetSink sink) throws IOException, IPLLeagueAnalyserException {
+		long rows = 0;
+		while (nextLine()) {
+			if (isBlank())
+				continue;
+			sink.accept(row);
+			rows++;
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the number of lines read so far, counting from 1 at the start of
+	 * this parser's input
+	 * 
+	 * @return
+	 */
+	long lineNumber() {
+		return row.lineNumber;
+	}
+
+	long bytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * Splits the next line into fields. Returns false at the end of input.
+	 */
+	private boolean nextLine() throws IOException {
+		int lineStart = position;
+		int scan = position;
+		while (true) {
+			while (scan < limit && buffer[scan] != '\n')
+				scan++;
+			if (scan < limit || endOfInput)
+				break;
+			int consumed = lineStart;
+			fill(lineStart);
+			scan -= consumed;
+			lineStart = 0;
+		}
+		if (lineStart == limit && endOfInput)
+			return false;
+		int lineEnd = scan;
+		position = scan < limit ? scan + 1 : scan;
+		if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r')
+			lineEnd--;
+		row.lineNumber++;
+		row.lineStart = lineStart;
+		row.lineEnd = lineEnd;
+		split(lineStart, lineEnd);
+		return true;
+	}
+
+	/**
+	 * Moves the unread bytes from {@code from} to the front of the buffer and
+	 * reads the next block behind them, growing the buffer for very long lines.
+	 */
+	private void fill(int from) throws IOException {
+		int remaining = limit - from;
+		if (remaining == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			row.buffer = buffer;
+		}
+		System.arraycopy(buffer, from, buffer, 0, remaining);
+		limit = remaining;
+		position = 0;
+		int read = input.read(buffer, limit, buffer.length - limit);
+		if (read < 0)
+			endOfInput = true;
+		else {
+			limit += read;
+			bytesRead += read;
+		}
+	}
+
+	private void split(int from, int to) {
+		int field = 0;
+		int start = from;
+		boolean quoted = false;
+		for (int i = from; i <= to; i++) {
+			if (i < to && buffer[i] == '"')
+				quoted = !quoted;
+			else if (i == to || (buffer[i] == ',' && !quoted)) {
+				addField(field++, start, i);
+				start = i + 1;
+			}
+		}
+		row.fieldCount = field;
+	}
+
+	private void addField(int field, int start, int end) {
+		if (field == row.starts.length) {
+			row.starts = Arrays.copyOf(row.starts, field * 2);
+			row.ends = Arrays.copyOf(row.ends, field * 2);
+		}
+		while (start < end && buffer[start] == ' ')
+			start++;
+		while (end > start && buffer[end - 1] == ' ')
+			end--;
+		if (end - start >= 2 && buffer[start] == '"' && buffer[end - 1] == '"') {
+			start++;
+			end--;
+		}
+		row.starts[field] = start;
+		row.ends[field] = end;
+	}
+
+	private boolean isBlank() {
+		return row.fieldCount == 1 && row.ends[0] == row.starts[0];
+	}
+
+	private void skipByteOrderMark() {
+		int start = row.starts[0];
+		if (row.ends[0] - start >= 3 && buffer[start] == (byte) 0xEF && buffer[start + 1] == (byte) 0xBB
+				&& buffer[start + 2] == (byte) 0xBF)
+			row.starts[0] = start + 3;
+	}
+}
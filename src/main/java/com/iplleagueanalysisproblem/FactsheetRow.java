@@ -0,0 +1,194 @@
+package com.iplleagueanalysisproblem;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor over one parsed line of a factsheet. Fields are kept as offsets into
+ * the parser buffer and numbers are decoded straight from the bytes.
+ */
+final class FactsheetRow {
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15 };
+
+	byte[] buffer;
+	int[] starts = new int[16];
+	int[] ends = new int[16];
+	int fieldCount;
+	long lineNumber;
+	int lineStart;
+	int lineEnd;
+	boolean defaultInvalidCells;
+	StringBuilder defaultedCells;
+
+	int fieldCount() {
+		return fieldCount;
+	}
+
+	long lineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Returns the index of the field holding the given text, or -1
+	 * 
+	 * @param name
+	 * @return
+	 */
+	int indexOf(String name) {
+		for (int field = 0; field < fieldCount; field++)
+			if (string(field).trim().equals(name))
+				return field;
+		return -1;
+	}
+
+	int start(int field) {
+		checkField(field);
+		return starts[field];
+	}
+
+	int length(int field) {
+		checkField(field);
+		return ends[field] - starts[field];
+	}
+
+	String string(int field) {
+		return new String(buffer, start(field), length(field), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the whole line as read, without its line break
+	 * 
+	 * @return
+	 */
+	String line() {
+		return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses the field as an int
+	 * 
+	 * @param field
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	int intField(int field) throws IPLLeagueAnalyserException {
+		int from = start(field);
+		int to = ends[field];
+		boolean negative = from < to && buffer[from] == '-';
+		if (negative || (from < to && buffer[from] == '+'))
+			from++;
+		if (from == to)
+			return (int) invalidCell(field);
+		long value = 0;
+		for (int i = from; i < to; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9)
+				return (int) invalidCell(field);
+			value = value * 10 + digit;
+			if (value > Integer.MAX_VALUE + 1L)
+				return (int) invalidCell(field);
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE)
+			return (int) invalidCell(field);
+		return (int) value;
+	}
+
+	/**
+	 * Parses the field as a double. A lone "-", used by the factsheets for
+	 * undefined averages, reads as 0.
+	 * 
+	 * @param field
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	double doubleField(int field) throws IPLLeagueAnalyserException {
+		int from = start(field);
+		int to = ends[field];
+		if (to - from == 1 && buffer[from] == '-')
+			return 0;
+		boolean negative = from < to && buffer[from] == '-';
+		if (negative || (from < to && buffer[from] == '+'))
+			from++;
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = -1;
+		for (int i = from; i < to; i++) {
+			byte character = buffer[i];
+			if (character == '.' && fractionDigits < 0) {
+				fractionDigits = 0;
+				continue;
+			}
+			int digit = character - '0';
+			if (digit < 0 || digit > 9 || ++digits > 15)
+				return parseSlow(field);
+			mantissa = mantissa * 10 + digit;
+			if (fractionDigits >= 0)
+				fractionDigits++;
+		}
+		if (digits == 0)
+			return invalidCell(field);
+		double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+		return negative ? -value : value;
+	}
+
+	private double parseSlow(int field) throws IPLLeagueAnalyserException {
+		try {
+			return Double.parseDouble(string(field).trim());
+		} catch (NumberFormatException exception) {
+			return invalidCell(field);
+		}
+	}
+
+	/**
+	 * Parses a best bowling in an innings field, written as wickets/runs such as
+	 * "4/17", as its wickets. A plain number is taken as the wickets and a lone
+	 * "-", for players who have not bowled, reads as 0.
+	 * 
+	 * @param field
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	int bestBowlingField(int field) throws IPLLeagueAnalyserException {
+		int from = start(field);
+		int to = ends[field];
+		if (to - from == 1 && buffer[from] == '-')
+			return 0;
+		int slash = from;
+		while (slash < to && buffer[slash] != '/')
+			slash++;
+		if (slash == to)
+			return intField(field);
+		int wickets = 0;
+		for (int i = from; i < slash; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9 || i - from >= 9)
+				return (int) invalidCell(field);
+			wickets = wickets * 10 + digit;
+		}
+		return slash == from ? (int) invalidCell(field) : wickets;
+	}
+
+	/**
+	 * Throws the invalid value error of the field or, when invalid cells are
+	 * defaulted, notes the cell in defaultedCells and returns 0
+	 */
+	private double invalidCell(int field) throws IPLLeagueAnalyserException {
+		if (!defaultInvalidCells)
+			throw invalid(field);
+		if (defaultedCells.length() > 0)
+			defaultedCells.append(", ");
+		defaultedCells.append("Invalid value '").append(string(field)).append("' in column ").append(field + 1);
+		return 0;
+	}
+
+	IPLLeagueAnalyserException invalid(int field) {
+		return new IPLLeagueAnalyserException("Invalid value '" + string(field) + "' in column " + (field + 1),
+				IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+	}
+
+	private void checkField(int field) {
+		if (field < 0 || field >= fieldCount)
+			throw new IndexOutOfBoundsException("Line " + lineNumber + " has no column " + (field + 1));
+	}
+}
@@ -0,0 +1,24 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Receives the rows of a factsheet as the parser streams through the file. The
+ * row passed in is reused for the next line, so values must be copied out
+ * before returning.
+ */
+interface FactsheetSink {
+	/**
+	 * Called once with the header line before any data row
+	 * 
+	 * @param header
+	 * @throws IPLLeagueAnalyserException
+	 */
+	void header(FactsheetRow header) throws IPLLeagueAnalyserException;
+
+	/**
+	 * Called for every data line
+	 * 
+	 * @param row
+	 * @throws IPLLeagueAnalyserException
+	 */
+	void accept(FactsheetRow row) throws IPLLeagueAnalyserException;
+}
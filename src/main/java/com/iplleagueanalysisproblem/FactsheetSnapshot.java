@@ -0,0 +1,137 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Binary image of the loaded runs and wickets tables together with the
+ * rankings built so far and the fingerprints of the source files.
+ *
+ * Layout: magic, format version, then one section per table holding a
+ * presence flag, the source fingerprint, the table columns and the rankings
+ * keyed by metric name. The file is read back with a single memory mapping.
+ */
+final class FactsheetSnapshot {
+	static final int MAGIC = 0x49504C53;
+	static final int VERSION = 1;
+
+	RunsTable runs;
+	SourceFingerprint runsSource;
+	final Map<BattingMetric, int[]> battingRankings = new EnumMap<>(BattingMetric.class);
+	WicketsTable wickets;
+	SourceFingerprint wicketsSource;
+	final Map<BowlingMetric, int[]> bowlingRankings = new EnumMap<>(BowlingMetric.class);
+
+	/**
+	 * Writes the snapshot next to the target and moves it into place, so a
+	 * reader never sees a partly written file
+	 * 
+	 * @param path
+	 * @throws IOException
+	 */
+	void write(Path path) throws IOException {
+		Path absolute = path.toAbsolutePath();
+		Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeBoolean(runs != null);
+				if (runs != null) {
+					writeFingerprint(out, runsSource);
+					runs.write(out);
+					writeRankings(out, battingRankings);
+				}
+				out.writeBoolean(wickets != null);
+				if (wickets != null) {
+					writeFingerprint(out, wicketsSource);
+					wickets.write(out);
+					writeRankings(out, bowlingRankings);
+				}
+			}
+			Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Reads a snapshot. Returns null when the file is missing or was written by a
+	 * different format version.
+	 * 
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	static FactsheetSnapshot read(Path path) throws IOException {
+		if (!Files.isRegularFile(path))
+			return null;
+		ByteBuffer in;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (in.remaining() < 2 * Integer.BYTES || in.getInt() != MAGIC || in.getInt() != VERSION)
+			return null;
+		FactsheetSnapshot snapshot = new FactsheetSnapshot();
+		try {
+			if (in.get() != 0) {
+				snapshot.runsSource = readFingerprint(in);
+				snapshot.runs = new RunsTable(in);
+				readRankings(in, BattingMetric.class, snapshot.battingRankings);
+			}
+			if (in.get() != 0) {
+				snapshot.wicketsSource = readFingerprint(in);
+				snapshot.wickets = new WicketsTable(in);
+				readRankings(in, BowlingMetric.class, snapshot.bowlingRankings);
+			}
+		} catch (RuntimeException exception) {
+			throw new IOException("Corrupt snapshot " + path, exception);
+		}
+		return snapshot;
+	}
+
+	private static void writeFingerprint(DataOutputStream out, SourceFingerprint fingerprint) throws IOException {
+		out.writeLong(fingerprint.size);
+		out.writeLong(fingerprint.lastModified);
+		out.writeLong(fingerprint.checksum);
+	}
+
+	private static SourceFingerprint readFingerprint(ByteBuffer in) {
+		return new SourceFingerprint(null, in.getLong(), in.getLong(), in.getLong());
+	}
+
+	private static <M extends Enum<M>> void writeRankings(DataOutputStream out, Map<M, int[]> rankings)
+			throws IOException {
+		out.writeInt(rankings.size());
+		for (Map.Entry<M, int[]> ranking : rankings.entrySet()) {
+			SnapshotIO.writeString(out, ranking.getKey().name());
+			SnapshotIO.writeInts(out, ranking.getValue(), ranking.getValue().length);
+		}
+	}
+
+	/**
+	 * Reads rankings back, skipping metrics this version no longer knows
+	 */
+	private static <M extends Enum<M>> void readRankings(ByteBuffer in, Class<M> metrics, Map<M, int[]> rankings) {
+		int count = in.getInt();
+		for (int i = 0; i < count; i++) {
+			String name = SnapshotIO.readString(in);
+			int[] rows = SnapshotIO.readInts(in);
+			try {
+				rankings.put(Enum.valueOf(metrics, name), rows);
+			} catch (IllegalArgumentException unknownMetric) {
+				continue;
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reloads the runs and wickets files of an analysis whenever they change on
+ * disk. Changes are noticed through a WatchService on the directories of the
+ * files; a burst of writes to a file is debounced into a single reload that
+ * starts once the file has been quiet for the debounce delay. Reloads run on a
+ * background thread and publish the new table, with its rankings built, in
+ * one step. When a reload fails the data in use keeps serving and the failure
+ * is kept for {@link #getLastFailure()}; the next change to the file tries
+ * again.
+ */
+public class FactsheetWatcher implements Closeable {
+	private final IPLAnalysis analysis;
+	private final Path runsFile;
+	private final Path wicketsFile;
+	private final long debounceNanos;
+	private final WatchService watchService;
+	private final ScheduledThreadPoolExecutor reloads;
+	private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+	private final Thread watcher;
+	private final AtomicLong reloadCount = new AtomicLong();
+	private volatile IPLLeagueAnalyserException lastFailure;
+
+	/**
+	 * Starts watching the files
+	 * 
+	 * @param analysis
+	 * @param runsFilePath    may be null to watch the wickets file only
+	 * @param wicketsFilePath may be null to watch the runs file only
+	 * @param debounce        quiet time after the last write before reloading
+	 * @param unit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public FactsheetWatcher(IPLAnalysis analysis, String runsFilePath, String wicketsFilePath, long debounce,
+			TimeUnit unit) throws IPLLeagueAnalyserException {
+		this.analysis = analysis;
+		this.runsFile = runsFilePath == null ? null : Paths.get(runsFilePath).toAbsolutePath().normalize();
+		this.wicketsFile = wicketsFilePath == null ? null : Paths.get(wicketsFilePath).toAbsolutePath().normalize();
+		this.debounceNanos = unit.toNanos(debounce);
+		Set<Path> directories = new HashSet<>();
+		if (runsFile != null)
+			directories.add(runsFile.getParent());
+		if (wicketsFile != null)
+			directories.add(wicketsFile.getParent());
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			for (Path directory : directories)
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException exception) {
+			throw new IPLLeagueAnalyserException(exception.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
+		}
+		reloads = new ScheduledThreadPoolExecutor(1, task -> {
+			Thread thread = new Thread(task, "ipl-factsheet-reload");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reloads.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		watcher = new Thread(this::watch, "ipl-factsheet-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				Path directory = (Path) key.watchable();
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						schedule(runsFile);
+						schedule(wicketsFile);
+						continue;
+					}
+					Path changed = directory.resolve((Path) event.context());
+					if (changed.equals(runsFile) || changed.equals(wicketsFile))
+						schedule(changed);
+				}
+				key.reset();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException closed) {
+			// closed by close()
+		}
+	}
+
+	/**
+	 * Moves the reload of the file to the debounce delay from now
+	 */
+	private void schedule(Path file) {
+		if (file == null)
+			return;
+		pending.compute(file, (key, previous) -> {
+			if (previous != null)
+				previous.cancel(false);
+			return reloads.schedule(() -> reload(file), debounceNanos, TimeUnit.NANOSECONDS);
+		});
+	}
+
+	private void reload(Path file) {
+		try {
+			boolean published = file.equals(runsFile) ? analysis.reloadRuns(file.toString())
+					: analysis.reloadWickets(file.toString());
+			if (published)
+				reloadCount.incrementAndGet();
+			lastFailure = null;
+		} catch (IPLLeagueAnalyserException exception) {
+			lastFailure = exception;
+		} catch (RuntimeException exception) {
+			// thrown from a scheduled task it would only end up in the discarded future
+			IPLLeagueAnalyserException failure = new IPLLeagueAnalyserException(String.valueOf(exception),
+					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			failure.initCause(exception);
+			lastFailure = failure;
+		}
+	}
+
+	/**
+	 * Returns the number of reloads that published new data
+	 * 
+	 * @return
+	 */
+	public long getReloadCount() {
+		return reloadCount.get();
+	}
+
+	/**
+	 * Returns why the latest reload failed, or null when it succeeded
+	 * 
+	 * @return
+	 */
+	public IPLLeagueAnalyserException getLastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * Stops watching and drops pending reloads. A reload already running still
+	 * publishes.
+	 */
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+		reloads.shutdown();
+		watcher.interrupt();
+	}
+}
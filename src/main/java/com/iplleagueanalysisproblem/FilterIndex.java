@@ -0,0 +1,275 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row bitmaps of a table. The bitmap of the filter of every batting or bowling
+ * metric is built with the table, other filters are indexed on their first
+ * lookup. Bucketed range indexes over a column are built the first time a
+ * query compares that column, so loads and snapshot restores do not pay for
+ * columns nobody filters on. Rankings and queries select rows by combining
+ * bitmaps rather than testing every row.
+ *
+ * A range index sorts the rows by the column value and cuts them into equally
+ * sized buckets, each a bitmap with the lowest and highest value in it. A range
+ * is the union of the buckets it covers, and only the rows of the at most two
+ * buckets it cuts through are tested one by one.
+ *
+ * The index of an upserted table is patched from the index of the table it was
+ * copied from: only the changed rows are tested against each filter, and they
+ * move to the range bucket holding their new value, widening its bounds when
+ * needed. Bounds stay correct but may be looser than a rebuilt index's.
+ *
+ * @param <T> table type
+ */
+final class FilterIndex<T> {
+	static final int BUCKETS = 64;
+
+	private final T table;
+	private final int size;
+	private final RowBitmap all;
+	private final Map<RowFilter<T>, RowBitmap> filters = new ConcurrentHashMap<>();
+	private final Map<DerivedMetric<T>, RangeIndex> ranges = new ConcurrentHashMap<>();
+
+	private FilterIndex(T table, int size) {
+		this(table, size, RowBitmap.range(0, size));
+	}
+
+	private FilterIndex(T table, int size, RowBitmap all) {
+		this.table = table;
+		this.size = size;
+		this.all = all;
+	}
+
+	static FilterIndex<RunsTable> of(RunsTable table) {
+		FilterIndex<RunsTable> index = new FilterIndex<>(table, table.size);
+		for (BattingMetric metric : BattingMetric.values())
+			index.bitmap(metric.filter);
+		return index;
+	}
+
+	static FilterIndex<WicketsTable> of(WicketsTable table) {
+		FilterIndex<WicketsTable> index = new FilterIndex<>(table, table.size);
+		for (BowlingMetric metric : BowlingMetric.values())
+			index.bitmap(metric.filter);
+		return index;
+	}
+
+	/**
+	 * Returns the index of the next table, which differs from the table of this
+	 * index in the changed rows only. Bitmaps the changed rows leave as they are
+	 * are shared with this index.
+	 *
+	 * @param next
+	 * @param nextSize
+	 * @param changedRows
+	 * @return
+	 */
+	FilterIndex<T> patched(T next, int nextSize, int[] changedRows) {
+		FilterIndex<T> index = new FilterIndex<>(next, nextSize, nextSize == size ? all : RowBitmap.range(0, nextSize));
+		int[] changed = Arrays.stream(changedRows).distinct().sorted().toArray();
+		RowBitmap changedBitmap = RowBitmap.of(changed);
+		filters.forEach((filter, rows) -> {
+			int[] accepted = new int[changed.length];
+			int count = 0;
+			boolean same = true;
+			for (int row : changed) {
+				boolean accepts = filter.test(next, row);
+				if (accepts)
+					accepted[count++] = row;
+				same &= accepts == rows.contains(row);
+			}
+			index.filters.put(filter, same ? rows
+					: rows.andNot(changedBitmap).or(RowBitmap.of(Arrays.copyOf(accepted, count))));
+		});
+		ranges.forEach((column, range) -> {
+			if (range.buckets.length > 0)
+				index.ranges.put(column, index.new RangeIndex(range, column, changed, changedBitmap));
+		});
+		return index;
+	}
+
+	/**
+	 * Returns the rows accepted by the filter
+	 *
+	 * @param filter
+	 * @return
+	 */
+	RowBitmap bitmap(RowFilter<T> filter) {
+		if (filter == RowFilter.ALL)
+			return all;
+		RowBitmap rows = filters.get(filter);
+		if (rows == null) {
+			rows = RowBitmap.of(RankingEngine.select(table, size, filter));
+			RowBitmap raced = filters.putIfAbsent(filter, rows);
+			if (raced != null)
+				rows = raced;
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the ids of the rows accepted by the filter in row order, in a new
+	 * array
+	 *
+	 * @param filter
+	 * @return
+	 */
+	int[] select(RowFilter<T> filter) {
+		return bitmap(filter).toArray();
+	}
+
+	/**
+	 * Returns every row of the table
+	 *
+	 * @return
+	 */
+	RowBitmap all() {
+		return all;
+	}
+
+	/**
+	 * Returns the rows whose column value compares to the bound as given
+	 *
+	 * @param column
+	 * @param comparison
+	 * @param bound
+	 * @return
+	 */
+	RowBitmap where(DerivedMetric<T> column, Comparison comparison, double bound) {
+		switch (comparison) {
+		case LESS_THAN:
+			if (bound == Double.NEGATIVE_INFINITY)
+				return RowBitmap.EMPTY;
+			return range(column, Double.NEGATIVE_INFINITY, Math.nextDown(bound));
+		case AT_MOST:
+			return range(column, Double.NEGATIVE_INFINITY, bound);
+		case EQUAL_TO:
+			return range(column, bound, bound);
+		case NOT_EQUAL_TO:
+			return range(column, bound, bound).not(size);
+		case AT_LEAST:
+			return range(column, bound, Double.POSITIVE_INFINITY);
+		case GREATER_THAN:
+			if (bound == Double.POSITIVE_INFINITY)
+				return RowBitmap.EMPTY;
+			return range(column, Math.nextUp(bound), Double.POSITIVE_INFINITY);
+		default:
+			throw new IllegalArgumentException(String.valueOf(comparison));
+		}
+	}
+
+	/**
+	 * Returns the rows whose column value is in [from, to]. NaN values are in no
+	 * range.
+	 *
+	 * @param column
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	RowBitmap range(DerivedMetric<T> column, double from, double to) {
+		RangeIndex index = rangeIndex(column);
+		RowBitmap matches = RowBitmap.EMPTY;
+		for (int bucket = 0; bucket < index.buckets.length; bucket++) {
+			double lowest = index.lowest[bucket];
+			double highest = index.highest[bucket];
+			if (highest < from || lowest > to)
+				continue;
+			if (from <= lowest && highest <= to) {
+				matches = matches.or(index.buckets[bucket]);
+				continue;
+			}
+			int[] rows = index.buckets[bucket].toArray();
+			int count = 0;
+			for (int row : rows) {
+				double value = column.compute(table, row);
+				if (from <= value && value <= to)
+					rows[count++] = row;
+			}
+			matches = matches.or(RowBitmap.of(Arrays.copyOf(rows, count)));
+		}
+		return matches;
+	}
+
+	private RangeIndex rangeIndex(DerivedMetric<T> column) {
+		RangeIndex index = ranges.get(column);
+		if (index == null) {
+			index = new RangeIndex(column);
+			RangeIndex raced = ranges.putIfAbsent(column, index);
+			if (raced != null)
+				index = raced;
+		}
+		return index;
+	}
+
+	private final class RangeIndex {
+		final double[] lowest;
+		final double[] highest;
+		final RowBitmap[] buckets;
+
+		RangeIndex(DerivedMetric<T> column) {
+			double[] values = new double[size];
+			column.computeColumn(table, size, values);
+			int[] sorted = new int[size];
+			int count = 0;
+			for (int row = 0; row < size; row++)
+				if (!Double.isNaN(values[row]))
+					sorted[count++] = row;
+			sorted = Arrays.copyOf(sorted, count);
+			RankingEngine.sort(sorted, (left, right) -> Double.compare(values[right], values[left]));
+			int bucketCount = Math.min(BUCKETS, count);
+			lowest = new double[bucketCount];
+			highest = new double[bucketCount];
+			buckets = new RowBitmap[bucketCount];
+			for (int bucket = 0; bucket < bucketCount; bucket++) {
+				int from = (int) ((long) count * bucket / bucketCount);
+				int to = (int) ((long) count * (bucket + 1) / bucketCount);
+				lowest[bucket] = values[sorted[from]];
+				highest[bucket] = values[sorted[to - 1]];
+				int[] rows = Arrays.copyOfRange(sorted, from, to);
+				Arrays.sort(rows);
+				buckets[bucket] = RowBitmap.of(rows);
+			}
+		}
+
+		/**
+		 * Copies the buckets of the previous index with the changed rows moved to
+		 * the first bucket whose highest value is at least their new value, or the
+		 * last bucket
+		 */
+		RangeIndex(RangeIndex previous, DerivedMetric<T> column, int[] changed, RowBitmap changedBitmap) {
+			lowest = previous.lowest.clone();
+			highest = previous.highest.clone();
+			buckets = previous.buckets.clone();
+			int[][] moved = new int[buckets.length][];
+			int[] movedCount = new int[buckets.length];
+			for (int row : changed) {
+				double value = column.compute(table, row);
+				if (Double.isNaN(value))
+					continue;
+				int bucket = 0;
+				while (bucket < buckets.length - 1 && highest[bucket] < value)
+					bucket++;
+				if (moved[bucket] == null)
+					moved[bucket] = new int[changed.length];
+				moved[bucket][movedCount[bucket]++] = row;
+				lowest[bucket] = Math.min(lowest[bucket], value);
+				highest[bucket] = Math.max(highest[bucket], value);
+			}
+			for (int bucket = 0; bucket < buckets.length; bucket++) {
+				boolean touched = moved[bucket] != null;
+				for (int index = 0; index < changed.length && !touched; index++)
+					touched = buckets[bucket].contains(changed[index]);
+				if (!touched)
+					continue;
+				RowBitmap rows = buckets[bucket].andNot(changedBitmap);
+				if (moved[bucket] != null)
+					rows = rows.or(RowBitmap.of(Arrays.copyOf(moved[bucket], movedCount[bucket])));
+				buckets[bucket] = rows;
+			}
+		}
+	}
+}
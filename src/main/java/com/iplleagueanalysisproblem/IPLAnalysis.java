@@ -1,40 +1,187 @@
 package com.iplleagueanalysisproblem;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
-import com.CSVBuilder.CSVBuilderException;
-import com.CSVBuilder.CSVBuilderFactory;
-import com.CSVBuilder.ICSVBuilder;
-import com.google.gson.Gson;
 
+/**
+ * Answers the IPL league use cases over the loaded runs and wickets
+ * factsheets. Safe for concurrent use: every query reads one immutable
+ * dataset, and loads publish a new dataset atomically without blocking
+ * readers.
+ */
 public class IPLAnalysis {
-	List<CSVRuns> runsCSVList = null;
-	List<CSVWickets> wicketsCSVList = null;
+	private final AtomicReference<IPLDataset> dataset = new AtomicReference<>(IPLDataset.EMPTY);
+	private final ResultCache results;
+	private volatile QuantileMode quantileMode = QuantileMode.AUTO;
+	private volatile Executor asyncExecutor = AsyncTasks.defaultExecutor();
 
 	/**
-	 * Loads csv file data and returns list of POJO objects
+	 * Caches up to 1024 query results for 10 minutes
+	 */
+	public IPLAnalysis() {
+		this(1024, 10, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * @param maximumCachedResults results kept, the least recently used are
+	 *                             evicted first
+	 * @param cacheTimeToLive      how long a result is kept after it is computed
+	 * @param timeUnit
+	 */
+	public IPLAnalysis(long maximumCachedResults, long cacheTimeToLive, TimeUnit timeUnit) {
+		results = new ResultCache(maximumCachedResults, cacheTimeToLive, timeUnit);
+	}
+
+	/**
+	 * Publishes the dataset the update makes of the current one and drops the
+	 * cached results of older datasets
+	 * 
+	 * @param update
+	 * @return
+	 */
+	private IPLDataset publish(UnaryOperator<IPLDataset> update) {
+		IPLDataset published = dataset.updateAndGet(update);
+		results.invalidateAll();
+		return published;
+	}
+
+	/**
+	 * Returns the hit, miss and eviction counts of the result cache
+	 * 
+	 * @return
+	 */
+	public ResultCacheStats getCacheStats() {
+		return results.stats();
+	}
+
+	/**
+	 * Sets whether percentile and median queries are answered exactly or from
+	 * sketches, {@link QuantileMode#AUTO} by default
+	 * 
+	 * @param mode
+	 */
+	public void setQuantileMode(QuantileMode mode) {
+		quantileMode = mode;
+	}
+
+	/**
+	 * Sets the executor the asynchronous loads and queries run on. By default
+	 * they run on virtual threads where the runtime has them and on a shared
+	 * pool of daemon threads otherwise.
+	 * 
+	 * @param executor
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		asyncExecutor = executor;
+	}
+
+	/**
+	 * Sends the load and query measurements of every analysis to the registry
+	 * 
+	 * @param registry
+	 */
+	public static void setMetricsRegistry(MetricsRegistry registry) {
+		Metrics.setRegistry(registry);
+	}
+
+	/**
+	 * Returns the registry the measurements go to, an {@link InProcessMetrics}
+	 * unless another one was set
+	 * 
+	 * @return
+	 */
+	public static MetricsRegistry getMetricsRegistry() {
+		return Metrics.registry();
+	}
+
+	@FunctionalInterface
+	private interface Load<T> {
+		T run() throws IPLLeagueAnalyserException;
+	}
+
+	/**
+	 * Runs the load, recording its duration and the type of any failure
+	 */
+	private static <T> T measuredLoad(Load<T> load) throws IPLLeagueAnalyserException {
+		long start = System.nanoTime();
+		try {
+			return load.run();
+		} catch (IPLLeagueAnalyserException exception) {
+			throw Metrics.error(exception);
+		} finally {
+			Metrics.recordSince(Metrics.LOAD_DURATION, start);
+		}
+	}
+
+	/**
+	 * Runs the use case, recording its duration under its name
+	 */
+	private static <T> T timed(String useCase, Supplier<T> query) {
+		long start = System.nanoTime();
+		try {
+			return query.get();
+		} finally {
+			Metrics.recordSince(Metrics.USE_CASE + useCase, start);
+		}
+	}
+
+	private static double timedDouble(String useCase, DoubleSupplier query) {
+		long start = System.nanoTime();
+		try {
+			return query.getAsDouble();
+		} finally {
+			Metrics.recordSince(Metrics.USE_CASE + useCase, start);
+		}
+	}
+
+	/**
+	 * Streams csv file data into the sink and returns the sink
 	 * 
 	 * @param <k>
 	 * @param filePath
-	 * @param csvClass
+	 * @param sink
 	 * @return
-	 * @throws CSVBuilderException
-	 * @throws IOException
+	 * @throws IPLLeagueAnalyserException
 	 */
-	private static <k> List<k> loadCSVData(String filePath, Class<k> csvClass) throws IPLLeagueAnalyserException {
-		try {
-			Reader reader = Files.newBufferedReader(Paths.get(filePath));
-			ICSVBuilder<k> csvBuilder = CSVBuilderFactory.createCSVBuilder();
-			return csvBuilder.getCSVFileList(reader, csvClass);
-		} catch (CSVBuilderException exception) {
-			throw new IPLLeagueAnalyserException(exception.getMessage(),
-					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+	private static <k extends FactsheetSink> k loadCSVData(String filePath, k sink) throws IPLLeagueAnalyserException {
+		try (InputStream input = Files.newInputStream(Paths.get(filePath))) {
+			FactsheetParser parser = new FactsheetParser(input);
+			try {
+				Metrics.count(Metrics.ROWS_PARSED, parser.parse(sink));
+			} finally {
+				Metrics.count(Metrics.BYTES_READ, parser.bytesRead());
+			}
+			return sink;
 		} catch (IOException exception) {
 			throw new IPLLeagueAnalyserException(exception.getMessage(),
 					IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
@@ -49,8 +196,10 @@ public class IPLAnalysis {
 	 * @throws IPLLeagueAnalyserException
 	 */
 	public int loadRunsCSV(String filePath) throws IPLLeagueAnalyserException {
-		runsCSVList = loadCSVData(filePath, CSVRuns.class);
-		return runsCSVList.size();
+		return measuredLoad(() -> {
+			SourceFingerprint source = fingerprint(filePath);
+			return installRuns(loadCSVData(filePath, new RunsTable.Builder()).build(), source);
+		});
 	}
 
 	/**
@@ -61,8 +210,458 @@ public class IPLAnalysis {
 	 * @throws IPLLeagueAnalyserException
 	 */
 	public int loadWicketsCSV(String filePath) throws IPLLeagueAnalyserException {
-		wicketsCSVList = loadCSVData(filePath, CSVWickets.class);
-		return wicketsCSVList.size();
+		return measuredLoad(() -> {
+			SourceFingerprint source = fingerprint(filePath);
+			return installWickets(loadCSVData(filePath, new WicketsTable.Builder()).build(), source);
+		});
+	}
+
+	/**
+	 * Loads csv file data, treating rows that cannot be read as the mode says,
+	 * and returns size of list of POJO objects. Rows left out or defaulted are
+	 * written to the quarantine report while the file streams through, one line
+	 * each with the line number, the reason and the line as read, separated by
+	 * tabs.
+	 * 
+	 * @param filePath
+	 * @param mode
+	 * @param quarantine report of the quarantined rows, may be null
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int loadRunsCSV(String filePath, ParseMode mode, Writer quarantine) throws IPLLeagueAnalyserException {
+		if (mode == ParseMode.STRICT)
+			return loadRunsCSV(filePath);
+		return measuredLoad(() -> {
+			SourceFingerprint source = fingerprint(filePath);
+			RunsTable.Builder builder = new RunsTable.Builder();
+			loadCSVData(filePath, new QuarantineSink(builder, mode, quarantine));
+			return installRuns(builder.build(), source);
+		});
+	}
+
+	/**
+	 * Loads csv file data, treating rows that cannot be read as the mode says,
+	 * and returns size of list of POJO objects. Rows left out or defaulted are
+	 * written to the quarantine report while the file streams through, one line
+	 * each with the line number, the reason and the line as read, separated by
+	 * tabs.
+	 * 
+	 * @param filePath
+	 * @param mode
+	 * @param quarantine report of the quarantined rows, may be null
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int loadWicketsCSV(String filePath, ParseMode mode, Writer quarantine) throws IPLLeagueAnalyserException {
+		if (mode == ParseMode.STRICT)
+			return loadWicketsCSV(filePath);
+		return measuredLoad(() -> {
+			SourceFingerprint source = fingerprint(filePath);
+			WicketsTable.Builder builder = new WicketsTable.Builder();
+			loadCSVData(filePath, new QuarantineSink(builder, mode, quarantine));
+			return installWickets(builder.build(), source);
+		});
+	}
+
+	/**
+	 * Loads csv file data like {@link #loadRunsCSV(String)} without blocking the
+	 * caller. Cancelling the future, or completing it by a timeout such as
+	 * orTimeout, interrupts the read; a load stopped before it publishes leaves
+	 * the data in use unchanged.
+	 * 
+	 * @param filePath
+	 * @return future of size of list of POJO objects
+	 */
+	public CompletableFuture<Integer> loadRunsCSVAsync(String filePath) {
+		return AsyncTasks.submit(asyncExecutor, () -> loadRunsCSV(filePath));
+	}
+
+	/**
+	 * Loads csv file data like {@link #loadWicketsCSV(String)} without blocking
+	 * the caller. Cancelling the future, or completing it by a timeout such as
+	 * orTimeout, interrupts the read; a load stopped before it publishes leaves
+	 * the data in use unchanged.
+	 * 
+	 * @param filePath
+	 * @return future of size of list of POJO objects
+	 */
+	public CompletableFuture<Integer> loadWicketsCSVAsync(String filePath) {
+		return AsyncTasks.submit(asyncExecutor, () -> loadWicketsCSV(filePath));
+	}
+
+	/**
+	 * Reads the runs and wickets files at the same time and publishes both
+	 * tables in one step once both are read, so no query sees one new table
+	 * with the other old. Cancelling the future, or completing it by a timeout,
+	 * before both files are read stops the reads and publishes nothing.
+	 * 
+	 * @param runsFilePath
+	 * @param wicketsFilePath
+	 * @return
+	 */
+	public CompletableFuture<Void> loadAsync(String runsFilePath, String wicketsFilePath) {
+		CompletableFuture<UnaryOperator<IPLDataset>> runs = AsyncTasks.submit(asyncExecutor,
+				() -> measuredLoad(() -> readRuns(runsFilePath)));
+		CompletableFuture<UnaryOperator<IPLDataset>> wickets = AsyncTasks.submit(asyncExecutor,
+				() -> measuredLoad(() -> readWickets(wicketsFilePath)));
+		CompletableFuture<Void> loaded = new CompletableFuture<>();
+		runs.thenCombine(wickets, (runsUpdate, wicketsUpdate) -> {
+			if (!loaded.isDone())
+				publish(current -> wicketsUpdate.apply(runsUpdate.apply(current)));
+			return null;
+		}).whenComplete((result, failure) -> {
+			if (failure != null)
+				loaded.completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+			else
+				loaded.complete(null);
+		});
+		loaded.whenComplete((result, failure) -> {
+			if (failure != null) {
+				runs.cancel(true);
+				wickets.cancel(true);
+			}
+		});
+		return loaded;
+	}
+
+	/**
+	 * Runs a use case, for example {@code IPLAnalysis::getTopBattingAvg}, without
+	 * blocking the caller. Queries started together run in parallel. Cancelling
+	 * the future, or completing it by a timeout, interrupts the query.
+	 * 
+	 * @param <T>
+	 * @param query
+	 * @return
+	 */
+	public <T> CompletableFuture<T> queryAsync(Function<IPLAnalysis, T> query) {
+		return AsyncTasks.submit(asyncExecutor, () -> query.apply(this));
+	}
+
+	private static UnaryOperator<IPLDataset> readRuns(String filePath) throws IPLLeagueAnalyserException {
+		SourceFingerprint source = fingerprint(filePath);
+		RunsTable table = loadCSVData(filePath, new RunsTable.Builder()).build();
+		return current -> current.withRuns(table, source, Collections.emptyMap());
+	}
+
+	private static UnaryOperator<IPLDataset> readWickets(String filePath) throws IPLLeagueAnalyserException {
+		SourceFingerprint source = fingerprint(filePath);
+		WicketsTable table = loadCSVData(filePath, new WicketsTable.Builder()).build();
+		return current -> current.withWickets(table, source, Collections.emptyMap());
+	}
+
+	/**
+	 * Loads csv file data by parsing memory mapped chunks of the file in parallel
+	 * on the pool and returns size of list of POJO objects. Rows come out in the
+	 * same order as {@link #loadRunsCSV(String)}.
+	 * 
+	 * @param filePath
+	 * @param pool
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int loadRunsCSV(String filePath, ExecutorService pool) throws IPLLeagueAnalyserException {
+		return measuredLoad(() -> {
+			SourceFingerprint source = fingerprint(filePath);
+			RunsTable.Builder merged = new RunsTable.Builder();
+			ParallelFactsheetLoader.load(Paths.get(filePath), RunsTable.Builder::new, pool, parallelismOf(pool))
+					.forEach(merged::append);
+			Metrics.count(Metrics.BYTES_READ, source.size);
+			Metrics.count(Metrics.ROWS_PARSED, merged.size());
+			return installRuns(merged.build(), source);
+		});
+	}
+
+	/**
+	 * Loads csv file data by parsing memory mapped chunks of the file in parallel
+	 * on the pool and returns size of list of POJO objects. Rows come out in the
+	 * same order as {@link #loadWicketsCSV(String)}.
+	 * 
+	 * @param filePath
+	 * @param pool
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int loadWicketsCSV(String filePath, ExecutorService pool) throws IPLLeagueAnalyserException {
+		return measuredLoad(() -> {
+			SourceFingerprint source = fingerprint(filePath);
+			WicketsTable.Builder merged = new WicketsTable.Builder();
+			ParallelFactsheetLoader.load(Paths.get(filePath), WicketsTable.Builder::new, pool, parallelismOf(pool))
+					.forEach(merged::append);
+			Metrics.count(Metrics.BYTES_READ, source.size);
+			Metrics.count(Metrics.ROWS_PARSED, merged.size());
+			return installWickets(merged.build(), source);
+		});
+	}
+
+	/**
+	 * Loads a ball-by-ball csv file, one row per delivery, and returns the number
+	 * of deliveries. The deliveries are summed into a runs and a wickets table
+	 * with the columns of the factsheets, so every use case runs on them, and
+	 * both tables are published together. See {@link DeliveryAggregator} for
+	 * the columns read and how the totals are counted.
+	 * 
+	 * @param filePath
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public long loadDeliveriesCSV(String filePath) throws IPLLeagueAnalyserException {
+		return loadDeliveriesCSV(filePath, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Loads a ball-by-ball csv file like {@link #loadDeliveriesCSV(String)},
+	 * summing the matches in parallel on the pool
+	 * 
+	 * @param filePath
+	 * @param pool
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public long loadDeliveriesCSV(String filePath, ExecutorService pool) throws IPLLeagueAnalyserException {
+		return measuredLoad(() -> {
+			DeliveryAggregator deliveries = new DeliveryAggregator(pool, parallelismOf(pool));
+			try {
+				loadCSVData(filePath, deliveries).finish();
+			} finally {
+				deliveries.cancel();
+			}
+			install(deliveries.runsTable(), deliveries.wicketsTable());
+			return deliveries.deliveries();
+		});
+	}
+
+	/**
+	 * Publishes a dataset with the runs table replaced and returns its size.
+	 * Readers keep using the dataset they started with until they are done.
+	 * 
+	 * @param table
+	 * @param source
+	 * @return
+	 */
+	private int installRuns(RunsTable table, SourceFingerprint source) {
+		publish(current -> current.withRuns(table, source, Collections.emptyMap()));
+		return table.size;
+	}
+
+	/**
+	 * Publishes a dataset with the wickets table replaced and returns its size.
+	 * Readers keep using the dataset they started with until they are done.
+	 * 
+	 * @param table
+	 * @param source
+	 * @return
+	 */
+	private int installWickets(WicketsTable table, SourceFingerprint source) {
+		publish(current -> current.withWickets(table, source, Collections.emptyMap()));
+		return table.size;
+	}
+
+	/**
+	 * Applies updated rows, for example after a match, without reloading the runs
+	 * file and returns the new number of rows. A row replaces the row of the same
+	 * player, a row for a new player is added. Rankings already built are patched
+	 * in place of a rebuild.
+	 * 
+	 * @param rows
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int upsertRuns(List<CSVRuns> rows) throws IPLLeagueAnalyserException {
+		for (CSVRuns entry : rows)
+			if (entry.playerName == null || entry.highScore == null)
+				throw new IPLLeagueAnalyserException("Row of position " + entry.position + " has no player or HS",
+						IPLLeagueAnalyserException.ExceptionType.NO_STATISTICS_DATA);
+		return publish(current -> {
+			int[] changedRows = new int[rows.size()];
+			RunsTable table = current.runs().upsert(rows, changedRows);
+			return current.withRunsUpserted(table, changedRows);
+		}).runs.size;
+	}
+
+	/**
+	 * Applies updated rows, for example after a match, without reloading the
+	 * wickets file and returns the new number of rows. A row replaces the row of
+	 * the same player, a row for a new player is added. Rankings already built
+	 * are patched in place of a rebuild.
+	 * 
+	 * @param rows
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int upsertWickets(List<CSVWickets> rows) throws IPLLeagueAnalyserException {
+		for (CSVWickets entry : rows)
+			if (entry.playerName == null)
+				throw new IPLLeagueAnalyserException("Row of position " + entry.position + " has no player",
+						IPLLeagueAnalyserException.ExceptionType.NO_STATISTICS_DATA);
+		return publish(current -> {
+			int[] changedRows = new int[rows.size()];
+			WicketsTable table = current.wickets().upsert(rows, changedRows);
+			return current.withWicketsUpserted(table, changedRows);
+		}).wickets.size;
+	}
+
+	/**
+	 * Publishes tables built in memory rather than read from csv files
+	 * 
+	 * @param runs
+	 * @param wickets
+	 */
+	void install(RunsTable runs, WicketsTable wickets) {
+		publish(current -> current.withRuns(runs, null, Collections.emptyMap()).withWickets(wickets,
+				null, Collections.emptyMap()));
+	}
+
+	/**
+	 * Returns the dataset queries currently run against
+	 * 
+	 * @return
+	 */
+	IPLDataset dataset() {
+		return dataset.get();
+	}
+
+	/**
+	 * Loads the runs file again unless it still holds the data of the loaded
+	 * table. Every ranking of the new table is built before it is published, so
+	 * queries never wait on them. Returns whether a new table was published.
+	 * 
+	 * @param filePath
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	boolean reloadRuns(String filePath) throws IPLLeagueAnalyserException {
+		return measuredLoad(() -> {
+			if (isLoadedFrom(dataset.get().runsSource, filePath))
+				return false;
+			SourceFingerprint source = fingerprint(filePath);
+			RunsTable table = loadCSVData(filePath, new RunsTable.Builder()).build();
+			Map<BattingMetric, int[]> rankings = IPLDataset.rankAll(table);
+			publish(current -> current.withRuns(table, source, rankings));
+			return true;
+		});
+	}
+
+	/**
+	 * Loads the wickets file again unless it still holds the data of the loaded
+	 * table. Every ranking of the new table is built before it is published, so
+	 * queries never wait on them. Returns whether a new table was published.
+	 * 
+	 * @param filePath
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	boolean reloadWickets(String filePath) throws IPLLeagueAnalyserException {
+		return measuredLoad(() -> {
+			if (isLoadedFrom(dataset.get().wicketsSource, filePath))
+				return false;
+			SourceFingerprint source = fingerprint(filePath);
+			WicketsTable table = loadCSVData(filePath, new WicketsTable.Builder()).build();
+			Map<BowlingMetric, int[]> rankings = IPLDataset.rankAll(table);
+			publish(current -> current.withWickets(table, source, rankings));
+			return true;
+		});
+	}
+
+	private static boolean isLoadedFrom(SourceFingerprint loaded, String filePath) {
+		if (loaded == null || loaded.path == null)
+			return false;
+		Path path = Paths.get(filePath);
+		try {
+			return path.toAbsolutePath().normalize().equals(loaded.path.toAbsolutePath().normalize())
+					&& loaded.matches(path);
+		} catch (IOException unreadable) {
+			// let the load report it
+			return false;
+		}
+	}
+
+	private static SourceFingerprint fingerprint(String filePath) throws IPLLeagueAnalyserException {
+		try {
+			return SourceFingerprint.of(Paths.get(filePath));
+		} catch (IOException exception) {
+			throw new IPLLeagueAnalyserException(exception.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
+		}
+	}
+
+	/**
+	 * Writes the loaded tables, the rankings built so far and the fingerprints of
+	 * their csv files to a binary snapshot. The csv files are checksummed so that
+	 * a later touch without a content change keeps the snapshot valid. A table
+	 * changed by an upsert no longer matches its csv file and is left out.
+	 * 
+	 * @param snapshotPath
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void saveSnapshot(String snapshotPath) throws IPLLeagueAnalyserException {
+		IPLDataset data = dataset.get();
+		FactsheetSnapshot snapshot = new FactsheetSnapshot();
+		try {
+			if (data.runs != null && data.runsSource != null) {
+				snapshot.runs = data.runs;
+				snapshot.runsSource = data.runsSource.withChecksum();
+				data.battingRankings(snapshot.battingRankings);
+			}
+			if (data.wickets != null && data.wicketsSource != null) {
+				snapshot.wickets = data.wickets;
+				snapshot.wicketsSource = data.wicketsSource.withChecksum();
+				data.bowlingRankings(snapshot.bowlingRankings);
+			}
+			snapshot.write(Paths.get(snapshotPath));
+		} catch (IOException exception) {
+			throw new IPLLeagueAnalyserException(exception.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
+		}
+	}
+
+	/**
+	 * Loads both tables from the snapshot when it was taken from the current
+	 * content of both csv files. Otherwise parses the csv files and refreshes the
+	 * snapshot. Returns true when the snapshot was used.
+	 * 
+	 * @param runsFilePath
+	 * @param wicketsFilePath
+	 * @param snapshotPath
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public boolean loadWithSnapshot(String runsFilePath, String wicketsFilePath, String snapshotPath)
+			throws IPLLeagueAnalyserException {
+		FactsheetSnapshot snapshot = null;
+		try {
+			snapshot = FactsheetSnapshot.read(Paths.get(snapshotPath));
+			if (snapshot != null && (snapshot.runs == null || snapshot.wickets == null
+					|| !snapshot.runsSource.matches(Paths.get(runsFilePath))
+					|| !snapshot.wicketsSource.matches(Paths.get(wicketsFilePath))))
+				snapshot = null;
+		} catch (IOException unreadableSnapshot) {
+			snapshot = null;
+		}
+		if (snapshot == null) {
+			loadRunsCSV(runsFilePath);
+			loadWicketsCSV(wicketsFilePath);
+			try {
+				saveSnapshot(snapshotPath);
+			} catch (IPLLeagueAnalyserException snapshotNotWritten) {
+				// the snapshot only speeds up the next start, the csv data is loaded
+			}
+			return false;
+		}
+		FactsheetSnapshot restored = snapshot;
+		SourceFingerprint runsSource = restored.runsSource.withPath(Paths.get(runsFilePath));
+		SourceFingerprint wicketsSource = restored.wicketsSource.withPath(Paths.get(wicketsFilePath));
+		publish(current -> current.withRuns(restored.runs, runsSource, restored.battingRankings)
+				.withWickets(restored.wickets, wicketsSource, restored.bowlingRankings));
+		return true;
+	}
+
+	private static int parallelismOf(ExecutorService pool) {
+		if (pool instanceof ForkJoinPool)
+			return ((ForkJoinPool) pool).getParallelism();
+		if (pool instanceof ThreadPoolExecutor)
+			return ((ThreadPoolExecutor) pool).getMaximumPoolSize();
+		return Runtime.getRuntime().availableProcessors();
 	}
 
 	/**
@@ -71,9 +670,10 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public List<CSVRuns> getTopBattingAvg() {
-		Comparator<CSVRuns> battingComparator = Comparator.comparing(entry -> entry.average);
-		this.sort(runsCSVList, battingComparator);
-		return runsCSVList;
+		return timed("UC1", () -> {
+			IPLDataset data = dataset.get();
+			return results.get("UC1", data.version, () -> data.ranking(BattingMetric.AVERAGE));
+		});
 	}
 
 	/**
@@ -82,8 +682,12 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public double getTopStrikingRate() {
-		double maxStrikingRate = runsCSVList.stream().map(entry -> entry.strikeRate).max(Double::compare).get();
-		return maxStrikingRate;
+		return timedDouble("UC2", () -> {
+			RunsTable runsTable = dataset.get().runs();
+			double maxStrikingRate = runsTable.strikeRate[ColumnKernels.get().argMax(runsTable.strikeRate,
+					nonEmpty(runsTable.size))];
+			return maxStrikingRate;
+		});
 	}
 
 	/**
@@ -92,8 +696,12 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public CSVRuns getPlayerMaxFours() {
-		CSVRuns maxFoursPlayer = runsCSVList.stream().max((x, y) -> Integer.compare(x.fours, y.fours)).get();
-		return maxFoursPlayer;
+		return timed("UC3Fours", () -> {
+			RunsTable runsTable = dataset.get().runs();
+			CSVRuns maxFoursPlayer = runsTable.row(ColumnKernels.get().argMax(runsTable.fours,
+					nonEmpty(runsTable.size)));
+			return maxFoursPlayer;
+		});
 	}
 
 	/**
@@ -102,8 +710,12 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public CSVRuns getPlayerMaxSixes() {
-		CSVRuns maxFoursPlayer = runsCSVList.stream().max((x, y) -> Integer.compare(x.sixes, y.sixes)).get();
-		return maxFoursPlayer;
+		return timed("UC3Sixes", () -> {
+			RunsTable runsTable = dataset.get().runs();
+			CSVRuns maxFoursPlayer = runsTable.row(ColumnKernels.get().argMax(runsTable.sixes,
+					nonEmpty(runsTable.size)));
+			return maxFoursPlayer;
+		});
 	}
 
 	/**
@@ -112,14 +724,65 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public CSVRuns getPlayerMaxStrikeRateWithFoursSixes() {
-		CSVRuns player = runsCSVList.stream()
-				.max((x, y) -> Double.compare(calculateStrikeRateFoursSixes(x), calculateStrikeRateFoursSixes(y)))
-				.get();
-		return player;
+		return timed("UC4", () -> {
+			RunsTable runsTable = dataset.get().runs();
+			double[] boundaryStrikeRate = runsTable.boundaryStrikeRate;
+			CSVRuns player = runsTable.row(ColumnKernels.get().argMax(boundaryStrikeRate, nonEmpty(runsTable.size)));
+			return player;
+		});
+	}
+
+	/**
+	 * Answers the requested single value use cases together, in one pass over
+	 * each table they need however many are requested
+	 * 
+	 * @param aggregates
+	 * @return
+	 */
+	public AggregateSummary getAggregates(Set<ScalarAggregate> aggregates) {
+		return timed("aggregates", () -> {
+			IPLDataset data = dataset.get();
+			List<ScalarAggregate> batting = new ArrayList<>();
+			List<RowComparator<RunsTable>> battingComparators = new ArrayList<>();
+			List<ScalarAggregate> bowling = new ArrayList<>();
+			List<RowComparator<WicketsTable>> bowlingComparators = new ArrayList<>();
+			for (ScalarAggregate aggregate : aggregates) {
+				if (aggregate.battingComparator != null) {
+					batting.add(aggregate);
+					battingComparators.add(aggregate.battingComparator);
+				} else {
+					bowling.add(aggregate);
+					bowlingComparators.add(aggregate.bowlingComparator);
+				}
+			}
+			AggregateSummary summary = new AggregateSummary(data.runs, data.wickets);
+			if (!batting.isEmpty()) {
+				RunsTable runsTable = data.runs();
+				int[] best = RankingEngine.bestRows(runsTable, runsTable.size, battingComparators);
+				for (int index = 0; index < best.length; index++)
+					summary.set(batting.get(index), best[index]);
+			}
+			if (!bowling.isEmpty()) {
+				WicketsTable wicketsTable = data.wickets();
+				int[] best = RankingEngine.bestRows(wicketsTable, wicketsTable.size, bowlingComparators);
+				for (int index = 0; index < best.length; index++)
+					summary.set(bowling.get(index), best[index]);
+			}
+			return summary;
+		});
 	}
 
-	private static double calculateStrikeRateFoursSixes(CSVRuns player) {
-		return (player.fours * 4 + player.sixes * 6) * 100 / player.ballsFaced;
+	/**
+	 * Returns the size of a table scanned for its best row, which has none when
+	 * it is empty
+	 * 
+	 * @param size
+	 * @return
+	 */
+	private static int nonEmpty(int size) {
+		if (size == 0)
+			throw new NoSuchElementException("No value present");
+		return size;
 	}
 
 	/**
@@ -128,10 +791,33 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public String getSortedJsonMaxAvgAndStrikeRate() {
-		Comparator<CSVRuns> battingComparator = Comparator.comparing(entry -> entry.average);
-		this.sort(runsCSVList, battingComparator.thenComparing(entry -> entry.strikeRate));
-		String jsonSortedPlayers = new Gson().toJson(runsCSVList);
-		return jsonSortedPlayers;
+		return timed("UC5", () -> battingJson(BattingMetric.AVERAGE_AND_STRIKE_RATE));
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonMaxAvgAndStrikeRate()}, skipping offset rows and
+	 * writing at most limit rows
+	 * 
+	 * @param writer
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonMaxAvgAndStrikeRate(Writer writer, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBattingJson(BattingMetric.AVERAGE_AND_STRIKE_RATE, writer, offset, limit);
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonMaxAvgAndStrikeRate()} as UTF-8, skipping offset
+	 * rows and writing at most limit rows. The stream is flushed, not closed.
+	 * 
+	 * @param out
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonMaxAvgAndStrikeRate(OutputStream out, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBattingJson(BattingMetric.AVERAGE_AND_STRIKE_RATE, utf8Writer(out), offset, limit);
 	}
 
 	/**
@@ -140,23 +826,83 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public String getSortedJsonMaxRunsAndAverage() {
-		Comparator<CSVRuns> battingComparator = Comparator.comparing(entry -> entry.runs);
-		this.sort(runsCSVList, battingComparator.thenComparing(entry -> entry.average));
-		String jsonSortedPlayers = new Gson().toJson(runsCSVList);
-		return jsonSortedPlayers;
-	}
-
-	private <k> void sort(List<k> csvList, Comparator<k> battingComparator) {
-		for (int i = 0; i < csvList.size(); i++) {
-			for (int j = 0; j < csvList.size() - i - 1; j++) {
-				k player1 = csvList.get(j);
-				k player2 = csvList.get(j + 1);
-				if (battingComparator.compare(player1, player2) < 0) {
-					csvList.set(j, player2);
-					csvList.set(j + 1, player1);
-				}
-			}
-		}
+		return timed("UC6", () -> battingJson(BattingMetric.RUNS_AND_AVERAGE));
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonMaxRunsAndAverage()}, skipping offset rows and
+	 * writing at most limit rows
+	 * 
+	 * @param writer
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonMaxRunsAndAverage(Writer writer, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBattingJson(BattingMetric.RUNS_AND_AVERAGE, writer, offset, limit);
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonMaxRunsAndAverage()} as UTF-8, skipping offset
+	 * rows and writing at most limit rows. The stream is flushed, not closed.
+	 * 
+	 * @param out
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonMaxRunsAndAverage(OutputStream out, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBattingJson(BattingMetric.RUNS_AND_AVERAGE, utf8Writer(out), offset, limit);
+	}
+
+	/**
+	 * Returns the best k batting rows for the metric. Reads the prebuilt ranking
+	 * when there is one, otherwise selects the rows with a bounded heap.
+	 * 
+	 * @param metric
+	 * @param k
+	 * @return
+	 */
+	public List<CSVRuns> topK(BattingMetric metric, int k) {
+		return dataset.get().topRows(metric, k);
+	}
+
+	/**
+	 * Returns the best k bowling rows for the metric. Reads the prebuilt ranking
+	 * when there is one, otherwise selects the rows with a bounded heap.
+	 * 
+	 * @param metric
+	 * @param k
+	 * @return
+	 */
+	public List<CSVWickets> topK(BowlingMetric metric, int k) {
+		return dataset.get().topRows(metric, k);
+	}
+
+	/**
+	 * Returns the runs rows matching the conditions of the query, in its order
+	 * and cut to its limit
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public List<CSVRuns> query(BattingQuery query) {
+		IPLDataset data = dataset.get();
+		RunsTable table = data.runs();
+		return results.get(query.key(), data.version, () -> new RowList<>(query.run(table), table::row));
+	}
+
+	/**
+	 * Returns the wickets rows matching the conditions of the query, in its order
+	 * and cut to its limit
+	 * 
+	 * @param query
+	 * @return
+	 */
+	public List<CSVWickets> query(BowlingQuery query) {
+		IPLDataset data = dataset.get();
+		WicketsTable table = data.wickets();
+		return results.get(query.key(), data.version, () -> new RowList<>(query.run(table), table::row));
 	}
 
 	/**
@@ -165,11 +911,7 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public List<CSVWickets> getTopBowlingAvg() {
-		Comparator<CSVWickets> BowlingComparator = Comparator.comparing(entry -> entry.average);
-		List<CSVWickets> tempList = wicketsCSVList.stream().filter(entry -> entry.wickets != 0)
-				.filter(entry -> entry.average != 0).collect(Collectors.toList());
-		this.sort(tempList, BowlingComparator.reversed());
-		return tempList;
+		return timed("UC7", () -> dataset.get().ranking(BowlingMetric.AVERAGE));
 	}
 
 	/**
@@ -178,11 +920,11 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public double getTopStrikeRate() {
-		Comparator<CSVWickets> BowlingComparator = Comparator.comparing(entry -> entry.strikeRate);
-		List<CSVWickets> tempList = wicketsCSVList.stream().filter(entry -> entry.wickets != 0)
-				.collect(Collectors.toList());
-		this.sort(tempList, BowlingComparator.reversed());
-		return tempList.get(0).strikeRate;
+		return timedDouble("UC8", () -> {
+			IPLDataset data = dataset.get();
+			RowList<CSVWickets> ranked = data.ranking(BowlingMetric.STRIKE_RATE);
+			return data.wickets.strikeRate[ranked.rowAt(0)];
+		});
 	}
 
 	/**
@@ -191,8 +933,11 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public double getTopEconomy() {
-		CSVWickets topEconomyPlayer = wicketsCSVList.stream().min((x, y) -> Double.compare(x.economy, y.economy)).get();
-		return topEconomyPlayer.economy;
+		return timedDouble("UC9", () -> {
+			WicketsTable wicketsTable = dataset.get().wickets();
+			int topEconomyPlayer = ColumnKernels.get().argMin(wicketsTable.economy, nonEmpty(wicketsTable.size));
+			return wicketsTable.economy[topEconomyPlayer];
+		});
 	}
 
 	/**
@@ -201,18 +946,12 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public String getPlayerWithBestStrikeRateWith4w5w() {
-		CSVWickets topEconomyPlayer = wicketsCSVList.stream()
-				.min((x, y) -> Double.compare(calculateStrikeRateWith4w5w(x), calculateStrikeRateWith4w5w(y))).get();
-		return topEconomyPlayer.playerName;
-	}
-
-	private double calculateStrikeRateWith4w5w(CSVWickets player) {
-		double numOfWicketsWith4w5w = player.fourWickets * 4 + player.fiveWickets * 5;
-		if (numOfWicketsWith4w5w == 0)
-			return Double.MAX_VALUE;
-		int numOfBalls = (int) player.overs;
-		numOfBalls = numOfBalls * 6 + (int) ((player.overs - numOfBalls) * 10);
-		return numOfBalls / numOfWicketsWith4w5w;
+		return timed("UC10", () -> {
+			WicketsTable wicketsTable = dataset.get().wickets();
+			double[] strikeRateWith4w5w = wicketsTable.strikeRateWith4w5w;
+			int topEconomyPlayer = ColumnKernels.get().argMin(strikeRateWith4w5w, nonEmpty(wicketsTable.size));
+			return wicketsTable.playerName(topEconomyPlayer);
+		});
 	}
 
 	/**
@@ -221,12 +960,33 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public String getSortedJsonBestBowlingAvgAndStrikeRate() {
-		List<CSVWickets> tempList = wicketsCSVList.stream().filter(entry -> entry.wickets != 0)
-				.filter(entry -> entry.average != 0).collect(Collectors.toList());
-		Comparator<CSVWickets> bowlingComparator = Comparator.comparing(entry -> entry.average);
-		this.sort(tempList, bowlingComparator.thenComparing(entry -> entry.strikeRate).reversed());
-		String jsonSortedPlayers = new Gson().toJson(tempList);
-		return jsonSortedPlayers;
+		return timed("UC11", () -> bowlingJson(BowlingMetric.AVERAGE_AND_STRIKE_RATE));
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonBestBowlingAvgAndStrikeRate()}, skipping offset rows and
+	 * writing at most limit rows
+	 * 
+	 * @param writer
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonBestBowlingAvgAndStrikeRate(Writer writer, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBowlingJson(BowlingMetric.AVERAGE_AND_STRIKE_RATE, writer, offset, limit);
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonBestBowlingAvgAndStrikeRate()} as UTF-8, skipping offset
+	 * rows and writing at most limit rows. The stream is flushed, not closed.
+	 * 
+	 * @param out
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonBestBowlingAvgAndStrikeRate(OutputStream out, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBowlingJson(BowlingMetric.AVERAGE_AND_STRIKE_RATE, utf8Writer(out), offset, limit);
 	}
 
 	/**
@@ -235,12 +995,223 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public String getSortedJsonMaxWicketsWithBestBowlingAvg() {
-		List<CSVWickets> tempList = wicketsCSVList.stream().filter(entry -> entry.wickets != 0)
-				.filter(entry -> entry.average != 0).collect(Collectors.toList());
-		Comparator<CSVWickets> bowlingComparator = Comparator.comparing(entry -> -entry.wickets);
-		this.sort(tempList, bowlingComparator.thenComparing(entry -> entry.average).reversed());
-		String jsonSortedPlayers = new Gson().toJson(tempList);
-		return jsonSortedPlayers;
+		return timed("UC12", () -> bowlingJson(BowlingMetric.WICKETS_AND_AVERAGE));
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonMaxWicketsWithBestBowlingAvg()}, skipping offset rows and
+	 * writing at most limit rows
+	 * 
+	 * @param writer
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonMaxWicketsWithBestBowlingAvg(Writer writer, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBowlingJson(BowlingMetric.WICKETS_AND_AVERAGE, writer, offset, limit);
+	}
+
+	/**
+	 * Writes the same ranking as {@link #getSortedJsonMaxWicketsWithBestBowlingAvg()} as UTF-8, skipping offset
+	 * rows and writing at most limit rows. The stream is flushed, not closed.
+	 * 
+	 * @param out
+	 * @param offset
+	 * @param limit
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public void getSortedJsonMaxWicketsWithBestBowlingAvg(OutputStream out, int offset, int limit) throws IPLLeagueAnalyserException {
+		writeBowlingJson(BowlingMetric.WICKETS_AND_AVERAGE, utf8Writer(out), offset, limit);
+	}
+
+	private String battingJson(BattingMetric metric) {
+		IPLDataset data = dataset.get();
+		return results.get("json " + metric.getDeclaringClass().getSimpleName() + "." + metric, data.version,
+				() -> {
+					StringWriter writer = new StringWriter();
+					long start = System.nanoTime();
+					try {
+						FactsheetJson.writeRuns(writer, data.runs(), data.ranking(metric), 0, Integer.MAX_VALUE);
+					} catch (IOException e) {
+						// a StringWriter never throws
+						throw new UncheckedIOException(e);
+					} finally {
+						Metrics.recordSince(Metrics.JSON_SERIALIZATION, start);
+					}
+					return writer.toString();
+				});
+	}
+
+	private String bowlingJson(BowlingMetric metric) {
+		IPLDataset data = dataset.get();
+		return results.get("json " + metric.getDeclaringClass().getSimpleName() + "." + metric, data.version,
+				() -> {
+					StringWriter writer = new StringWriter();
+					long start = System.nanoTime();
+					try {
+						FactsheetJson.writeWickets(writer, data.wickets(), data.ranking(metric), 0, Integer.MAX_VALUE);
+					} catch (IOException e) {
+						// a StringWriter never throws
+						throw new UncheckedIOException(e);
+					} finally {
+						Metrics.recordSince(Metrics.JSON_SERIALIZATION, start);
+					}
+					return writer.toString();
+				});
+	}
+
+	private void writeBattingJson(BattingMetric metric, Writer writer, int offset, int limit)
+			throws IPLLeagueAnalyserException {
+		IPLDataset data = dataset.get();
+		long start = System.nanoTime();
+		try {
+			FactsheetJson.writeRuns(writer, data.runs(), data.ranking(metric), offset, limit);
+		} catch (IOException e) {
+			throw Metrics.error(new IPLLeagueAnalyserException(e.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_WRITE));
+		} finally {
+			Metrics.recordSince(Metrics.JSON_SERIALIZATION, start);
+		}
+	}
+
+	private void writeBowlingJson(BowlingMetric metric, Writer writer, int offset, int limit)
+			throws IPLLeagueAnalyserException {
+		IPLDataset data = dataset.get();
+		long start = System.nanoTime();
+		try {
+			FactsheetJson.writeWickets(writer, data.wickets(), data.ranking(metric), offset, limit);
+		} catch (IOException e) {
+			throw Metrics.error(new IPLLeagueAnalyserException(e.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_WRITE));
+		} finally {
+			Metrics.recordSince(Metrics.JSON_SERIALIZATION, start);
+		}
+	}
+
+	private static Writer utf8Writer(OutputStream out) {
+		return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns every player found in both the runs and the wickets file, in runs
+	 * file order
+	 * 
+	 * @return
+	 */
+	public List<AllRounder> getAllRounders() {
+		IPLDataset data = dataset.get();
+		PlayerIndex players = data.playerIndex();
+		List<AllRounder> allRounders = new ArrayList<>();
+		for (int row = 0; row < data.runs.size; row++) {
+			int player = players.playerOfRunsRow(row);
+			if (players.runsRow(player) == row && players.wicketsRow(player) != -1)
+				allRounders.add(allRounder(data.runs, row, data.wickets, players.wicketsRow(player)));
+		}
+		return allRounders;
+	}
+
+	private static AllRounder allRounder(RunsTable runsTable, int runsRow, WicketsTable wicketsTable,
+			int wicketsRow) {
+		AllRounder allRounder = new AllRounder();
+		allRounder.playerName = runsTable.playerName(runsRow);
+		allRounder.runs = runsTable.runs[runsRow];
+		allRounder.battingAverage = runsTable.average[runsRow];
+		allRounder.battingStrikeRate = runsTable.strikeRate[runsRow];
+		allRounder.wickets = wicketsTable.wickets[wicketsRow];
+		allRounder.bowlingAverage = wicketsTable.average[wicketsRow];
+		allRounder.economy = wicketsTable.economy[wicketsRow];
+		return allRounder;
+	}
+
+	/**
+	 * Returns the rows of the player in both files. Names match ignoring case,
+	 * accents, dots and extra spaces.
+	 *
+	 * @param playerName
+	 * @return
+	 */
+	public PlayerProfile findPlayer(String playerName) {
+		IPLDataset data = dataset.get();
+		PlayerIndex players = data.playerIndex();
+		int player = players.playerId(playerName);
+		if (player < 0)
+			throw new NoSuchElementException("No record of " + playerName);
+		return profile(data, players, player);
+	}
+
+	/**
+	 * Returns the players whose name starts with the prefix, in name order and at
+	 * most limit of them, for completing a name as it is typed
+	 *
+	 * @param prefix
+	 * @param limit
+	 * @return
+	 */
+	public List<PlayerProfile> findPlayersByPrefix(String prefix, int limit) {
+		IPLDataset data = dataset.get();
+		PlayerIndex players = data.playerIndex();
+		return profiles(data, players, players.playersByPrefix(prefix, limit));
+	}
+
+	/**
+	 * Returns the players whose name is at most maxEdits inserted, deleted or
+	 * replaced characters away from the name, nearest first and at most limit of
+	 * them
+	 *
+	 * @param playerName
+	 * @param maxEdits
+	 * @param limit
+	 * @return
+	 */
+	public List<PlayerProfile> findPlayersBySimilarName(String playerName, int maxEdits, int limit) {
+		IPLDataset data = dataset.get();
+		PlayerIndex players = data.playerIndex();
+		return profiles(data, players, players.playersNear(playerName, maxEdits, limit));
+	}
+
+	private static List<PlayerProfile> profiles(IPLDataset data, PlayerIndex players, int[] ids) {
+		List<PlayerProfile> profiles = new ArrayList<>(ids.length);
+		for (int player : ids)
+			profiles.add(profile(data, players, player));
+		return profiles;
+	}
+
+	private static PlayerProfile profile(IPLDataset data, PlayerIndex players, int player) {
+		PlayerProfile profile = new PlayerProfile();
+		int runsRow = players.runsRow(player);
+		int wicketsRow = players.wicketsRow(player);
+		if (runsRow != -1)
+			profile.runs = data.runs.row(runsRow);
+		if (wicketsRow != -1)
+			profile.wickets = data.wickets.row(wicketsRow);
+		profile.playerName = runsRow != -1 ? data.runs.playerName(runsRow) : data.wickets.playerName(wicketsRow);
+		return profile;
+	}
+
+	/**
+	 * Returns the players ranked within the cutoff by both rankings, in batting
+	 * order. Players are matched through the player index, so the cutoff costs
+	 * O(cutoff) lookups instead of a scan of the other list per player.
+	 */
+	private List<String> playersInBoth(BattingMetric battingMetric, BowlingMetric bowlingMetric, int cutoff) {
+		IPLDataset data = dataset.get();
+		PlayerIndex players = data.playerIndex();
+		RowList<CSVWickets> bowlers = data.topRows(bowlingMetric, cutoff);
+		boolean[] rankedBowler = new boolean[players.size()];
+		for (int rank = 0; rank < bowlers.size(); rank++)
+			rankedBowler[players.playerOfWicketsRow(bowlers.rowAt(rank))] = true;
+		RowList<CSVRuns> batsmen = data.topRows(battingMetric, cutoff);
+		boolean[] added = new boolean[players.size()];
+		List<String> result = new ArrayList<>();
+		for (int rank = 0; rank < batsmen.size(); rank++) {
+			int row = batsmen.rowAt(rank);
+			int player = players.playerOfRunsRow(row);
+			if (rankedBowler[player] && !added[player]) {
+				added[player] = true;
+				result.add(data.runs.playerName(row));
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -249,13 +1220,18 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public List<String> getPlayerWithBestBattingAndBowlingAvg() {
-		List<String> battingAvgSortList = this.getTopBattingAvg().stream().map(entry -> entry.playerName).limit(40)
-				.collect(Collectors.toList());
-		List<String> bowlingAvgSortList = this.getTopBowlingAvg().stream().map(entry -> entry.playerName).limit(40)
-				.collect(Collectors.toList());
-		List<String> result = battingAvgSortList.stream().distinct().filter(bowlingAvgSortList::contains)
-				.collect(Collectors.toList());
-		return result;
+		return this.getPlayerWithBestBattingAndBowlingAvg(40);
+	}
+
+	/**
+	 * UC 13 : returns players ranked within the cutoff by both batting average
+	 * and bowling average
+	 * 
+	 * @param cutoff
+	 * @return
+	 */
+	public List<String> getPlayerWithBestBattingAndBowlingAvg(int cutoff) {
+		return timed("UC13", () -> this.playersInBoth(BattingMetric.AVERAGE, BowlingMetric.AVERAGE, cutoff));
 	}
 
 	/**
@@ -264,16 +1240,17 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public List<String> getBestAllRounder() {
-		Comparator<CSVRuns> battingComparator = Comparator.comparing(entry -> entry.runs);
-		Comparator<CSVWickets> bowlingComparator = Comparator.comparing(entry -> entry.wickets);
-		this.sort(runsCSVList, battingComparator);
-		this.sort(wicketsCSVList, bowlingComparator);
-		List<String> mostRunsPlayerList = runsCSVList.stream().limit(40).map(entry -> entry.playerName)
-				.collect(Collectors.toList());
-		List<String> mostWicketsPlayerList = wicketsCSVList.stream().limit(40).map(entry -> entry.playerName)
-				.collect(Collectors.toList());
-		return mostRunsPlayerList.stream().distinct().filter(mostWicketsPlayerList::contains)
-				.collect(Collectors.toList());
+		return this.getBestAllRounder(40);
+	}
+
+	/**
+	 * UC 14 : returns players ranked within the cutoff by both runs and wickets
+	 * 
+	 * @param cutoff
+	 * @return
+	 */
+	public List<String> getBestAllRounder(int cutoff) {
+		return timed("UC14", () -> this.playersInBoth(BattingMetric.RUNS, BowlingMetric.WICKETS, cutoff));
 	}
 
 	/**
@@ -282,9 +1259,7 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public List<CSVRuns> getPlayersWithMaxHundredsBestBattingAverage() {
-		Comparator<CSVRuns> battingComparator = Comparator.comparing(entry -> entry.hundreds);
-		this.sort(runsCSVList, battingComparator.thenComparing(entry -> entry.average));
-		return runsCSVList;
+		return timed("UC15", () -> dataset.get().ranking(BattingMetric.HUNDREDS_AND_AVERAGE));
 	}
 
 	/**
@@ -294,11 +1269,155 @@ public class IPLAnalysis {
 	 * @return
 	 */
 	public List<CSVRuns> getPlayerHittingZeroHundredsAndFiftysWithBestAverage() {
-		List<CSVRuns> playersWithZeroHundredsFiftys = runsCSVList.stream()
-				.filter(entry -> entry.hundreds + entry.fiftys == 0).collect(Collectors.toList());
-		Comparator<CSVRuns> battingComparator = Comparator.comparing(entry -> entry.average);
-		this.sort(playersWithZeroHundredsFiftys, battingComparator);
-		return playersWithZeroHundredsFiftys;
+		return timed("UC16", () -> dataset.get().ranking(BattingMetric.AVERAGE_WITHOUT_HUNDREDS_FIFTYS));
+	}
+
+	/**
+	 * Returns the percentage of batsmen whose value of the field is at or below
+	 * the player's. The player is looked up by normalized name, as in
+	 * {@link #findPlayer(String)}.
+	 * 
+	 * @param playerName
+	 * @param field
+	 * @return
+	 */
+	public double getPercentileRank(String playerName, BattingField field) {
+		IPLDataset data = dataset.get();
+		RunsTable runsTable = data.runs();
+		PlayerIndex players = data.playerIndex();
+		int player = players.playerId(playerName);
+		int row = player == -1 ? -1 : players.runsRow(player);
+		if (row < 0)
+			throw new NoSuchElementException("No batting record of " + playerName);
+		return 100 * battingSummary(data, field, 0).rank(field.column.compute(runsTable, row));
+	}
+
+	/**
+	 * Returns the percentage of bowlers whose value of the field is at or below
+	 * the player's. The player is looked up by normalized name, as in
+	 * {@link #findPlayer(String)}.
+	 * 
+	 * @param playerName
+	 * @param field
+	 * @return
+	 */
+	public double getPercentileRank(String playerName, BowlingField field) {
+		IPLDataset data = dataset.get();
+		WicketsTable wicketsTable = data.wickets();
+		PlayerIndex players = data.playerIndex();
+		int player = players.playerId(playerName);
+		int row = player == -1 ? -1 : players.wicketsRow(player);
+		if (row < 0)
+			throw new NoSuchElementException("No bowling record of " + playerName);
+		return 100 * bowlingSummary(data, field, 0).rank(field.column.compute(wicketsTable, row));
+	}
+
+	/**
+	 * Returns the value of the field that the fraction of batsmen with at least
+	 * minInnings innings are at or below, NaN when there are none
+	 * 
+	 * @param field
+	 * @param fraction between 0 and 1
+	 * @param minInnings
+	 * @return
+	 */
+	public double getQuantile(BattingField field, double fraction, int minInnings) {
+		return battingSummary(dataset.get(), field, minInnings).quantile(fraction);
+	}
+
+	/**
+	 * Returns the value of the field that the fraction of bowlers with at least
+	 * minInnings innings are at or below, NaN when there are none
+	 * 
+	 * @param field
+	 * @param fraction between 0 and 1
+	 * @param minInnings
+	 * @return
+	 */
+	public double getQuantile(BowlingField field, double fraction, int minInnings) {
+		return bowlingSummary(dataset.get(), field, minInnings).quantile(fraction);
+	}
+
+	/**
+	 * Returns the median of the field over batsmen with at least minInnings
+	 * innings
+	 * 
+	 * @param field
+	 * @param minInnings
+	 * @return
+	 */
+	public double getMedian(BattingField field, int minInnings) {
+		return getQuantile(field, 0.5, minInnings);
+	}
+
+	/**
+	 * Returns the median of the field over bowlers with at least minInnings
+	 * innings
+	 * 
+	 * @param field
+	 * @param minInnings
+	 * @return
+	 */
+	public double getMedian(BowlingField field, int minInnings) {
+		return getQuantile(field, 0.5, minInnings);
+	}
+
+	/**
+	 * Returns the number of batsmen with at least minInnings innings per bucket
+	 * of the field, keyed by the lower bound of the bucket
+	 * 
+	 * @param field
+	 * @param bucketWidth
+	 * @param minInnings
+	 * @return
+	 */
+	public SortedMap<Double, Integer> getHistogram(BattingField field, double bucketWidth, int minInnings) {
+		IPLDataset data = dataset.get();
+		return results.get("histogram " + field.getDeclaringClass().getSimpleName() + "." + field + " width "
+				+ bucketWidth + " innings " + minInnings, data.version,
+				() -> Distributions.histogram(data.runs(), data.runs().size, field.column,
+						(table, row) -> table.innings[row] >= minInnings, bucketWidth));
+	}
+
+	/**
+	 * Returns the number of bowlers with at least minInnings innings per bucket
+	 * of the field, keyed by the lower bound of the bucket
+	 * 
+	 * @param field
+	 * @param bucketWidth
+	 * @param minInnings
+	 * @return
+	 */
+	public SortedMap<Double, Integer> getHistogram(BowlingField field, double bucketWidth, int minInnings) {
+		IPLDataset data = dataset.get();
+		return results.get("histogram " + field.getDeclaringClass().getSimpleName() + "." + field + " width "
+				+ bucketWidth + " innings " + minInnings, data.version,
+				() -> Distributions.histogram(data.wickets(), data.wickets().size, field.column,
+						(table, row) -> table.innings[row] >= minInnings, bucketWidth));
+	}
+
+	/**
+	 * Returns the distribution of the field over batsmen with at least minInnings
+	 * innings, built once per dataset version and mode
+	 */
+	private QuantileSummary battingSummary(IPLDataset data, BattingField field, int minInnings) {
+		QuantileMode mode = quantileMode;
+		return results.get("quantiles " + field.getDeclaringClass().getSimpleName() + "." + field + " innings "
+				+ minInnings + " " + mode, data.version,
+				() -> Distributions.summarize(data.runs(), data.runs().size, field.column,
+						(table, row) -> table.innings[row] >= minInnings, mode));
+	}
+
+	/**
+	 * Returns the distribution of the field over bowlers with at least minInnings
+	 * innings, built once per dataset version and mode
+	 */
+	private QuantileSummary bowlingSummary(IPLDataset data, BowlingField field, int minInnings) {
+		QuantileMode mode = quantileMode;
+		return results.get("quantiles " + field.getDeclaringClass().getSimpleName() + "." + field + " innings "
+				+ minInnings + " " + mode, data.version,
+				() -> Distributions.summarize(data.wickets(), data.wickets().size, field.column,
+						(table, row) -> table.innings[row] >= minInnings, mode));
 	}
 
 	public static void main(String[] args) {
@@ -0,0 +1,303 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable version of the loaded data that queries run against. A reload
+ * builds a new dataset and publishes it in one step, so a reader holding a
+ * dataset always sees one consistent pair of tables.
+ *
+ * Rankings and the player index are built lazily. Two readers racing to build
+ * the same one both compute it and the first to publish wins, so readers never
+ * wait on each other.
+ */
+final class IPLDataset {
+	static final IPLDataset EMPTY = new IPLDataset(0, null, null, null, null, null, null);
+
+	final long version;
+	final RunsTable runs;
+	final SourceFingerprint runsSource;
+	final WicketsTable wickets;
+	final SourceFingerprint wicketsSource;
+	private final AtomicReferenceArray<RowList<CSVRuns>> battingRankings;
+	private final AtomicReferenceArray<RowList<CSVWickets>> bowlingRankings;
+	private volatile PlayerIndex playerIndex;
+
+	private IPLDataset(long version, RunsTable runs, SourceFingerprint runsSource,
+			AtomicReferenceArray<RowList<CSVRuns>> battingRankings, WicketsTable wickets,
+			SourceFingerprint wicketsSource, AtomicReferenceArray<RowList<CSVWickets>> bowlingRankings) {
+		this.version = version;
+		this.runs = runs;
+		this.runsSource = runsSource;
+		this.battingRankings = battingRankings != null ? battingRankings
+				: new AtomicReferenceArray<>(BattingMetric.values().length);
+		this.wickets = wickets;
+		this.wicketsSource = wicketsSource;
+		this.bowlingRankings = bowlingRankings != null ? bowlingRankings
+				: new AtomicReferenceArray<>(BowlingMetric.values().length);
+	}
+
+	/**
+	 * Returns the next version of this dataset with the runs table replaced and
+	 * the wickets table, with its rankings, kept
+	 * 
+	 * @param table
+	 * @param source
+	 * @param rankings prebuilt rankings of the new table, may be empty
+	 * @return
+	 */
+	IPLDataset withRuns(RunsTable table, SourceFingerprint source, Map<BattingMetric, int[]> rankings) {
+		AtomicReferenceArray<RowList<CSVRuns>> restored = new AtomicReferenceArray<>(BattingMetric.values().length);
+		rankings.forEach((metric, rows) -> restored.set(metric.ordinal(), new RowList<>(rows, table::row)));
+		return new IPLDataset(version + 1, table, source, restored, wickets, wicketsSource, bowlingRankings);
+	}
+
+	/**
+	 * Returns the next version of this dataset with the wickets table replaced
+	 * and the runs table, with its rankings, kept
+	 * 
+	 * @param table
+	 * @param source
+	 * @param rankings prebuilt rankings of the new table, may be empty
+	 * @return
+	 */
+	IPLDataset withWickets(WicketsTable table, SourceFingerprint source, Map<BowlingMetric, int[]> rankings) {
+		AtomicReferenceArray<RowList<CSVWickets>> restored = new AtomicReferenceArray<>(
+				BowlingMetric.values().length);
+		rankings.forEach((metric, rows) -> restored.set(metric.ordinal(), new RowList<>(rows, table::row)));
+		return new IPLDataset(version + 1, runs, runsSource, battingRankings, table, source, restored);
+	}
+
+	/**
+	 * Returns the next version of this dataset with the runs table replaced by an
+	 * upserted copy of it. Rankings built so far are patched for the changed rows
+	 * rather than rebuilt. The new table no longer matches its csv file, so it has
+	 * no source fingerprint.
+	 * 
+	 * @param table
+	 * @param changedRows rows of the new table written by the upsert
+	 * @return
+	 */
+	IPLDataset withRunsUpserted(RunsTable table, int[] changedRows) {
+		RunsTable previous = runs();
+		int[] changed = Arrays.stream(changedRows).distinct().toArray();
+		AtomicReferenceArray<RowList<CSVRuns>> updated = new AtomicReferenceArray<>(BattingMetric.values().length);
+		for (BattingMetric metric : BattingMetric.values()) {
+			RowList<CSVRuns> ranked = battingRankings.get(metric.ordinal());
+			if (ranked != null)
+				updated.set(metric.ordinal(), new RowList<>(updateRanking(ranked.rowIds(), previous, previous.size,
+						table, changed, metric.filter, metric.comparator), table::row));
+		}
+		return new IPLDataset(version + 1, table, null, updated, wickets, wicketsSource, bowlingRankings);
+	}
+
+	/**
+	 * Returns the next version of this dataset with the wickets table replaced by
+	 * an upserted copy of it. Rankings built so far are patched for the changed
+	 * rows rather than rebuilt. The new table no longer matches its csv file, so
+	 * it has no source fingerprint.
+	 * 
+	 * @param table
+	 * @param changedRows rows of the new table written by the upsert
+	 * @return
+	 */
+	IPLDataset withWicketsUpserted(WicketsTable table, int[] changedRows) {
+		WicketsTable previous = wickets();
+		int[] changed = Arrays.stream(changedRows).distinct().toArray();
+		AtomicReferenceArray<RowList<CSVWickets>> updated = new AtomicReferenceArray<>(
+				BowlingMetric.values().length);
+		for (BowlingMetric metric : BowlingMetric.values()) {
+			RowList<CSVWickets> ranked = bowlingRankings.get(metric.ordinal());
+			if (ranked != null)
+				updated.set(metric.ordinal(), new RowList<>(updateRanking(ranked.rowIds(), previous, previous.size,
+						table, changed, metric.filter, metric.comparator), table::row));
+		}
+		return new IPLDataset(version + 1, runs, runsSource, battingRankings, table, null, updated);
+	}
+
+	RunsTable runs() {
+		if (runs == null)
+			throw new IllegalStateException("Runs file is not loaded");
+		return runs;
+	}
+
+	WicketsTable wickets() {
+		if (wickets == null)
+			throw new IllegalStateException("Wickets file is not loaded");
+		return wickets;
+	}
+
+	/**
+	 * Returns the ranking of the runs for the metric, building it on first use
+	 * 
+	 * @param metric
+	 * @return
+	 */
+	RowList<CSVRuns> ranking(BattingMetric metric) {
+		RowList<CSVRuns> ranked = battingRankings.get(metric.ordinal());
+		if (ranked == null) {
+			RunsTable table = runs();
+			ranked = new RowList<>(buildRanking(table, table.filters.select(metric.filter), metric.comparator),
+					table::row);
+			if (!battingRankings.compareAndSet(metric.ordinal(), null, ranked))
+				ranked = battingRankings.get(metric.ordinal());
+		}
+		return ranked;
+	}
+
+	/**
+	 * Returns the ranking of the wickets for the metric, building it on first use
+	 * 
+	 * @param metric
+	 * @return
+	 */
+	RowList<CSVWickets> ranking(BowlingMetric metric) {
+		RowList<CSVWickets> ranked = bowlingRankings.get(metric.ordinal());
+		if (ranked == null) {
+			WicketsTable table = wickets();
+			ranked = new RowList<>(buildRanking(table, table.filters.select(metric.filter), metric.comparator),
+					table::row);
+			if (!bowlingRankings.compareAndSet(metric.ordinal(), null, ranked))
+				ranked = bowlingRankings.get(metric.ordinal());
+		}
+		return ranked;
+	}
+
+	/**
+	 * Returns the rankings built so far, as row ids per metric
+	 * 
+	 * @param rankings
+	 */
+	void battingRankings(Map<BattingMetric, int[]> rankings) {
+		for (BattingMetric metric : BattingMetric.values()) {
+			RowList<CSVRuns> ranked = battingRankings.get(metric.ordinal());
+			if (ranked != null)
+				rankings.put(metric, ranked.rowIds());
+		}
+	}
+
+	/**
+	 * Returns the rankings built so far, as row ids per metric
+	 * 
+	 * @param rankings
+	 */
+	void bowlingRankings(Map<BowlingMetric, int[]> rankings) {
+		for (BowlingMetric metric : BowlingMetric.values()) {
+			RowList<CSVWickets> ranked = bowlingRankings.get(metric.ordinal());
+			if (ranked != null)
+				rankings.put(metric, ranked.rowIds());
+		}
+	}
+
+	/**
+	 * Builds the ranking of the table for every metric, for a table to be
+	 * published with its rankings in place
+	 * 
+	 * @param table
+	 * @return
+	 */
+	static Map<BattingMetric, int[]> rankAll(RunsTable table) {
+		Map<BattingMetric, int[]> rankings = new EnumMap<>(BattingMetric.class);
+		for (BattingMetric metric : BattingMetric.values())
+			rankings.put(metric, buildRanking(table, table.filters.select(metric.filter), metric.comparator));
+		return rankings;
+	}
+
+	/**
+	 * Builds the ranking of the table for every metric, for a table to be
+	 * published with its rankings in place
+	 * 
+	 * @param table
+	 * @return
+	 */
+	static Map<BowlingMetric, int[]> rankAll(WicketsTable table) {
+		Map<BowlingMetric, int[]> rankings = new EnumMap<>(BowlingMetric.class);
+		for (BowlingMetric metric : BowlingMetric.values())
+			rankings.put(metric, buildRanking(table, table.filters.select(metric.filter), metric.comparator));
+		return rankings;
+	}
+
+	private static <T> int[] buildRanking(T table, int[] rows, RowComparator<T> comparator) {
+		long start = System.nanoTime();
+		RankingEngine.sort(rows, (left, right) -> comparator.compare(table, left, right));
+		Metrics.recordSince(Metrics.RANKING_BUILD, start);
+		return rows;
+	}
+
+	/**
+	 * Takes the changed rows that passed the filter in the previous table out of
+	 * the ranking and puts those passing it in the next table back in
+	 */
+	private static <T> int[] updateRanking(int[] ranked, T previous, int previousSize, T next, int[] changed,
+			RowFilter<T> filter, RowComparator<T> comparator) {
+		int[] removed = new int[changed.length];
+		int removedCount = 0;
+		int[] inserted = new int[changed.length];
+		int insertedCount = 0;
+		for (int row : changed) {
+			if (row < previousSize && filter.test(previous, row))
+				removed[removedCount++] = row;
+			if (filter.test(next, row))
+				inserted[insertedCount++] = row;
+		}
+		return RankingEngine.update(ranked, Arrays.copyOf(removed, removedCount),
+				(left, right) -> comparator.compare(previous, left, right), Arrays.copyOf(inserted, insertedCount),
+				(left, right) -> comparator.compare(next, left, right));
+	}
+
+	/**
+	 * Returns the best k runs rows for the metric. Reads the ranking when it is
+	 * built, otherwise ranks the rows of the filter bitmap with a bounded heap.
+	 * 
+	 * @param metric
+	 * @param k
+	 * @return
+	 */
+	RowList<CSVRuns> topRows(BattingMetric metric, int k) {
+		RowList<CSVRuns> ranked = battingRankings.get(metric.ordinal());
+		if (ranked == null) {
+			RunsTable table = runs();
+			int[] candidates = table.filters.select(metric.filter);
+			return new RowList<>(RankingEngine.topK(candidates,
+					(left, right) -> metric.comparator.compare(table, left, right), k), table::row);
+		}
+		return ranked.subList(0, Math.min(Math.max(k, 0), ranked.size()));
+	}
+
+	/**
+	 * Returns the best k wickets rows for the metric. Reads the ranking when it
+	 * is built, otherwise ranks the rows of the filter bitmap with a bounded heap.
+	 * 
+	 * @param metric
+	 * @param k
+	 * @return
+	 */
+	RowList<CSVWickets> topRows(BowlingMetric metric, int k) {
+		RowList<CSVWickets> ranked = bowlingRankings.get(metric.ordinal());
+		if (ranked == null) {
+			WicketsTable table = wickets();
+			int[] candidates = table.filters.select(metric.filter);
+			return new RowList<>(RankingEngine.topK(candidates,
+					(left, right) -> metric.comparator.compare(table, left, right), k), table::row);
+		}
+		return ranked.subList(0, Math.min(Math.max(k, 0), ranked.size()));
+	}
+
+	/**
+	 * Returns the index joining runs and wickets rows of the same player, building
+	 * it on first use. A table that is not loaded has no rows in it.
+	 * 
+	 * @return
+	 */
+	PlayerIndex playerIndex() {
+		PlayerIndex players = playerIndex;
+		if (players == null) {
+			players = new PlayerIndex(runs, wickets);
+			playerIndex = players;
+		}
+		return players;
+	}
+}
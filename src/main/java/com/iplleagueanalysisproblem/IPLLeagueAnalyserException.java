@@ -3,7 +3,7 @@ package com.iplleagueanalysisproblem;
 @SuppressWarnings("serial")
 public class IPLLeagueAnalyserException extends Exception {
 	public enum ExceptionType {
-		NO_FILE, INCORRECT_FILE, UNABLE_TO_PARSE, NO_STATISTICS_DATA
+		NO_FILE, INCORRECT_FILE, UNABLE_TO_PARSE, NO_STATISTICS_DATA, UNABLE_TO_WRITE
 	}
 
 	public ExceptionType type;
@@ -0,0 +1,168 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Factsheets of many seasons, each loaded as its own partition. Every season
+ * answers the use cases through its own {@link IPLAnalysis}, and
+ * {@link #career()} answers them over career totals summed across all seasons.
+ * Safe for concurrent use in the same way as IPLAnalysis.
+ */
+public class IPLSeasons {
+	private final ForkJoinPool pool;
+	private final AtomicReference<SortedMap<String, IPLAnalysis>> seasons = new AtomicReference<>(
+			Collections.emptySortedMap());
+	private volatile Career career;
+
+	public IPLSeasons() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool loads the season files and aggregates the careers
+	 */
+	public IPLSeasons(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Loads the runs and wickets files of each season concurrently and returns
+	 * the number of seasons loaded. A season may have only one of the two
+	 * files. Nothing is published unless every file loads, then the seasons
+	 * replace any loaded before under the same name.
+	 * 
+	 * @param runsFilePaths runs file path by season
+	 * @param wicketsFilePaths wickets file path by season
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public int loadSeasons(Map<String, String> runsFilePaths, Map<String, String> wicketsFilePaths)
+			throws IPLLeagueAnalyserException {
+		Map<String, IPLAnalysis> loaded = new LinkedHashMap<>();
+		runsFilePaths.keySet().forEach(season -> loaded.putIfAbsent(season, new IPLAnalysis()));
+		wicketsFilePaths.keySet().forEach(season -> loaded.putIfAbsent(season, new IPLAnalysis()));
+		Map<Future<Integer>, String> loads = new LinkedHashMap<>();
+		runsFilePaths.forEach((season, filePath) -> {
+			IPLAnalysis analysis = loaded.get(season);
+			loads.put(pool.submit(() -> analysis.loadRunsCSV(filePath)), season);
+		});
+		wicketsFilePaths.forEach((season, filePath) -> {
+			IPLAnalysis analysis = loaded.get(season);
+			loads.put(pool.submit(() -> analysis.loadWicketsCSV(filePath)), season);
+		});
+		await(loads);
+		seasons.updateAndGet(current -> {
+			SortedMap<String, IPLAnalysis> next = new TreeMap<>(current);
+			next.putAll(loaded);
+			return Collections.unmodifiableSortedMap(next);
+		});
+		return loaded.size();
+	}
+
+	private static void await(Map<Future<Integer>, String> loads) throws IPLLeagueAnalyserException {
+		for (Map.Entry<Future<Integer>, String> load : loads.entrySet()) {
+			try {
+				load.getKey().get();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				loads.keySet().forEach(pending -> pending.cancel(true));
+				throw new IPLLeagueAnalyserException("Interrupted while loading",
+						IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
+			} catch (ExecutionException exception) {
+				loads.keySet().forEach(pending -> pending.cancel(true));
+				Throwable cause = exception.getCause();
+				if (cause instanceof IPLLeagueAnalyserException)
+					throw new IPLLeagueAnalyserException("Season " + load.getValue() + ": " + cause.getMessage(),
+							((IPLLeagueAnalyserException) cause).type);
+				throw new IPLLeagueAnalyserException("Season " + load.getValue() + ": " + cause,
+						IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			}
+		}
+	}
+
+	/**
+	 * Returns the loaded seasons in order
+	 * 
+	 * @return
+	 */
+	public List<String> seasons() {
+		return new ArrayList<>(seasons.get().keySet());
+	}
+
+	/**
+	 * Returns the use cases of one season
+	 * 
+	 * @param season
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	public IPLAnalysis season(String season) throws IPLLeagueAnalyserException {
+		IPLAnalysis analysis = seasons.get().get(season);
+		if (analysis == null)
+			throw new IPLLeagueAnalyserException("Season " + season + " is not loaded",
+					IPLLeagueAnalyserException.ExceptionType.NO_STATISTICS_DATA);
+		return analysis;
+	}
+
+	/**
+	 * Returns the use cases over career totals of all seasons: one runs row and
+	 * one wickets row per player, positioned by runs and by wickets as in the
+	 * factsheets. The totals are aggregated once and reused until a season
+	 * changes.
+	 * 
+	 * @return
+	 */
+	public IPLAnalysis career() {
+		List<IPLDataset> sources = new ArrayList<>();
+		for (IPLAnalysis analysis : seasons.get().values())
+			sources.add(analysis.dataset());
+		Career cached = career;
+		if (cached != null && cached.isOf(sources))
+			return cached.analysis;
+		List<RunsTable> runs = new ArrayList<>();
+		List<WicketsTable> wickets = new ArrayList<>();
+		for (IPLDataset source : sources) {
+			if (source.runs != null)
+				runs.add(source.runs);
+			if (source.wickets != null)
+				wickets.add(source.wickets);
+		}
+		IPLAnalysis analysis = new IPLAnalysis();
+		analysis.install(BattingAggregate.tableOf(CareerAggregation.batting(runs, pool).values()),
+				BowlingAggregate.tableOf(CareerAggregation.bowling(wickets, pool).values()));
+		career = new Career(sources, analysis);
+		return analysis;
+	}
+
+	/**
+	 * Career use cases with the season datasets they were aggregated from
+	 */
+	private static final class Career {
+		final List<IPLDataset> sources;
+		final IPLAnalysis analysis;
+
+		Career(List<IPLDataset> sources, IPLAnalysis analysis) {
+			this.sources = sources;
+			this.analysis = analysis;
+		}
+
+		boolean isOf(List<IPLDataset> current) {
+			if (current.size() != sources.size())
+				return false;
+			for (int index = 0; index < sources.size(); index++)
+				if (current.get(index) != sources.get(index))
+					return false;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.iplleagueanalysisproblem;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+
+/**
+ * Default {@link MetricsRegistry}, kept in memory. Counters are striped
+ * LongAdders and durations go to log-linear histograms, so recording never
+ * takes a lock. Read the values with {@link #count(String)} and
+ * {@link #percentile(String, double)}, as text with {@link #dump()} or over JMX
+ * after {@link #registerMBean(String)}.
+ */
+public class InProcessMetrics implements MetricsRegistry {
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	@Override
+	public void increment(String name, long delta) {
+		counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+	}
+
+	@Override
+	public void recordNanos(String name, long nanos) {
+		histograms.computeIfAbsent(name, key -> new LatencyHistogram()).record(nanos);
+	}
+
+	/**
+	 * Returns the value of the counter, 0 when nothing was counted
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public long count(String name) {
+		LongAdder counter = counters.get(name);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * Returns the number of durations recorded in the histogram
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public long samples(String name) {
+		LatencyHistogram histogram = histograms.get(name);
+		return histogram == null ? 0 : histogram.count();
+	}
+
+	/**
+	 * Returns the duration in nanoseconds at or below which the fraction of the
+	 * recorded durations lie, within 1/32 of the exact value
+	 * 
+	 * @param name
+	 * @param fraction between 0 and 1, for example 0.99
+	 * @return
+	 */
+	public long percentile(String name, double fraction) {
+		LatencyHistogram histogram = histograms.get(name);
+		return histogram == null ? 0 : histogram.percentile(fraction);
+	}
+
+	/**
+	 * Returns every counter and histogram as text, one per line in name order
+	 * 
+	 * @return
+	 */
+	public String dump() {
+		StringBuilder dump = new StringBuilder();
+		new TreeMap<>(counters).forEach((name, counter) -> dump.append(name).append(' ').append(counter.sum())
+				.append('\n'));
+		new TreeMap<>(histograms).forEach((name, histogram) -> dump.append(name).append(" count=")
+				.append(histogram.count()).append(" mean=").append(micros((long) histogram.mean()))
+				.append("us p50=").append(micros(histogram.percentile(0.5))).append("us p99=")
+				.append(micros(histogram.percentile(0.99))).append("us max=").append(micros(histogram.max()))
+				.append("us\n"));
+		return dump.toString();
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * Publishes the counters and histogram percentiles as attributes of an MBean
+	 * on the platform MBean server
+	 * 
+	 * @param objectName for example "com.iplleagueanalysisproblem:type=Metrics"
+	 * @throws JMException
+	 */
+	public void registerMBean(String objectName) throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), new ObjectName(objectName));
+	}
+
+	/**
+	 * Attributes are read when asked for, so metrics recorded after registration
+	 * show up. Counters are named as recorded, histograms get .count, .p50, .p99
+	 * and .max suffixed attributes in nanoseconds.
+	 */
+	private final class MetricsMBean implements DynamicMBean {
+		private static final String[] HISTOGRAM_ATTRIBUTES = { ".count", ".p50", ".p99", ".max" };
+
+		@Override
+		public Object getAttribute(String attribute) throws AttributeNotFoundException {
+			LongAdder counter = counters.get(attribute);
+			if (counter != null)
+				return counter.sum();
+			int suffix = attribute.lastIndexOf('.');
+			LatencyHistogram histogram = suffix < 0 ? null : histograms.get(attribute.substring(0, suffix));
+			if (histogram != null)
+				switch (attribute.substring(suffix)) {
+				case ".count":
+					return histogram.count();
+				case ".p50":
+					return histogram.percentile(0.5);
+				case ".p99":
+					return histogram.percentile(0.99);
+				case ".max":
+					return histogram.max();
+				}
+			throw new AttributeNotFoundException(attribute);
+		}
+
+		@Override
+		public AttributeList getAttributes(String[] attributes) {
+			AttributeList values = new AttributeList();
+			for (String attribute : attributes)
+				try {
+					values.add(new Attribute(attribute, getAttribute(attribute)));
+				} catch (AttributeNotFoundException unknown) {
+					// left out, as the DynamicMBean contract allows
+				}
+			return values;
+		}
+
+		@Override
+		public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+			throw new AttributeNotFoundException(attribute.getName() + " is read only");
+		}
+
+		@Override
+		public AttributeList setAttributes(AttributeList attributes) {
+			return new AttributeList();
+		}
+
+		@Override
+		public Object invoke(String actionName, Object[] params, String[] signature) {
+			if ("dump".equals(actionName))
+				return dump();
+			throw new UnsupportedOperationException(actionName);
+		}
+
+		@Override
+		public MBeanInfo getMBeanInfo() {
+			List<MBeanAttributeInfo> attributes = new ArrayList<>();
+			for (String name : new TreeMap<>(counters).keySet())
+				attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+			for (String name : new TreeMap<>(histograms).keySet())
+				for (String suffix : HISTOGRAM_ATTRIBUTES)
+					attributes.add(new MBeanAttributeInfo(name + suffix, "long", name + suffix, true, false, false));
+			return new MBeanInfo(InProcessMetrics.class.getName(), "IPL analysis load and query metrics",
+					attributes.toArray(new MBeanAttributeInfo[0]), null,
+					new MBeanOperationInfo[] { new MBeanOperationInfo("dump", "Every metric as text", null,
+							"java.lang.String", MBeanOperationInfo.INFO) },
+					null);
+		}
+	}
+}
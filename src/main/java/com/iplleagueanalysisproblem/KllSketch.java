@@ -0,0 +1,113 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch. Values enter level 0; a level holding more than its
+ * capacity is sorted and every other value, starting at a random one of the
+ * first two, moves up a level with twice the weight. Capacities shrink by 2/3
+ * per level below the top, so the sketch holds O(k) values whatever the input
+ * size. With the default k, ranks are within about 2% of the count. The random
+ * source is seeded, so the same input always gives the same sketch.
+ */
+final class KllSketch implements QuantileSketch {
+	static final int DEFAULT_K = 200;
+	private static final int MIN_CAPACITY = 8;
+
+	private final int k;
+	private final SplittableRandom random = new SplittableRandom(0x5eed);
+	private double[][] levels = { new double[MIN_CAPACITY] };
+	private int[] sizes = new int[1];
+
+	KllSketch() {
+		this(DEFAULT_K);
+	}
+
+	KllSketch(int k) {
+		this.k = Math.max(k, MIN_CAPACITY);
+	}
+
+	@Override
+	public void add(double value) {
+		append(0, value);
+		int level = 0;
+		while (level < levels.length && sizes[level] < capacity(level))
+			level++;
+		if (level < levels.length)
+			compact(level);
+	}
+
+	private int capacity(int level) {
+		int depth = levels.length - 1 - level;
+		return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3, depth)));
+	}
+
+	private void append(int level, double value) {
+		if (level == levels.length) {
+			levels = Arrays.copyOf(levels, level + 1);
+			levels[level] = new double[MIN_CAPACITY];
+			sizes = Arrays.copyOf(sizes, level + 1);
+		}
+		if (sizes[level] == levels[level].length)
+			levels[level] = Arrays.copyOf(levels[level], sizes[level] * 2);
+		levels[level][sizes[level]++] = value;
+	}
+
+	/**
+	 * Promotes every other value of the level, keeping the largest back when
+	 * their number is odd so the total weight is unchanged
+	 */
+	private void compact(int level) {
+		double[] values = levels[level];
+		int size = sizes[level];
+		Arrays.sort(values, 0, size);
+		int pairs = size / 2;
+		int offset = random.nextInt(2);
+		sizes[level] = 0;
+		for (int pair = 0; pair < pairs; pair++)
+			append(level + 1, values[2 * pair + offset]);
+		if (size % 2 == 1) {
+			values[0] = values[size - 1];
+			sizes[level] = 1;
+		}
+	}
+
+	@Override
+	public QuantileSummary summary() {
+		int total = 0;
+		for (int size : sizes)
+			total += size;
+		double[] values = new double[total];
+		long[] weights = new long[total];
+		int count = 0;
+		for (int level = 0; level < levels.length; level++) {
+			double[] sorted = Arrays.copyOf(levels[level], sizes[level]);
+			Arrays.sort(sorted);
+			count = mergeInto(values, weights, count, sorted, 1L << level);
+		}
+		for (int index = 1; index < total; index++)
+			weights[index] += weights[index - 1];
+		return new QuantileSummary(values, weights);
+	}
+
+	/**
+	 * Merges the sorted level into the first count sorted values, in place from
+	 * the back, and returns the new count
+	 */
+	private static int mergeInto(double[] values, long[] weights, int count, double[] level, long weight) {
+		int target = count + level.length;
+		int i = count - 1;
+		int j = level.length - 1;
+		for (int position = target - 1; j >= 0; position--) {
+			if (i >= 0 && values[i] > level[j]) {
+				values[position] = values[i];
+				weights[position] = weights[i--];
+			} else {
+				values[position] = level[j--];
+				weights[position] = weight;
+			}
+		}
+		return target;
+	}
+}
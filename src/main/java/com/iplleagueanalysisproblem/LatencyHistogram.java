@@ -0,0 +1,87 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values with HDR-style log-linear
+ * buckets: every power of two is split into 32 equal buckets, so a recorded
+ * value is reported within 1/32 (about 3%) of itself at any magnitude. Values
+ * up to Long.MAX_VALUE fit in under 2000 buckets.
+ */
+final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	void record(long value) {
+		long recorded = Math.max(value, 0);
+		counts.incrementAndGet(bucketOf(recorded));
+		count.increment();
+		sum.add(recorded);
+		max.accumulate(recorded);
+	}
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the largest value that falls in the bucket
+	 */
+	static long highestValueOf(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	long count() {
+		return count.sum();
+	}
+
+	long max() {
+		return max.get();
+	}
+
+	double mean() {
+		long recorded = count.sum();
+		return recorded == 0 ? 0 : sum.sum() / (double) recorded;
+	}
+
+	/**
+	 * Returns the value at or below which the fraction of recorded values lies,
+	 * at bucket precision and never above the largest recorded value
+	 * 
+	 * @param fraction between 0 and 1
+	 * @return
+	 */
+	long percentile(double fraction) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int bucket = 0; bucket < BUCKETS; bucket++)
+			total += snapshot[bucket] = counts.get(bucket);
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(fraction * total));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += snapshot[bucket];
+			if (seen >= rank)
+				return Math.min(highestValueOf(bucket), max());
+		}
+		return max();
+	}
+}
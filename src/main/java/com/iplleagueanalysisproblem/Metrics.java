@@ -0,0 +1,54 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Names of the recorded measurements and the registry they go to
+ */
+final class Metrics {
+	static final String ROWS_PARSED = "rows.parsed";
+	static final String ROWS_REJECTED = "rows.rejected";
+	static final String ROWS_DEFAULTED = "rows.defaulted";
+	static final String BYTES_READ = "bytes.read";
+	static final String ERRORS = "errors.";
+	static final String LOAD_DURATION = "load.duration";
+	static final String RANKING_BUILD = "ranking.build";
+	static final String JSON_SERIALIZATION = "json.serialization";
+	static final String USE_CASE = "uc.";
+
+	private static volatile MetricsRegistry registry = new InProcessMetrics();
+
+	private Metrics() {
+	}
+
+	static MetricsRegistry registry() {
+		return registry;
+	}
+
+	static void setRegistry(MetricsRegistry metrics) {
+		registry = metrics;
+	}
+
+	static void count(String name, long delta) {
+		registry.increment(name, delta);
+	}
+
+	/**
+	 * Records the time elapsed since start, a System.nanoTime() reading
+	 * 
+	 * @param name
+	 * @param start
+	 */
+	static void recordSince(String name, long start) {
+		registry.recordNanos(name, System.nanoTime() - start);
+	}
+
+	/**
+	 * Counts the error by its type and returns it for rethrowing
+	 * 
+	 * @param exception
+	 * @return
+	 */
+	static IPLLeagueAnalyserException error(IPLLeagueAnalyserException exception) {
+		registry.increment(ERRORS + exception.type, 1);
+		return exception;
+	}
+}
@@ -0,0 +1,25 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Receives the measurements of the load and query paths. Install one with
+ * {@link IPLAnalysis#setMetricsRegistry(MetricsRegistry)}; the default is an
+ * {@link InProcessMetrics}. Implementations are called on hot paths from many
+ * threads and must neither block nor throw.
+ */
+public interface MetricsRegistry {
+	/**
+	 * Adds delta to the named counter
+	 * 
+	 * @param name
+	 * @param delta
+	 */
+	void increment(String name, long delta);
+
+	/**
+	 * Records a duration in the named latency histogram
+	 * 
+	 * @param name
+	 * @param nanos
+	 */
+	void recordNanos(String name, long nanos);
+}
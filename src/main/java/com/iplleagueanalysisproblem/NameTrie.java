@@ -0,0 +1,200 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+/**
+ * Trie over normalized player keys, stored in parallel arrays with one entry
+ * per node. Children of a node are chained as siblings in character order, so
+ * exact and prefix lookups walk one node per character and prefix matches come
+ * out in key order. Fuzzy lookups run the edit distance of the query against
+ * every path at once, one row of the distance table per node, and leave a
+ * subtree as soon as every entry of its row is over the allowed distance.
+ */
+final class NameTrie {
+	private char[] label;
+	private int[] firstChild;
+	private int[] nextSibling;
+	private int[] player;
+	private int size;
+
+	/**
+	 * Builds the trie of the keys, the i-th key belonging to the i-th player id
+	 *
+	 * @param keys
+	 */
+	NameTrie(String[] keys) {
+		int capacity = 1;
+		for (String key : keys)
+			capacity += key.length();
+		label = new char[capacity];
+		firstChild = new int[capacity];
+		nextSibling = new int[capacity];
+		player = new int[capacity];
+		size = 1;
+		firstChild[0] = -1;
+		nextSibling[0] = -1;
+		player[0] = -1;
+		Integer[] order = new Integer[keys.length];
+		for (int index = 0; index < keys.length; index++)
+			order[index] = index;
+		Arrays.sort(order, (left, right) -> keys[left].compareTo(keys[right]));
+		int[] lastChild = new int[capacity];
+		lastChild[0] = -1;
+		for (int id : order) {
+			int node = 0;
+			for (int index = 0; index < keys[id].length(); index++) {
+				char c = keys[id].charAt(index);
+				int child = lastChild[node];
+				if (child == -1 || label[child] != c) {
+					child = size++;
+					label[child] = c;
+					firstChild[child] = -1;
+					nextSibling[child] = -1;
+					player[child] = -1;
+					lastChild[child] = -1;
+					if (lastChild[node] == -1)
+						firstChild[node] = child;
+					else
+						nextSibling[lastChild[node]] = child;
+					lastChild[node] = child;
+				}
+				node = child;
+			}
+			player[node] = id;
+		}
+		label = Arrays.copyOf(label, size);
+		firstChild = Arrays.copyOf(firstChild, size);
+		nextSibling = Arrays.copyOf(nextSibling, size);
+		player = Arrays.copyOf(player, size);
+	}
+
+	/**
+	 * Returns the player id of the key, or -1 when there is none
+	 *
+	 * @param key
+	 * @return
+	 */
+	int exact(String key) {
+		int node = find(key);
+		return node == -1 ? -1 : player[node];
+	}
+
+	/**
+	 * Returns the ids of the players whose key starts with the prefix, in key
+	 * order and at most limit of them
+	 *
+	 * @param prefix
+	 * @param limit
+	 * @return
+	 */
+	int[] prefix(String prefix, int limit) {
+		int node = find(prefix);
+		Matches matches = new Matches(limit);
+		if (node != -1)
+			collect(node, matches);
+		return matches.ids();
+	}
+
+	/**
+	 * Returns the ids of the players whose key is at most maxEdits insertions,
+	 * deletions or substitutions away from the key, nearest first, then in key
+	 * order, and at most limit of them
+	 *
+	 * @param key
+	 * @param maxEdits
+	 * @param limit
+	 * @return
+	 */
+	int[] fuzzy(String key, int maxEdits, int limit) {
+		int[] row = new int[key.length() + 1];
+		for (int index = 0; index < row.length; index++)
+			row[index] = index;
+		Matches matches = new Matches(Integer.MAX_VALUE);
+		if (player[0] != -1 && row[key.length()] <= maxEdits)
+			matches.add(player[0], row[key.length()]);
+		for (int child = firstChild[0]; child != -1; child = nextSibling[child])
+			fuzzy(child, key, row, maxEdits, matches);
+		return matches.nearest(limit);
+	}
+
+	private void fuzzy(int node, String key, int[] previous, int maxEdits, Matches matches) {
+		int[] row = new int[previous.length];
+		row[0] = previous[0] + 1;
+		int best = row[0];
+		for (int index = 1; index < row.length; index++) {
+			int substitution = previous[index - 1] + (key.charAt(index - 1) == label[node] ? 0 : 1);
+			row[index] = Math.min(substitution, Math.min(previous[index], row[index - 1]) + 1);
+			best = Math.min(best, row[index]);
+		}
+		if (best > maxEdits)
+			return;
+		if (player[node] != -1 && row[key.length()] <= maxEdits)
+			matches.add(player[node], row[key.length()]);
+		for (int child = firstChild[node]; child != -1; child = nextSibling[child])
+			fuzzy(child, key, row, maxEdits, matches);
+	}
+
+	private int find(String key) {
+		int node = 0;
+		for (int index = 0; index < key.length() && node != -1; index++) {
+			int child = firstChild[node];
+			while (child != -1 && label[child] != key.charAt(index))
+				child = nextSibling[child];
+			node = child;
+		}
+		return node;
+	}
+
+	private void collect(int node, Matches matches) {
+		if (matches.full())
+			return;
+		if (player[node] != -1)
+			matches.add(player[node], 0);
+		for (int child = firstChild[node]; child != -1 && !matches.full(); child = nextSibling[child])
+			collect(child, matches);
+	}
+
+	/**
+	 * Player ids with their edit distance, in the order they were found
+	 */
+	private static final class Matches {
+		private final int limit;
+		private int[] ids = new int[8];
+		private int[] distances = new int[8];
+		private int count;
+
+		Matches(int limit) {
+			this.limit = Math.max(limit, 0);
+		}
+
+		boolean full() {
+			return count >= limit;
+		}
+
+		void add(int id, int distance) {
+			if (count == ids.length) {
+				ids = Arrays.copyOf(ids, count * 2);
+				distances = Arrays.copyOf(distances, count * 2);
+			}
+			ids[count] = id;
+			distances[count++] = distance;
+		}
+
+		int[] ids() {
+			return Arrays.copyOf(ids, count);
+		}
+
+		/**
+		 * Returns the first k ids by distance, keeping the order found among ids
+		 * at the same distance
+		 */
+		int[] nearest(int k) {
+			int[] order = new int[count];
+			for (int index = 0; index < count; index++)
+				order[index] = index;
+			return Arrays.stream(RankingEngine.topK(order,
+					(left, right) -> Integer.compare(distances[right], distances[left]), k))
+					.map(index -> ids[index]).toArray();
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.function.Function;
+
+/**
+ * Accepts rows whose value in an int column is not 0. {@link RankingEngine}
+ * selects with it through the column kernels instead of testing row by row.
+ *
+ * @param <T> table type
+ */
+final class NonZeroFilter<T> implements RowFilter<T> {
+	private final Function<T, int[]> column;
+
+	NonZeroFilter(Function<T, int[]> column) {
+		this.column = column;
+	}
+
+	@Override
+	public boolean test(T table, int row) {
+		return column.apply(table)[row] != 0;
+	}
+
+	/**
+	 * Returns the ids of the accepted rows in row order
+	 * 
+	 * @param table
+	 * @param size
+	 * @return
+	 */
+	int[] select(T table, int size) {
+		return ColumnKernels.get().selectNonZero(column.apply(table), size);
+	}
+}
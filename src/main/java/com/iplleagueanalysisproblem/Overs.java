@@ -0,0 +1,31 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Conversions of overs in cricket notation, where the digit after the point
+ * counts balls of an unfinished over: 64.2 overs are 64 overs and 2 balls.
+ */
+final class Overs {
+	private Overs() {
+	}
+
+	/**
+	 * Returns the number of balls of overs in cricket notation
+	 * 
+	 * @param overs
+	 * @return
+	 */
+	static int toBalls(double overs) {
+		int completed = (int) overs;
+		return completed * 6 + (int) Math.round((overs - completed) * 10);
+	}
+
+	/**
+	 * Returns the balls as overs in cricket notation
+	 * 
+	 * @param balls
+	 * @return
+	 */
+	static double fromBalls(int balls) {
+		return balls / 6 + (balls % 6) / 10.0;
+	}
+}
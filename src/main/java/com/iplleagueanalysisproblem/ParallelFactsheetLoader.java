@@ -0,0 +1,200 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Loads a factsheet by memory mapping the file, cutting the body into line
+ * aligned chunks and parsing the chunks in parallel, each into its own
+ * builder. Builders come back in file order so appending them gives the same
+ * rows as a single threaded load.
+ */
+final class ParallelFactsheetLoader {
+	static final long MIN_CHUNK_SIZE = 1 << 20;
+	static final long MAX_CHUNK_SIZE = 1 << 30;
+
+	private ParallelFactsheetLoader() {
+	}
+
+	/**
+	 * Parses the file in chunks on the pool and returns one builder per chunk, in
+	 * file order
+	 * 
+	 * @param <B>
+	 * @param path
+	 * @param builders
+	 * @param pool
+	 * @param parallelism
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	static <B extends FactsheetSink> List<B> load(Path path, Supplier<B> builders, ExecutorService pool,
+			int parallelism) throws IPLLeagueAnalyserException {
+		return load(path, builders, pool, parallelism, MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * Parses the file in chunks of at least minChunkSize bytes where the file
+	 * allows it and returns one builder per chunk, in file order
+	 * 
+	 * @param <B>
+	 * @param path
+	 * @param builders
+	 * @param pool
+	 * @param parallelism
+	 * @param minChunkSize
+	 * @return
+	 * @throws IPLLeagueAnalyserException
+	 */
+	static <B extends FactsheetSink> List<B> load(Path path, Supplier<B> builders, ExecutorService pool,
+			int parallelism, long minChunkSize) throws IPLLeagueAnalyserException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			byte[] header = readHeader(channel, fileSize);
+			new FactsheetParser(new ByteArrayInputStream(header)).readHeader(builders.get());
+			List<long[]> chunks = split(channel, header.length, fileSize, parallelism, minChunkSize);
+			List<Future<ChunkResult<B>>> futures = new ArrayList<>(chunks.size());
+			for (long[] chunk : chunks) {
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+				futures.add(pool.submit(() -> parseChunk(header, mapped, builders.get())));
+			}
+			return collect(futures);
+		} catch (IOException exception) {
+			throw new IPLLeagueAnalyserException(exception.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.INCORRECT_FILE);
+		}
+	}
+
+	/**
+	 * Returns the bytes of the first line, including its line break
+	 */
+	private static byte[] readHeader(FileChannel channel, long fileSize)
+			throws IOException, IPLLeagueAnalyserException {
+		long end = nextLineStart(channel, 0, fileSize);
+		if (end == 0)
+			throw new IPLLeagueAnalyserException("File has no header",
+					IPLLeagueAnalyserException.ExceptionType.NO_STATISTICS_DATA);
+		ByteBuffer header = ByteBuffer.allocate((int) end);
+		while (header.hasRemaining())
+			if (channel.read(header, header.position()) < 0)
+				throw new EOFException(header.position() + " of " + header.limit() + " header bytes read");
+		return header.array();
+	}
+
+	/**
+	 * Splits [bodyStart, fileSize) into ranges that start right after a line
+	 * break, at least minChunkSize and at most MAX_CHUNK_SIZE long where the
+	 * file allows it
+	 */
+	private static List<long[]> split(FileChannel channel, long bodyStart, long fileSize, int parallelism,
+			long minChunkSize) throws IOException {
+		long bodySize = fileSize - bodyStart;
+		long chunkCount = Math.max(1, Math.min(parallelism, bodySize / Math.max(1, minChunkSize)));
+		chunkCount = Math.max(chunkCount, (bodySize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		long chunkSize = Math.max(1, (bodySize + chunkCount - 1) / chunkCount);
+		List<long[]> chunks = new ArrayList<>();
+		long start = bodyStart;
+		while (start < fileSize) {
+			long end = start + chunkSize >= fileSize ? fileSize
+					: nextLineStart(channel, start + chunkSize - 1, fileSize);
+			chunks.add(new long[] { start, end });
+			start = end;
+		}
+		return chunks;
+	}
+
+	/**
+	 * Returns the offset just after the first line break at or after from, or
+	 * fileSize when there is none
+	 */
+	private static long nextLineStart(FileChannel channel, long from, long fileSize) throws IOException {
+		ByteBuffer window = ByteBuffer.allocate(8192);
+		long offset = from;
+		while (offset < fileSize) {
+			window.clear();
+			int read = channel.read(window, offset);
+			if (read <= 0)
+				break;
+			for (int i = 0; i < read; i++)
+				if (window.get(i) == '\n')
+					return offset + i + 1;
+			offset += read;
+		}
+		return fileSize;
+	}
+
+	private static <B extends FactsheetSink> ChunkResult<B> parseChunk(byte[] header, ByteBuffer chunk, B builder)
+			throws IOException {
+		ChunkResult<B> result = new ChunkResult<>(builder);
+		FactsheetParser parser = new FactsheetParser(new ByteBufferInputStream(chunk));
+		try {
+			new FactsheetParser(new ByteArrayInputStream(header)).readHeader(builder);
+			parser.parseRows(builder);
+		} catch (IPLLeagueAnalyserException exception) {
+			result.failure = exception;
+			result.failedLine = parser.lineNumber();
+		}
+		result.lines = parser.lineNumber();
+		return result;
+	}
+
+	/**
+	 * Waits for every chunk and returns their builders. When chunks failed, the
+	 * first one in file order is reported with its line number in the file, which
+	 * is known because every chunk before it was read to the end.
+	 */
+	private static <B extends FactsheetSink> List<B> collect(List<Future<ChunkResult<B>>> futures)
+			throws IPLLeagueAnalyserException, IOException {
+		List<B> builders = new ArrayList<>(futures.size());
+		long linesBefore = 1;
+		for (Future<ChunkResult<B>> future : futures) {
+			ChunkResult<B> result;
+			try {
+				result = future.get();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				futures.forEach(pending -> pending.cancel(true));
+				throw new IOException("Interrupted while loading", exception);
+			} catch (ExecutionException exception) {
+				futures.forEach(pending -> pending.cancel(true));
+				Throwable cause = exception.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				throw new IPLLeagueAnalyserException(String.valueOf(cause),
+						IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			}
+			if (result.failure != null) {
+				futures.forEach(pending -> pending.cancel(true));
+				throw new IPLLeagueAnalyserException(
+						"Line " + (linesBefore + result.failedLine) + ": " + result.failure.getMessage(),
+						result.failure.type);
+			}
+			linesBefore += result.lines;
+			builders.add(result.builder);
+		}
+		return builders;
+	}
+
+	private static final class ChunkResult<B> {
+		final B builder;
+		long lines;
+		long failedLine;
+		IPLLeagueAnalyserException failure;
+
+		ChunkResult(B builder) {
+			this.builder = builder;
+		}
+	}
+}
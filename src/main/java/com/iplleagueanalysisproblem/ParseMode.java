@@ -0,0 +1,21 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * How a load treats rows it cannot read
+ */
+public enum ParseMode {
+	/**
+	 * The first invalid row fails the whole load
+	 */
+	STRICT,
+	/**
+	 * Invalid rows are left out and written to the quarantine report
+	 */
+	SKIP_INVALID_ROWS,
+	/**
+	 * Invalid numbers are loaded as 0 and the row is written to the quarantine
+	 * report with the cells that were defaulted. Rows missing columns are still
+	 * left out.
+	 */
+	DEFAULT_INVALID_CELLS
+}
@@ -0,0 +1,130 @@
+package com.iplleagueanalysisproblem;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Joins the runs and wickets tables on a normalized player key. Keys are
+ * computed once per distinct name of each table's dictionary and matched
+ * through a hash map, so building the index is O(n + m). Every player gets an
+ * id with the row it has in each table, or -1 when it is missing from one.
+ * The keys are also held in a {@link NameTrie} for lookups by prefix or by a
+ * name spelled slightly differently. A missing table joins as an empty one.
+ */
+final class PlayerIndex {
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[\\s.]+");
+
+	private final Map<String, Integer> playerIds = new HashMap<>();
+	private final int[] runsRow;
+	private final int[] wicketsRow;
+	private final int[] playerOfRunsRow;
+	private final int[] playerOfWicketsRow;
+	private final NameTrie names;
+	private int size;
+
+	PlayerIndex(RunsTable runs, WicketsTable wickets) {
+		int capacity = (runs == null ? 0 : runs.names.size()) + (wickets == null ? 0 : wickets.names.size());
+		runsRow = new int[Math.max(capacity, 1)];
+		wicketsRow = new int[Math.max(capacity, 1)];
+		Arrays.fill(runsRow, -1);
+		Arrays.fill(wicketsRow, -1);
+		playerOfRunsRow = runs == null ? new int[0] : join(runs.names, runs.playerName, runs.size, runsRow);
+		playerOfWicketsRow = wickets == null ? new int[0]
+				: join(wickets.names, wickets.playerName, wickets.size, wicketsRow);
+		String[] keys = new String[size];
+		playerIds.forEach((key, player) -> keys[player] = key);
+		names = new NameTrie(keys);
+	}
+
+	/**
+	 * Returns the join key of a player name: accents removed, case folded, dots
+	 * and runs of whitespace collapsed to a single space
+	 * 
+	 * @param playerName
+	 * @return
+	 */
+	static String normalize(String playerName) {
+		String decomposed = Normalizer.normalize(playerName, Normalizer.Form.NFKD);
+		String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+		return SEPARATORS.matcher(plain).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Maps every row of a table to a player id and records the first row of each
+	 * player in rowOfPlayer
+	 */
+	private int[] join(StringDictionary names, int[] nameColumn, int rows, int[] rowOfPlayer) {
+		int[] playerOfName = new int[names.size()];
+		for (int code = 0; code < names.size(); code++)
+			playerOfName[code] = playerIds.computeIfAbsent(normalize(names.decode(code)), key -> size++);
+		int[] playerOfRow = new int[rows];
+		for (int row = 0; row < rows; row++) {
+			int player = playerOfName[nameColumn[row]];
+			playerOfRow[row] = player;
+			if (rowOfPlayer[player] == -1)
+				rowOfPlayer[player] = row;
+		}
+		return playerOfRow;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the player id for the name, or -1 when neither table has it
+	 * 
+	 * @param playerName
+	 * @return
+	 */
+	int playerId(String playerName) {
+		return names.exact(normalize(playerName));
+	}
+
+	/**
+	 * Returns the ids of the players whose normalized name starts with the
+	 * normalized prefix, in name order and at most limit of them
+	 * 
+	 * @param prefix
+	 * @param limit
+	 * @return
+	 */
+	int[] playersByPrefix(String prefix, int limit) {
+		return names.prefix(normalize(prefix), limit);
+	}
+
+	/**
+	 * Returns the ids of the players whose normalized name is at most maxEdits
+	 * single character edits away from the normalized name, nearest first and
+	 * at most limit of them
+	 * 
+	 * @param playerName
+	 * @param maxEdits
+	 * @param limit
+	 * @return
+	 */
+	int[] playersNear(String playerName, int maxEdits, int limit) {
+		return names.fuzzy(normalize(playerName), maxEdits, limit);
+	}
+
+	int runsRow(int player) {
+		return runsRow[player];
+	}
+
+	int wicketsRow(int player) {
+		return wicketsRow[player];
+	}
+
+	int playerOfRunsRow(int row) {
+		return playerOfRunsRow[row];
+	}
+
+	int playerOfWicketsRow(int row) {
+		return playerOfWicketsRow[row];
+	}
+}
@@ -0,0 +1,17 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Player found by a name lookup, with the row of each factsheet the player is
+ * in, or null for a factsheet without the player
+ */
+public class PlayerProfile {
+	public String playerName;
+	public CSVRuns runs;
+	public CSVWickets wickets;
+
+	@Override
+	public String toString() {
+		return "PlayerProfile{" + "Player='" + playerName + '\'' + ", Runs=" + runs + ", Wickets=" + wickets + '}'
+				+ "\n";
+	}
+}
@@ -0,0 +1,22 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * How {@link IPLAnalysis} answers percentile and median queries
+ */
+public enum QuantileMode {
+	/**
+	 * Exact up to {@link #EXACT_LIMIT} players, approximate above
+	 */
+	AUTO,
+	/**
+	 * Every value is kept and sorted, answers are exact
+	 */
+	EXACT,
+	/**
+	 * Values go through a KLL sketch of bounded size, answers are within about
+	 * 2% of rank
+	 */
+	APPROXIMATE;
+
+	public static final int EXACT_LIMIT = 10_000;
+}
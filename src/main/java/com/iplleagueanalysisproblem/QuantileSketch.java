@@ -0,0 +1,16 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Collects values one at a time and summarizes their distribution for
+ * quantile and rank queries
+ */
+interface QuantileSketch {
+	void add(double value);
+
+	/**
+	 * Returns the values kept so far, sorted, with their weights
+	 * 
+	 * @return
+	 */
+	QuantileSummary summary();
+}
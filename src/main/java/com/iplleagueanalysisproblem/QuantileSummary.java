@@ -0,0 +1,67 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sorted sample of a distribution, each value standing for a
+ * number of original values given by its weight. Quantile and rank queries
+ * are a binary search.
+ */
+final class QuantileSummary {
+	private final double[] values;
+	private final long[] cumulativeWeights;
+
+	/**
+	 * @param values            sorted ascending
+	 * @param cumulativeWeights weight of values up to and including each value
+	 */
+	QuantileSummary(double[] values, long[] cumulativeWeights) {
+		this.values = values;
+		this.cumulativeWeights = cumulativeWeights;
+	}
+
+	/**
+	 * Returns the number of values summarized
+	 * 
+	 * @return
+	 */
+	long count() {
+		return values.length == 0 ? 0 : cumulativeWeights[values.length - 1];
+	}
+
+	/**
+	 * Returns the smallest value with at least the fraction of values at or
+	 * below it
+	 * 
+	 * @param fraction between 0 and 1
+	 * @return
+	 */
+	double quantile(double fraction) {
+		if (values.length == 0)
+			return Double.NaN;
+		long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(fraction, 0), 1) * count()));
+		int index = Arrays.binarySearch(cumulativeWeights, rank);
+		return values[index >= 0 ? index : -index - 1];
+	}
+
+	/**
+	 * Returns the fraction of values at or below the value
+	 * 
+	 * @param value
+	 * @return
+	 */
+	double rank(double value) {
+		if (values.length == 0)
+			return Double.NaN;
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (values[middle] <= value)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low == 0 ? 0 : cumulativeWeights[low - 1] / (double) count();
+	}
+}
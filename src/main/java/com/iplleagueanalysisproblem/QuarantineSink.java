@@ -0,0 +1,67 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Passes the rows of a factsheet on to a sink, keeping the load going past the
+ * rows the sink rejects. Rejected and defaulted rows are written to the
+ * quarantine report as they are met, one line each: the line number, the
+ * reason and the line as read, separated by tabs. Only rows that fail are ever
+ * turned into text, so good rows stream through at full speed.
+ */
+final class QuarantineSink implements FactsheetSink {
+	private final FactsheetSink sink;
+	private final ParseMode mode;
+	private final Writer quarantine;
+
+	/**
+	 * @param sink
+	 * @param mode       SKIP_INVALID_ROWS or DEFAULT_INVALID_CELLS
+	 * @param quarantine report of the rejected rows, may be null
+	 */
+	QuarantineSink(FactsheetSink sink, ParseMode mode, Writer quarantine) {
+		this.sink = sink;
+		this.mode = mode;
+		this.quarantine = quarantine;
+	}
+
+	@Override
+	public void header(FactsheetRow header) throws IPLLeagueAnalyserException {
+		sink.header(header);
+		if (mode == ParseMode.DEFAULT_INVALID_CELLS) {
+			header.defaultInvalidCells = true;
+			header.defaultedCells = new StringBuilder();
+		}
+	}
+
+	@Override
+	public void accept(FactsheetRow row) throws IPLLeagueAnalyserException {
+		try {
+			sink.accept(row);
+		} catch (IPLLeagueAnalyserException exception) {
+			if (row.defaultedCells != null)
+				row.defaultedCells.setLength(0);
+			Metrics.count(Metrics.ROWS_REJECTED, 1);
+			report(row, "Rejected: " + exception.getMessage());
+			return;
+		}
+		if (row.defaultedCells != null && row.defaultedCells.length() > 0) {
+			Metrics.count(Metrics.ROWS_DEFAULTED, 1);
+			report(row, "Defaulted: " + row.defaultedCells);
+			row.defaultedCells.setLength(0);
+		}
+	}
+
+	private void report(FactsheetRow row, String reason) throws IPLLeagueAnalyserException {
+		if (quarantine == null)
+			return;
+		try {
+			quarantine.append(Long.toString(row.lineNumber())).append('\t').append(reason).append('\t')
+					.append(row.line()).append('\n');
+		} catch (IOException exception) {
+			throw new IPLLeagueAnalyserException(exception.getMessage(),
+					IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_WRITE);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A query compiled into conditions on the columns of a table and one row
+ * comparator over its primitive columns. Plans depend only on the shape of a
+ * query, the fields, comparisons and sort directions, and are cached by it;
+ * the bounds of the conditions are passed in when the plan runs. Conditions
+ * come in groups: a row matches when it meets every condition of any group,
+ * a negated condition being met by the rows that fail it. They are answered
+ * from the range indexes of the table and combined as bitmaps with and, and
+ * not and or, so running a plan tests only the rows of the buckets a bound
+ * cuts through.
+ *
+ * @param <T> table type
+ */
+final class QueryPlan<T> {
+	private static final Map<String, QueryPlan<?>> PLANS = new ConcurrentHashMap<>();
+
+	private final List<DerivedMetric<T>> filterColumns;
+	private final List<Comparison> comparisons;
+	private final boolean[] negated;
+	private final int[] groupEnds;
+	private final RowComparator<T> comparator;
+
+	private QueryPlan(List<DerivedMetric<T>> filterColumns, List<Comparison> comparisons, boolean[] negated,
+			int[] groupEnds, RowComparator<T> comparator) {
+		this.filterColumns = filterColumns;
+		this.comparisons = comparisons;
+		this.negated = negated;
+		this.groupEnds = groupEnds;
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Returns the cached plan of the shape, compiling it on first use
+	 * 
+	 * @param <T>
+	 * @param shape
+	 * @param compiler
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> QueryPlan<T> of(String shape, Supplier<QueryPlan<T>> compiler) {
+		QueryPlan<?> plan = PLANS.get(shape);
+		if (plan == null) {
+			plan = compiler.get();
+			QueryPlan<?> raced = PLANS.putIfAbsent(shape, plan);
+			if (raced != null)
+				plan = raced;
+		}
+		return (QueryPlan<T>) plan;
+	}
+
+	/**
+	 * Compiles conditions on columns, the i-th compared with the i-th bound and
+	 * all of them required, and order keys, earlier keys first
+	 * 
+	 * @param <T>
+	 * @param filterColumns
+	 * @param comparisons
+	 * @param orderColumns
+	 * @param descending
+	 * @return
+	 */
+	static <T> QueryPlan<T> compile(List<DerivedMetric<T>> filterColumns, List<Comparison> comparisons,
+			List<DerivedMetric<T>> orderColumns, List<Boolean> descending) {
+		return compile(filterColumns, comparisons, Collections.nCopies(filterColumns.size(), false),
+				List.of(filterColumns.size()), orderColumns, descending);
+	}
+
+	/**
+	 * Compiles conditions on columns, the i-th compared with the i-th bound and
+	 * negated when the i-th of negated is true, grouped so that group g holds the
+	 * conditions from the end of group g - 1 up to groupEnds[g], and order keys,
+	 * earlier keys first
+	 * 
+	 * @param <T>
+	 * @param filterColumns
+	 * @param comparisons
+	 * @param negated
+	 * @param groupEnds     ascending, the last one the number of conditions
+	 * @param orderColumns
+	 * @param descending
+	 * @return
+	 */
+	static <T> QueryPlan<T> compile(List<DerivedMetric<T>> filterColumns, List<Comparison> comparisons,
+			List<Boolean> negated, List<Integer> groupEnds, List<DerivedMetric<T>> orderColumns,
+			List<Boolean> descending) {
+		boolean[] not = new boolean[negated.size()];
+		for (int condition = 0; condition < not.length; condition++)
+			not[condition] = negated.get(condition);
+		RowComparator<T> comparator = null;
+		for (int index = 0; index < orderColumns.size(); index++) {
+			DerivedMetric<T> column = orderColumns.get(index);
+			RowComparator<T> key = (table, left, right) -> Double.compare(column.compute(table, left),
+					column.compute(table, right));
+			if (!descending.get(index))
+				key = key.reversed();
+			comparator = comparator == null ? key : comparator.thenComparing(key);
+		}
+		return new QueryPlan<>(new ArrayList<>(filterColumns), new ArrayList<>(comparisons), not,
+				groupEnds.stream().mapToInt(Integer::intValue).toArray(), comparator);
+	}
+
+	/**
+	 * Returns the ids of the matching rows, best first and at most limit of them.
+	 * Without order keys rows keep table order; rows that tie keep it as well.
+	 * 
+	 * @param table
+	 * @param index
+	 * @param bounds
+	 * @param limit
+	 * @return
+	 */
+	int[] run(T table, FilterIndex<T> index, double[] bounds, int limit) {
+		RowBitmap matches = null;
+		int condition = 0;
+		for (int groupEnd : groupEnds) {
+			RowBitmap group = index.all();
+			for (; condition < groupEnd; condition++) {
+				RowBitmap met = index.where(filterColumns.get(condition), comparisons.get(condition),
+						bounds[condition]);
+				group = negated[condition] ? group.andNot(met) : group.and(met);
+			}
+			matches = matches == null ? group : matches.or(group);
+		}
+		int[] rows = matches.toArray();
+		if (comparator == null)
+			return rows.length > limit ? Arrays.copyOf(rows, limit) : rows;
+		RankingEngine.IntComparator ranking = (left, right) -> comparator.compare(table, left, right);
+		if (limit < rows.length)
+			return RankingEngine.topK(rows, ranking, limit);
+		RankingEngine.sort(rows, ranking);
+		return rows;
+	}
+}
@@ -0,0 +1,266 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Orders row ids of a columnar table best first. Full rankings use a stable
+ * O(n log n) merge sort, top-N requests use a bounded heap so only k rows are
+ * ever kept ordered. Both work on int row ids with a primitive comparator.
+ */
+final class RankingEngine {
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private RankingEngine() {
+	}
+
+	/**
+	 * Row comparator bound to one table, greater means better
+	 */
+	@FunctionalInterface
+	interface IntComparator {
+		int compare(int left, int right);
+	}
+
+	/**
+	 * Returns the ids of the rows accepted by the filter in row order
+	 * 
+	 * @param <T>
+	 * @param table
+	 * @param size
+	 * @param filter
+	 * @return
+	 */
+	static <T> int[] select(T table, int size, RowFilter<T> filter) {
+		if (filter instanceof NonZeroFilter)
+			return ((NonZeroFilter<T>) filter).select(table, size);
+		int[] rows = new int[size];
+		int count = 0;
+		for (int row = 0; row < size; row++)
+			if (filter.test(table, row))
+				rows[count++] = row;
+		return count == size ? rows : Arrays.copyOf(rows, count);
+	}
+
+	/**
+	 * Returns, for each comparator, the first row that no other row beats by it,
+	 * finding them all in a single pass over the rows
+	 * 
+	 * @param <T>
+	 * @param table
+	 * @param size
+	 * @param comparators
+	 * @return
+	 */
+	static <T> int[] bestRows(T table, int size, List<RowComparator<T>> comparators) {
+		if (size == 0)
+			throw new NoSuchElementException("No value present");
+		List<RowComparator<T>> fused = List.copyOf(comparators);
+		int[] best = new int[fused.size()];
+		for (int row = 1; row < size; row++)
+			for (int index = 0; index < best.length; index++)
+				if (fused.get(index).compare(table, row, best[index]) > 0)
+					best[index] = row;
+		return best;
+	}
+
+	/**
+	 * Sorts the row ids in place, greatest row by the comparator first. Rows that
+	 * compare equal keep their original order.
+	 * 
+	 * @param rows
+	 * @param comparator
+	 */
+	static void sort(int[] rows, IntComparator comparator) {
+		int size = rows.length;
+		for (int start = 0; start < size; start += INSERTION_SORT_THRESHOLD)
+			insertionSort(rows, start, Math.min(start + INSERTION_SORT_THRESHOLD, size), comparator);
+		if (size <= INSERTION_SORT_THRESHOLD)
+			return;
+		int[] source = rows;
+		int[] target = new int[size];
+		for (int width = INSERTION_SORT_THRESHOLD; width < size; width *= 2) {
+			for (int left = 0; left < size; left += 2 * width) {
+				int middle = Math.min(left + width, size);
+				int right = Math.min(left + 2 * width, size);
+				merge(source, target, left, middle, right, comparator);
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != rows)
+			System.arraycopy(source, 0, rows, 0, size);
+	}
+
+	private static void insertionSort(int[] rows, int from, int to, IntComparator comparator) {
+		for (int i = from + 1; i < to; i++) {
+			int row = rows[i];
+			int j = i - 1;
+			while (j >= from && comparator.compare(row, rows[j]) > 0) {
+				rows[j + 1] = rows[j];
+				j--;
+			}
+			rows[j + 1] = row;
+		}
+	}
+
+	private static void merge(int[] source, int[] target, int left, int middle, int right,
+			IntComparator comparator) {
+		int i = left;
+		int j = middle;
+		for (int k = left; k < right; k++) {
+			if (i < middle && (j >= right || comparator.compare(source[j], source[i]) <= 0))
+				target[k] = source[i++];
+			else
+				target[k] = source[j++];
+		}
+	}
+
+	/**
+	 * Returns the ranking with the removed rows taken out and the inserted rows
+	 * put where {@link #sort} would place them, without sorting it again. The
+	 * ranking is ordered by the before comparator, rows kept in it must compare
+	 * the same under both comparators, and rows that compare equal are ordered
+	 * by row id, as the stable sort of rows in id order leaves them. Each row is
+	 * found by binary search, so a row costs O(log n) comparisons; the rest of the
+	 * ranking is only block copied.
+	 * 
+	 * @param ranked
+	 * @param removed
+	 * @param before
+	 * @param inserted
+	 * @param after
+	 * @return
+	 */
+	static int[] update(int[] ranked, int[] removed, IntComparator before, int[] inserted, IntComparator after) {
+		int[] positions = new int[removed.length];
+		for (int index = 0; index < removed.length; index++) {
+			int position = insertionPoint(ranked, 0, ranked.length, removed[index], before);
+			if (position == ranked.length || ranked[position] != removed[index])
+				throw new IllegalStateException("Row " + removed[index] + " is not in the ranking");
+			positions[index] = position;
+		}
+		Arrays.sort(positions);
+		int[] added = inserted.clone();
+		Arrays.sort(added);
+		sort(added, after);
+		int[] updated = new int[ranked.length - removed.length + added.length];
+		int count = 0;
+		int from = 0;
+		int next = 0;
+		int kept = ranked.length - removed.length;
+		int[] remaining = new int[kept];
+		for (int position : positions) {
+			System.arraycopy(ranked, from, remaining, next, position - from);
+			next += position - from;
+			from = position + 1;
+		}
+		System.arraycopy(ranked, from, remaining, next, ranked.length - from);
+		from = 0;
+		for (int row : added) {
+			int position = insertionPoint(remaining, from, kept, row, after);
+			System.arraycopy(remaining, from, updated, count, position - from);
+			count += position - from;
+			updated[count++] = row;
+			from = position;
+		}
+		System.arraycopy(remaining, from, updated, count, kept - from);
+		return updated;
+	}
+
+	/**
+	 * Returns the first index in [from, to) whose row does not rank before the given row
+	 */
+	private static int insertionPoint(int[] ranked, int from, int to, int row, IntComparator comparator) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int result = comparator.compare(ranked[middle], row);
+			if (result > 0 || (result == 0 && ranked[middle] < row))
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the first k row ids of the ranking {@link #sort} would produce,
+	 * without ordering the rest of the rows
+	 * 
+	 * @param rows
+	 * @param comparator
+	 * @param limit
+	 * @return
+	 */
+	static int[] topK(int[] rows, IntComparator comparator, int limit) {
+		int size = rows.length;
+		if (limit <= 0 || size == 0)
+			return new int[0];
+		if (limit >= size) {
+			int[] ranked = rows.clone();
+			sort(ranked, comparator);
+			return ranked;
+		}
+		int[] heap = new int[limit];
+		int heapSize = 0;
+		for (int index = 0; index < size; index++) {
+			if (heapSize < limit) {
+				heap[heapSize] = index;
+				siftUp(rows, comparator, heap, heapSize++);
+			} else if (isWorse(rows, comparator, heap[0], index)) {
+				heap[0] = index;
+				siftDown(rows, comparator, heap, heapSize);
+			}
+		}
+		int[] ranked = new int[heapSize];
+		for (int i = heapSize - 1; i >= 0; i--) {
+			ranked[i] = rows[heap[0]];
+			heap[0] = heap[i];
+			siftDown(rows, comparator, heap, i);
+		}
+		return ranked;
+	}
+
+	/**
+	 * Heap order: the root is the worst kept row. A row ranks below another when
+	 * the comparator says it is smaller or, on a tie, when it came later in the
+	 * input, which keeps topK consistent with the stable full sort.
+	 */
+	private static boolean isWorse(int[] rows, IntComparator comparator, int index, int other) {
+		int result = comparator.compare(rows[index], rows[other]);
+		return result < 0 || (result == 0 && index > other);
+	}
+
+	private static void siftUp(int[] rows, IntComparator comparator, int[] heap, int position) {
+		int index = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (!isWorse(rows, comparator, index, heap[parent]))
+				break;
+			heap[position] = heap[parent];
+			position = parent;
+		}
+		heap[position] = index;
+	}
+
+	private static void siftDown(int[] rows, IntComparator comparator, int[] heap, int heapSize) {
+		int position = 0;
+		int index = heap[0];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && isWorse(rows, comparator, heap[child + 1], heap[child]))
+				child++;
+			if (!isWorse(rows, comparator, heap[child], index))
+				break;
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = index;
+	}
+}
@@ -0,0 +1,88 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Bounded cache of query results, ranked rows or serialized JSON, keyed by the
+ * query and the version of the dataset it ran against. A result of an older
+ * version can never be returned for a newer one; the owner also clears the
+ * cache whenever it publishes a dataset so stale results do not hold memory.
+ */
+final class ResultCache {
+	private final Cache<Key, Object> results;
+
+	/**
+	 * @param maximumSize results kept, the least recently used are evicted first
+	 * @param timeToLive  how long a result is kept after it is computed
+	 * @param timeUnit
+	 */
+	ResultCache(long maximumSize, long timeToLive, TimeUnit timeUnit) {
+		results = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive, timeUnit)
+				.recordStats().build();
+	}
+
+	/**
+	 * Returns the cached result of the query on the dataset version, computing
+	 * and caching it when missing. Concurrent misses may compute it more than
+	 * once; one of the results is kept.
+	 * 
+	 * @param <V>
+	 * @param query
+	 * @param version
+	 * @param compute
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	<V> V get(String query, long version, Supplier<V> compute) {
+		Key key = new Key(query, version);
+		Object result = results.getIfPresent(key);
+		if (result == null) {
+			result = compute.get();
+			results.put(key, result);
+		}
+		return (V) result;
+	}
+
+	void invalidateAll() {
+		results.invalidateAll();
+	}
+
+	ResultCacheStats stats() {
+		CacheStats stats = results.stats();
+		ResultCacheStats snapshot = new ResultCacheStats();
+		snapshot.hitCount = stats.hitCount();
+		snapshot.missCount = stats.missCount();
+		snapshot.evictionCount = stats.evictionCount();
+		snapshot.size = results.size();
+		return snapshot;
+	}
+
+	private static final class Key {
+		final String query;
+		final long version;
+
+		Key(String query, long version) {
+			this.query = query;
+			this.version = version;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return version == key.version && query.equals(key.query);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(query, version);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Counters of the result cache of an {@link IPLAnalysis}
+ */
+public class ResultCacheStats {
+	public long hitCount;
+	public long missCount;
+	public long evictionCount;
+	public long size;
+
+	@Override
+	public String toString() {
+		return "ResultCacheStats{" + "Hits='" + hitCount + '\'' + ", Misses='" + missCount + '\'' + ", Evictions='"
+				+ evictionCount + '\'' + ", Size='" + size + '\'' + '}';
+	}
+}
@@ -0,0 +1,322 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of row ids laid out as a Roaring bitmap. Rows are grouped by
+ * their high 16 bits into chunks of 65536; a chunk holding at most 4096 rows
+ * keeps their low 16 bits as a sorted char array, a denser one as a bit set of
+ * 1024 words. Set operations work chunk by chunk, so filters combine without
+ * visiting the rows of the table.
+ */
+final class RowBitmap {
+	static final RowBitmap EMPTY = new RowBitmap(new char[0], new Object[0], 0);
+
+	private static final int ARRAY_LIMIT = 4096;
+	private static final int WORDS = 1 << 10;
+
+	private final char[] keys;
+	/**
+	 * One chunk per key, a char[] of low bits or a long[] bit set
+	 */
+	private final Object[] chunks;
+	private final int cardinality;
+
+	private RowBitmap(char[] keys, Object[] chunks, int cardinality) {
+		this.keys = keys;
+		this.chunks = chunks;
+		this.cardinality = cardinality;
+	}
+
+	/**
+	 * Returns the bitmap of the rows, which must be ascending and distinct
+	 *
+	 * @param rows
+	 * @return
+	 */
+	static RowBitmap of(int[] rows) {
+		Builder builder = new Builder();
+		int from = 0;
+		while (from < rows.length) {
+			int key = rows[from] >>> 16;
+			int to = from;
+			while (to < rows.length && rows[to] >>> 16 == key)
+				to++;
+			if (to - from <= ARRAY_LIMIT) {
+				char[] lows = new char[to - from];
+				for (int index = from; index < to; index++)
+					lows[index - from] = (char) rows[index];
+				builder.add(key, lows);
+			} else {
+				long[] words = new long[WORDS];
+				for (int index = from; index < to; index++)
+					words[(rows[index] >>> 6) & (WORDS - 1)] |= 1L << rows[index];
+				builder.add(key, words);
+			}
+			from = to;
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the bitmap of the rows in [from, to)
+	 *
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	static RowBitmap range(int from, int to) {
+		Builder builder = new Builder();
+		for (int start = from; start < to; start = (start & ~0xFFFF) + 0x10000) {
+			int end = Math.min(to, (start & ~0xFFFF) + 0x10000);
+			long[] words = new long[WORDS];
+			for (int row = start; row < end; row++)
+				words[(row >>> 6) & (WORDS - 1)] |= 1L << row;
+			builder.add(start >>> 16, compact(words));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the number of rows in this bitmap
+	 *
+	 * @return
+	 */
+	int cardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * Returns true when the row is in this bitmap
+	 *
+	 * @param row
+	 * @return
+	 */
+	boolean contains(int row) {
+		int index = Arrays.binarySearch(keys, (char) (row >>> 16));
+		return index >= 0 && contains(chunks[index], (char) row);
+	}
+
+	/**
+	 * Returns the rows in both bitmaps
+	 *
+	 * @param other
+	 * @return
+	 */
+	RowBitmap and(RowBitmap other) {
+		Builder builder = new Builder();
+		int left = 0;
+		int right = 0;
+		while (left < keys.length && right < other.keys.length) {
+			if (keys[left] < other.keys[right])
+				left++;
+			else if (keys[left] > other.keys[right])
+				right++;
+			else
+				builder.add(keys[left], and(chunks[left++], other.chunks[right++]));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the rows in either bitmap
+	 *
+	 * @param other
+	 * @return
+	 */
+	RowBitmap or(RowBitmap other) {
+		Builder builder = new Builder();
+		int left = 0;
+		int right = 0;
+		while (left < keys.length || right < other.keys.length) {
+			if (right == other.keys.length || (left < keys.length && keys[left] < other.keys[right]))
+				builder.add(keys[left], chunks[left++]);
+			else if (left == keys.length || keys[left] > other.keys[right])
+				builder.add(other.keys[right], other.chunks[right++]);
+			else
+				builder.add(keys[left], or(chunks[left++], other.chunks[right++]));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the rows in this bitmap but not in the other
+	 *
+	 * @param other
+	 * @return
+	 */
+	RowBitmap andNot(RowBitmap other) {
+		Builder builder = new Builder();
+		int right = 0;
+		for (int left = 0; left < keys.length; left++) {
+			while (right < other.keys.length && other.keys[right] < keys[left])
+				right++;
+			if (right < other.keys.length && other.keys[right] == keys[left])
+				builder.add(keys[left], andNot(chunks[left], other.chunks[right]));
+			else
+				builder.add(keys[left], chunks[left]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the rows in [0, size) that are not in this bitmap
+	 *
+	 * @param size
+	 * @return
+	 */
+	RowBitmap not(int size) {
+		return range(0, size).andNot(this);
+	}
+
+	/**
+	 * Returns the rows of this bitmap in ascending order, in a new array
+	 *
+	 * @return
+	 */
+	int[] toArray() {
+		int[] rows = new int[cardinality];
+		int count = 0;
+		for (int index = 0; index < keys.length; index++) {
+			int base = keys[index] << 16;
+			Object chunk = chunks[index];
+			if (chunk instanceof char[]) {
+				for (char low : (char[]) chunk)
+					rows[count++] = base | low;
+			} else {
+				long[] words = (long[]) chunk;
+				for (int word = 0; word < WORDS; word++)
+					for (long bits = words[word]; bits != 0; bits &= bits - 1)
+						rows[count++] = base | word << 6 | Long.numberOfTrailingZeros(bits);
+			}
+		}
+		return rows;
+	}
+
+	private static boolean contains(Object chunk, char low) {
+		if (chunk instanceof char[])
+			return Arrays.binarySearch((char[]) chunk, low) >= 0;
+		return (((long[]) chunk)[low >>> 6] & 1L << low) != 0;
+	}
+
+	private static Object and(Object left, Object right) {
+		if (left instanceof char[])
+			return retain((char[]) left, right, true);
+		if (right instanceof char[])
+			return retain((char[]) right, left, true);
+		long[] words = ((long[]) left).clone();
+		long[] others = (long[]) right;
+		for (int word = 0; word < WORDS; word++)
+			words[word] &= others[word];
+		return compact(words);
+	}
+
+	private static Object or(Object left, Object right) {
+		long[] words = words(left);
+		if (right instanceof char[]) {
+			for (char low : (char[]) right)
+				words[low >>> 6] |= 1L << low;
+		} else {
+			long[] others = (long[]) right;
+			for (int word = 0; word < WORDS; word++)
+				words[word] |= others[word];
+		}
+		return compact(words);
+	}
+
+	private static Object andNot(Object left, Object right) {
+		if (left instanceof char[])
+			return retain((char[]) left, right, false);
+		long[] words = ((long[]) left).clone();
+		if (right instanceof char[]) {
+			for (char low : (char[]) right)
+				words[low >>> 6] &= ~(1L << low);
+		} else {
+			long[] others = (long[]) right;
+			for (int word = 0; word < WORDS; word++)
+				words[word] &= ~others[word];
+		}
+		return compact(words);
+	}
+
+	/**
+	 * Returns the values whose membership in the chunk is as given, null when
+	 * there are none
+	 */
+	private static char[] retain(char[] values, Object chunk, boolean member) {
+		char[] kept = new char[values.length];
+		int count = 0;
+		for (char low : values)
+			if (contains(chunk, low) == member)
+				kept[count++] = low;
+		return count == 0 ? null : Arrays.copyOf(kept, count);
+	}
+
+	/**
+	 * Returns the chunk as a new bit set
+	 */
+	private static long[] words(Object chunk) {
+		if (chunk instanceof long[])
+			return ((long[]) chunk).clone();
+		long[] words = new long[WORDS];
+		for (char low : (char[]) chunk)
+			words[low >>> 6] |= 1L << low;
+		return words;
+	}
+
+	/**
+	 * Returns the bit set as an array chunk when it is sparse enough, null when
+	 * it is empty
+	 */
+	private static Object compact(long[] words) {
+		int count = 0;
+		for (long word : words)
+			count += Long.bitCount(word);
+		if (count == 0)
+			return null;
+		if (count > ARRAY_LIMIT)
+			return words;
+		char[] lows = new char[count];
+		count = 0;
+		for (int word = 0; word < WORDS; word++)
+			for (long bits = words[word]; bits != 0; bits &= bits - 1)
+				lows[count++] = (char) (word << 6 | Long.numberOfTrailingZeros(bits));
+		return lows;
+	}
+
+	private static int cardinality(Object chunk) {
+		if (chunk instanceof char[])
+			return ((char[]) chunk).length;
+		int count = 0;
+		for (long word : (long[]) chunk)
+			count += Long.bitCount(word);
+		return count;
+	}
+
+	/**
+	 * Collects chunks in ascending key order, dropping empty ones
+	 */
+	private static final class Builder {
+		private char[] keys = new char[4];
+		private Object[] chunks = new Object[4];
+		private int size;
+		private int cardinality;
+
+		void add(int key, Object chunk) {
+			if (chunk == null)
+				return;
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				chunks = Arrays.copyOf(chunks, size * 2);
+			}
+			keys[size] = (char) key;
+			chunks[size++] = chunk;
+			cardinality += cardinality(chunk);
+		}
+
+		RowBitmap build() {
+			return size == 0 ? EMPTY
+					: new RowBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(chunks, size), cardinality);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Compares two rows of a columnar table by their primitive columns, so a
+ * comparison never boxes or allocates.
+ *
+ * @param <T> table type
+ */
+@FunctionalInterface
+interface RowComparator<T> {
+	int compare(T table, int left, int right);
+
+	default RowComparator<T> thenComparing(RowComparator<T> other) {
+		return (table, left, right) -> {
+			int result = compare(table, left, right);
+			return result != 0 ? result : other.compare(table, left, right);
+		};
+	}
+
+	default RowComparator<T> reversed() {
+		return (table, left, right) -> compare(table, right, left);
+	}
+}
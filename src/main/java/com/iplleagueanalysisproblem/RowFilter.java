@@ -0,0 +1,18 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Row predicate over the primitive columns of a columnar table
+ *
+ * @param <T> table type
+ */
+@FunctionalInterface
+interface RowFilter<T> {
+	RowFilter<?> ALL = (table, row) -> true;
+
+	boolean test(T table, int row);
+
+	@SuppressWarnings("unchecked")
+	static <T> RowFilter<T> all() {
+		return (RowFilter<T>) ALL;
+	}
+}
@@ -0,0 +1,68 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only list view over row ids of a columnar table. Elements are
+ * materialized through the table only when they are read.
+ *
+ * @param <k> row type handed out by the API
+ */
+final class RowList<k> extends AbstractList<k> implements RandomAccess {
+	private final int[] rows;
+	private final int from;
+	private final int to;
+	private final IntFunction<k> materializer;
+
+	RowList(int[] rows, IntFunction<k> materializer) {
+		this(rows, 0, rows.length, materializer);
+	}
+
+	private RowList(int[] rows, int from, int to, IntFunction<k> materializer) {
+		this.rows = rows;
+		this.from = from;
+		this.to = to;
+		this.materializer = materializer;
+	}
+
+	@Override
+	public k get(int index) {
+		if (index < 0 || index >= to - from)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		return materializer.apply(rows[from + index]);
+	}
+
+	@Override
+	public int size() {
+		return to - from;
+	}
+
+	@Override
+	public RowList<k> subList(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+		return new RowList<>(rows, from + fromIndex, from + toIndex, materializer);
+	}
+
+	/**
+	 * Returns the row id at the index of this view
+	 * 
+	 * @param index
+	 * @return
+	 */
+	int rowAt(int index) {
+		return rows[from + index];
+	}
+
+	/**
+	 * Returns a copy of the row ids of this view
+	 * 
+	 * @return
+	 */
+	int[] rowIds() {
+		return Arrays.copyOfRange(rows, from, to);
+	}
+}
@@ -0,0 +1,471 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Columnar storage of the runs factsheet. Every CSVRuns field is held in its
+ * own primitive array indexed by row, text columns are dictionary encoded.
+ * CSVRuns objects are only created when a row is handed out by the API.
+ * Derived metrics are computed into columns once, when the table is built,
+ * together with the row bitmaps of its {@link FilterIndex}. An upserted copy
+ * shares the columns the upsert left unchanged with the table it came from and
+ * patches its derived columns and row bitmaps for the changed rows only.
+ */
+final class RunsTable {
+	final int size;
+	final StringDictionary names;
+	final StringDictionary highScores;
+	final int[] position;
+	final int[] playerName;
+	final int[] matches;
+	final int[] innings;
+	final int[] notOut;
+	final int[] runs;
+	final int[] highScore;
+	final double[] average;
+	final int[] ballsFaced;
+	final double[] strikeRate;
+	final int[] hundreds;
+	final int[] fiftys;
+	final int[] fours;
+	final int[] sixes;
+	final DerivedColumns<RunsTable> derived;
+	final FilterIndex<RunsTable> filters;
+	final double[] boundaryStrikeRate;
+	private final AtomicReferenceArray<CSVRuns> materialized;
+	private volatile int[] rowOfName;
+
+	private RunsTable(Builder builder) {
+		size = builder.size;
+		names = builder.names;
+		highScores = builder.highScores;
+		position = Arrays.copyOf(builder.position, size);
+		playerName = Arrays.copyOf(builder.playerName, size);
+		matches = Arrays.copyOf(builder.matches, size);
+		innings = Arrays.copyOf(builder.innings, size);
+		notOut = Arrays.copyOf(builder.notOut, size);
+		runs = Arrays.copyOf(builder.runs, size);
+		highScore = Arrays.copyOf(builder.highScore, size);
+		average = Arrays.copyOf(builder.average, size);
+		ballsFaced = Arrays.copyOf(builder.ballsFaced, size);
+		strikeRate = Arrays.copyOf(builder.strikeRate, size);
+		hundreds = Arrays.copyOf(builder.hundreds, size);
+		fiftys = Arrays.copyOf(builder.fiftys, size);
+		fours = Arrays.copyOf(builder.fours, size);
+		sixes = Arrays.copyOf(builder.sixes, size);
+		materialized = new AtomicReferenceArray<>(size);
+		derived = DerivedColumns.of(this);
+		boundaryStrikeRate = derived.column(DerivedColumns.BOUNDARY_STRIKE_RATE);
+		filters = FilterIndex.of(this);
+	}
+
+	/**
+	 * Builds the upserted copy of the previous table. Columns the builder did not
+	 * change are shared with the previous table, derived columns and row bitmaps
+	 * are patched for the changed rows.
+	 * 
+	 * @param builder
+	 * @param previous
+	 * @param changedRows
+	 */
+	private RunsTable(Builder builder, RunsTable previous, int[] changedRows) {
+		size = builder.size;
+		names = builder.names;
+		highScores = builder.highScores;
+		position = trim(builder.position, size);
+		playerName = trim(builder.playerName, size);
+		matches = trim(builder.matches, size);
+		innings = trim(builder.innings, size);
+		notOut = trim(builder.notOut, size);
+		runs = trim(builder.runs, size);
+		highScore = trim(builder.highScore, size);
+		average = trim(builder.average, size);
+		ballsFaced = trim(builder.ballsFaced, size);
+		strikeRate = trim(builder.strikeRate, size);
+		hundreds = trim(builder.hundreds, size);
+		fiftys = trim(builder.fiftys, size);
+		fours = trim(builder.fours, size);
+		sixes = trim(builder.sixes, size);
+		materialized = new AtomicReferenceArray<>(size);
+		derived = previous.derived.patched(this, size, changedRows);
+		boundaryStrikeRate = derived.column(DerivedColumns.BOUNDARY_STRIKE_RATE);
+		filters = previous.filters.patched(this, size, changedRows);
+		int[] previousRows = previous.rowOfName;
+		if (previousRows != null && playerName == previous.playerName)
+			rowOfName = previousRows;
+	}
+
+	/**
+	 * Reads a table written by {@link #write(DataOutputStream)}
+	 * 
+	 * @param in
+	 */
+	RunsTable(ByteBuffer in) {
+		size = in.getInt();
+		names = SnapshotIO.readDictionary(in);
+		highScores = SnapshotIO.readDictionary(in);
+		position = SnapshotIO.readInts(in);
+		playerName = SnapshotIO.readInts(in);
+		matches = SnapshotIO.readInts(in);
+		innings = SnapshotIO.readInts(in);
+		notOut = SnapshotIO.readInts(in);
+		runs = SnapshotIO.readInts(in);
+		highScore = SnapshotIO.readInts(in);
+		average = SnapshotIO.readDoubles(in);
+		ballsFaced = SnapshotIO.readInts(in);
+		strikeRate = SnapshotIO.readDoubles(in);
+		hundreds = SnapshotIO.readInts(in);
+		fiftys = SnapshotIO.readInts(in);
+		fours = SnapshotIO.readInts(in);
+		sixes = SnapshotIO.readInts(in);
+		materialized = new AtomicReferenceArray<>(size);
+		derived = DerivedColumns.of(this);
+		boundaryStrikeRate = derived.column(DerivedColumns.BOUNDARY_STRIKE_RATE);
+		filters = FilterIndex.of(this);
+	}
+
+	/**
+	 * Writes the dictionaries and columns of the table to a snapshot
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(size);
+		SnapshotIO.writeDictionary(out, names);
+		SnapshotIO.writeDictionary(out, highScores);
+		SnapshotIO.writeInts(out, position, size);
+		SnapshotIO.writeInts(out, playerName, size);
+		SnapshotIO.writeInts(out, matches, size);
+		SnapshotIO.writeInts(out, innings, size);
+		SnapshotIO.writeInts(out, notOut, size);
+		SnapshotIO.writeInts(out, runs, size);
+		SnapshotIO.writeInts(out, highScore, size);
+		SnapshotIO.writeDoubles(out, average, size);
+		SnapshotIO.writeInts(out, ballsFaced, size);
+		SnapshotIO.writeDoubles(out, strikeRate, size);
+		SnapshotIO.writeInts(out, hundreds, size);
+		SnapshotIO.writeInts(out, fiftys, size);
+		SnapshotIO.writeInts(out, fours, size);
+		SnapshotIO.writeInts(out, sixes, size);
+	}
+
+	/**
+	 * Returns the row as a CSVRuns, creating it on first request. Concurrent
+	 * callers agree on a single instance per row.
+	 * 
+	 * @param row
+	 * @return
+	 */
+	CSVRuns row(int row) {
+		CSVRuns entry = materialized.get(row);
+		if (entry == null) {
+			entry = new CSVRuns();
+			entry.position = position[row];
+			entry.playerName = names.decode(playerName[row]);
+			entry.matches = matches[row];
+			entry.innings = innings[row];
+			entry.notOut = notOut[row];
+			entry.runs = runs[row];
+			entry.highScore = highScores.decode(highScore[row]);
+			entry.average = average[row];
+			entry.ballsFaced = ballsFaced[row];
+			entry.strikeRate = strikeRate[row];
+			entry.hundreds = hundreds[row];
+			entry.fiftys = fiftys[row];
+			entry.fours = fours[row];
+			entry.sixes = sixes[row];
+			if (!materialized.compareAndSet(row, null, entry))
+				entry = materialized.get(row);
+		}
+		return entry;
+	}
+
+	String playerName(int row) {
+		return names.decode(playerName[row]);
+	}
+
+	/**
+	 * Returns the first row of the player with the name code, or -1 when no row
+	 * has it
+	 * 
+	 * @param name
+	 * @return
+	 */
+	int rowOfName(int name) {
+		int[] rows = rowOfName;
+		if (rows == null) {
+			rows = new int[names.size()];
+			Arrays.fill(rows, -1);
+			for (int row = size - 1; row >= 0; row--)
+				rows[playerName[row]] = row;
+			rowOfName = rows;
+		}
+		return name >= 0 && name < rows.length ? rows[name] : -1;
+	}
+
+	/**
+	 * Returns a copy of the table with the entries applied. An entry for a player
+	 * already in the table overwrites that player's row, any other entry is
+	 * appended. The row written for each entry is stored in changedRows.
+	 * 
+	 * @param entries
+	 * @param changedRows
+	 * @return
+	 */
+	RunsTable upsert(List<CSVRuns> entries, int[] changedRows) {
+		Builder builder = new Builder(this);
+		Map<String, Integer> appended = new HashMap<>();
+		for (int index = 0; index < entries.size(); index++) {
+			CSVRuns entry = entries.get(index);
+			int row = rowOfName(names.codeOf(entry.playerName));
+			if (row < 0)
+				row = appended.getOrDefault(entry.playerName, -1);
+			if (row < 0) {
+				row = builder.size();
+				builder.add(entry);
+				appended.put(entry.playerName, row);
+			} else {
+				builder.set(row, entry);
+			}
+			changedRows[index] = row;
+		}
+		return new RunsTable(builder, this, changedRows);
+	}
+
+	private static int[] trim(int[] column, int size) {
+		return column.length == size ? column : Arrays.copyOf(column, size);
+	}
+
+	private static double[] trim(double[] column, int size) {
+		return column.length == size ? column : Arrays.copyOf(column, size);
+	}
+
+	/**
+	 * Header columns of the factsheet, in the order the builder reads them
+	 */
+	static final String[] COLUMNS = { "POS", "PLAYER", "Mat", "Inns", "NO", "Runs", "HS", "Avg",
+			"BF", "SR", "100", "50", "4s", "6s" };
+
+	static final class Builder implements FactsheetSink {
+		private final RunsTable base;
+		private StringDictionary names;
+		private StringDictionary highScores;
+		/**
+		 * Columns still shared with the base table, one bit per index into COLUMNS
+		 */
+		private int sharedColumns;
+		private final int[] columns = new int[COLUMNS.length];
+		private int requiredFields;
+		private int size;
+		private int[] position = new int[64];
+		private int[] playerName = new int[64];
+		private int[] matches = new int[64];
+		private int[] innings = new int[64];
+		private int[] notOut = new int[64];
+		private int[] runs = new int[64];
+		private int[] highScore = new int[64];
+		private double[] average = new double[64];
+		private int[] ballsFaced = new int[64];
+		private double[] strikeRate = new double[64];
+		private int[] hundreds = new int[64];
+		private int[] fiftys = new int[64];
+		private int[] fours = new int[64];
+		private int[] sixes = new int[64];
+
+		Builder() {
+			base = null;
+			names = new StringDictionary();
+			highScores = new StringDictionary();
+		}
+
+		/**
+		 * Starts from the rows of the table, sharing its columns and dictionaries.
+		 * Each one is copied on the first write that changes it, so the table is
+		 * never modified.
+		 * 
+		 * @param table
+		 */
+		Builder(RunsTable table) {
+			base = table;
+			names = table.names;
+			highScores = table.highScores;
+			sharedColumns = (1 << COLUMNS.length) - 1;
+			size = table.size;
+			position = table.position;
+			playerName = table.playerName;
+			matches = table.matches;
+			innings = table.innings;
+			notOut = table.notOut;
+			runs = table.runs;
+			highScore = table.highScore;
+			average = table.average;
+			ballsFaced = table.ballsFaced;
+			strikeRate = table.strikeRate;
+			hundreds = table.hundreds;
+			fiftys = table.fiftys;
+			fours = table.fours;
+			sixes = table.sixes;
+		}
+
+		void add(CSVRuns entry) {
+			if (size == position.length)
+				grow(size + 1);
+			set(size++, entry);
+		}
+
+		/**
+		 * Overwrites the row with the values of the entry
+		 * 
+		 * @param row
+		 * @param entry
+		 */
+		void set(int row, CSVRuns entry) {
+			if (base != null && names == base.names && names.codeOf(entry.playerName) == -1)
+				names = names.copy();
+			if (base != null && highScores == base.highScores && highScores.codeOf(entry.highScore) == -1)
+				highScores = highScores.copy();
+			position = write(position, 0, row, entry.position);
+			playerName = write(playerName, 1, row, names.encode(entry.playerName));
+			matches = write(matches, 2, row, entry.matches);
+			innings = write(innings, 3, row, entry.innings);
+			notOut = write(notOut, 4, row, entry.notOut);
+			runs = write(runs, 5, row, entry.runs);
+			highScore = write(highScore, 6, row, highScores.encode(entry.highScore));
+			average = write(average, 7, row, entry.average);
+			ballsFaced = write(ballsFaced, 8, row, entry.ballsFaced);
+			strikeRate = write(strikeRate, 9, row, entry.strikeRate);
+			hundreds = write(hundreds, 10, row, entry.hundreds);
+			fiftys = write(fiftys, 11, row, entry.fiftys);
+			fours = write(fours, 12, row, entry.fours);
+			sixes = write(sixes, 13, row, entry.sixes);
+		}
+
+		/**
+		 * Writes the value into the column, copying the column first when it is
+		 * still shared with the base table and the value changes it
+		 */
+		private int[] write(int[] column, int index, int row, int value) {
+			if (column[row] == value)
+				return column;
+			if ((sharedColumns & 1 << index) != 0) {
+				column = column.clone();
+				sharedColumns &= ~(1 << index);
+			}
+			column[row] = value;
+			return column;
+		}
+
+		private double[] write(double[] column, int index, int row, double value) {
+			if (Double.compare(column[row], value) == 0)
+				return column;
+			if ((sharedColumns & 1 << index) != 0) {
+				column = column.clone();
+				sharedColumns &= ~(1 << index);
+			}
+			column[row] = value;
+			return column;
+		}
+
+		@Override
+		public void header(FactsheetRow header) throws IPLLeagueAnalyserException {
+			for (int column = 0; column < COLUMNS.length; column++) {
+				columns[column] = header.indexOf(COLUMNS[column]);
+				if (columns[column] < 0)
+					throw new IPLLeagueAnalyserException("Missing column " + COLUMNS[column],
+							IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+				requiredFields = Math.max(requiredFields, columns[column] + 1);
+			}
+		}
+
+		@Override
+		public void accept(FactsheetRow row) throws IPLLeagueAnalyserException {
+			if (row.fieldCount() < requiredFields)
+				throw new IPLLeagueAnalyserException(
+						"Expected " + requiredFields + " columns but found " + row.fieldCount(),
+						IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			if (size == position.length)
+				grow(size + 1);
+			position[size] = row.intField(columns[0]);
+			playerName[size] = names.encode(row.buffer, row.start(columns[1]), row.length(columns[1]));
+			matches[size] = row.intField(columns[2]);
+			innings[size] = row.intField(columns[3]);
+			notOut[size] = row.intField(columns[4]);
+			runs[size] = row.intField(columns[5]);
+			highScore[size] = highScores.encode(row.buffer, row.start(columns[6]), row.length(columns[6]));
+			average[size] = row.doubleField(columns[7]);
+			ballsFaced[size] = row.intField(columns[8]);
+			strikeRate[size] = row.doubleField(columns[9]);
+			hundreds[size] = row.intField(columns[10]);
+			fiftys[size] = row.intField(columns[11]);
+			fours[size] = row.intField(columns[12]);
+			sixes[size] = row.intField(columns[13]);
+			size++;
+		}
+
+		/**
+		 * Appends the rows of the other builder after the rows of this one
+		 * 
+		 * @param other
+		 */
+		void append(Builder other) {
+			if (size + other.size > position.length)
+				grow(size + other.size);
+			int[] nameCodes = other.names.remapInto(names);
+			int[] highScoreCodes = other.highScores.remapInto(highScores);
+			System.arraycopy(other.position, 0, position, size, other.size);
+			System.arraycopy(other.playerName, 0, playerName, size, other.size);
+			System.arraycopy(other.matches, 0, matches, size, other.size);
+			System.arraycopy(other.innings, 0, innings, size, other.size);
+			System.arraycopy(other.notOut, 0, notOut, size, other.size);
+			System.arraycopy(other.runs, 0, runs, size, other.size);
+			System.arraycopy(other.highScore, 0, highScore, size, other.size);
+			System.arraycopy(other.average, 0, average, size, other.size);
+			System.arraycopy(other.ballsFaced, 0, ballsFaced, size, other.size);
+			System.arraycopy(other.strikeRate, 0, strikeRate, size, other.size);
+			System.arraycopy(other.hundreds, 0, hundreds, size, other.size);
+			System.arraycopy(other.fiftys, 0, fiftys, size, other.size);
+			System.arraycopy(other.fours, 0, fours, size, other.size);
+			System.arraycopy(other.sixes, 0, sixes, size, other.size);
+			for (int row = 0; row < other.size; row++) {
+				playerName[size + row] = nameCodes[other.playerName[row]];
+				highScore[size + row] = highScoreCodes[other.highScore[row]];
+			}
+			size += other.size;
+		}
+
+		private void grow(int minCapacity) {
+			int capacity = Math.max(position.length * 2, minCapacity);
+			sharedColumns = 0;
+			position = Arrays.copyOf(position, capacity);
+			playerName = Arrays.copyOf(playerName, capacity);
+			matches = Arrays.copyOf(matches, capacity);
+			innings = Arrays.copyOf(innings, capacity);
+			notOut = Arrays.copyOf(notOut, capacity);
+			runs = Arrays.copyOf(runs, capacity);
+			highScore = Arrays.copyOf(highScore, capacity);
+			average = Arrays.copyOf(average, capacity);
+			ballsFaced = Arrays.copyOf(ballsFaced, capacity);
+			strikeRate = Arrays.copyOf(strikeRate, capacity);
+			hundreds = Arrays.copyOf(hundreds, capacity);
+			fiftys = Arrays.copyOf(fiftys, capacity);
+			fours = Arrays.copyOf(fours, capacity);
+			sixes = Arrays.copyOf(sixes, capacity);
+		}
+
+		int size() {
+			return size;
+		}
+
+		RunsTable build() {
+			return new RunsTable(this);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.iplleagueanalysisproblem;
+
+/**
+ * Single value use cases that {@link IPLAnalysis#getAggregates(java.util.Set)}
+ * answers together, each the best row of its table by one field
+ */
+public enum ScalarAggregate {
+	/**
+	 * UC 2 : top batting strike rate
+	 */
+	TOP_STRIKING_RATE(BattingField.STRIKE_RATE, null, false),
+	/**
+	 * UC 3 : player scoring maximum number of fours
+	 */
+	MAX_FOURS(BattingField.FOURS, null, false),
+	/**
+	 * UC 3 : player scoring maximum number of sixes
+	 */
+	MAX_SIXES(BattingField.SIXES, null, false),
+	/**
+	 * UC 4 : player having max strike rate with 4s and 6s
+	 */
+	MAX_STRIKE_RATE_WITH_FOURS_SIXES(BattingField.BOUNDARY_STRIKE_RATE, null, false),
+	/**
+	 * UC 9 : top, that is lowest, economy
+	 */
+	TOP_ECONOMY(null, BowlingField.ECONOMY, true),
+	/**
+	 * UC 10 : player having best strike rate with 4 wickets and 5 wickets
+	 */
+	BEST_STRIKE_RATE_WITH_4W_5W(null, BowlingField.STRIKE_RATE_WITH_4W_5W, true);
+
+	final BattingField battingField;
+	final BowlingField bowlingField;
+	final RowComparator<RunsTable> battingComparator;
+	final RowComparator<WicketsTable> bowlingComparator;
+
+	ScalarAggregate(BattingField battingField, BowlingField bowlingField, boolean lowestBest) {
+		this.battingField = battingField;
+		this.bowlingField = bowlingField;
+		this.battingComparator = battingField == null ? null : best(battingField.column, lowestBest);
+		this.bowlingComparator = bowlingField == null ? null : best(bowlingField.column, lowestBest);
+	}
+
+	private static <T> RowComparator<T> best(DerivedMetric<T> column, boolean lowestBest) {
+		RowComparator<T> greatest = (table, left, right) -> Double.compare(column.compute(table, left),
+				column.compute(table, right));
+		return lowestBest ? greatest.reversed() : greatest;
+	}
+}
@@ -0,0 +1,64 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+/**
+ * One row at a time implementation of the column kernels, used where the
+ * vector kernels are unavailable and for the tails they leave over
+ */
+final class ScalarKernels implements ColumnKernels {
+	@Override
+	public int argMax(double[] values, int size) {
+		return argMax(values, 0, size);
+	}
+
+	static int argMax(double[] values, int from, int to) {
+		int best = from;
+		for (int row = from + 1; row < to; row++)
+			if (Double.compare(values[row], values[best]) > 0)
+				best = row;
+		return best;
+	}
+
+	@Override
+	public int argMax(int[] values, int size) {
+		int best = 0;
+		for (int row = 1; row < size; row++)
+			if (values[row] > values[best])
+				best = row;
+		return best;
+	}
+
+	@Override
+	public int argMin(double[] values, int size) {
+		return argMin(values, 0, size);
+	}
+
+	static int argMin(double[] values, int from, int to) {
+		int best = from;
+		for (int row = from + 1; row < to; row++)
+			if (Double.compare(values[row], values[best]) < 0)
+				best = row;
+		return best;
+	}
+
+	@Override
+	public int[] selectNonZero(int[] values, int size) {
+		int[] rows = new int[size];
+		int count = 0;
+		for (int row = 0; row < size; row++)
+			if (values[row] != 0)
+				rows[count++] = row;
+		return count == size ? rows : Arrays.copyOf(rows, count);
+	}
+
+	@Override
+	public void boundaryStrikeRate(int[] fours, int[] sixes, int[] ballsFaced, double[] out, int size) {
+		for (int row = 0; row < size; row++)
+			out[row] = boundaryStrikeRate(fours[row], sixes[row], ballsFaced[row]);
+	}
+
+	static double boundaryStrikeRate(int fours, int sixes, int ballsFaced) {
+		return ballsFaced == 0 ? 0 : (fours * 4 + sixes * 6) * 100.0 / ballsFaced;
+	}
+}
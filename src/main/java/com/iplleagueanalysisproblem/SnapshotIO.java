@@ -0,0 +1,69 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Column encoders shared by the table snapshot readers and writers. Arrays are
+ * written as a length followed by the raw big endian values so they can be
+ * bulk copied out of a mapped buffer.
+ */
+final class SnapshotIO {
+
+	private SnapshotIO() {
+	}
+
+	static void writeInts(DataOutputStream out, int[] values, int size) throws IOException {
+		out.writeInt(size);
+		for (int i = 0; i < size; i++)
+			out.writeInt(values[i]);
+	}
+
+	static void writeDoubles(DataOutputStream out, double[] values, int size) throws IOException {
+		out.writeInt(size);
+		for (int i = 0; i < size; i++)
+			out.writeDouble(values[i]);
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static void writeDictionary(DataOutputStream out, StringDictionary dictionary) throws IOException {
+		out.writeInt(dictionary.size());
+		for (int code = 0; code < dictionary.size(); code++)
+			writeString(out, dictionary.decode(code));
+	}
+
+	static int[] readInts(ByteBuffer in) {
+		int[] values = new int[in.getInt()];
+		in.asIntBuffer().get(values);
+		in.position(in.position() + values.length * Integer.BYTES);
+		return values;
+	}
+
+	static double[] readDoubles(ByteBuffer in) {
+		double[] values = new double[in.getInt()];
+		in.asDoubleBuffer().get(values);
+		in.position(in.position() + values.length * Double.BYTES);
+		return values;
+	}
+
+	static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static StringDictionary readDictionary(ByteBuffer in) {
+		StringDictionary dictionary = new StringDictionary();
+		int size = in.getInt();
+		for (int code = 0; code < size; code++)
+			dictionary.encode(readString(in));
+		return dictionary;
+	}
+}
@@ -0,0 +1,97 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * Identifies the version of a factsheet a table was loaded from. Size and
+ * modification time are compared first; the content checksum is only
+ * computed when the timestamp moved, so a touched but unchanged file still
+ * matches. The path is kept in memory only and is not part of a saved
+ * fingerprint.
+ */
+final class SourceFingerprint {
+	static final long UNKNOWN_CHECKSUM = -1;
+
+	final Path path;
+	final long size;
+	final long lastModified;
+	final long checksum;
+
+	SourceFingerprint(Path path, long size, long lastModified, long checksum) {
+		this.path = path;
+		this.size = size;
+		this.lastModified = lastModified;
+		this.checksum = checksum;
+	}
+
+	/**
+	 * Captures size and modification time of the file, leaving the checksum to
+	 * be computed when the fingerprint is saved
+	 * 
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	static SourceFingerprint of(Path path) throws IOException {
+		return new SourceFingerprint(path, Files.size(path), Files.getLastModifiedTime(path).toMillis(),
+				UNKNOWN_CHECKSUM);
+	}
+
+	/**
+	 * Returns this fingerprint with the checksum of the file filled in, provided
+	 * the file has not changed since the fingerprint was taken
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	SourceFingerprint withChecksum() throws IOException {
+		if (checksum != UNKNOWN_CHECKSUM || path == null || !sameSizeAndTime(of(path)))
+			return this;
+		return new SourceFingerprint(path, size, lastModified, checksum(path));
+	}
+
+	/**
+	 * Returns this fingerprint for the file at path, used when a saved
+	 * fingerprint is restored without its path
+	 * 
+	 * @param path
+	 * @return
+	 */
+	SourceFingerprint withPath(Path path) {
+		return new SourceFingerprint(path, size, lastModified, checksum);
+	}
+
+	/**
+	 * Returns true when the file still holds the content this fingerprint was
+	 * taken from
+	 * 
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	boolean matches(Path path) throws IOException {
+		SourceFingerprint current = of(path);
+		if (sameSizeAndTime(current))
+			return true;
+		return current.size == size && checksum != UNKNOWN_CHECKSUM && checksum(path) == checksum;
+	}
+
+	private boolean sameSizeAndTime(SourceFingerprint other) {
+		return other.size == size && other.lastModified == lastModified;
+	}
+
+	private static long checksum(Path path) throws IOException {
+		CRC32C crc = new CRC32C();
+		byte[] block = new byte[64 * 1024];
+		try (InputStream input = Files.newInputStream(path)) {
+			int read;
+			while ((read = input.read(block)) > 0)
+				crc.update(block, 0, read);
+		}
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,142 @@
+package com.iplleagueanalysisproblem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Dictionary encoding for repeated text columns such as player names. Each
+ * distinct value is stored once and rows keep its int code. Values can be
+ * looked up straight from UTF-8 bytes, so the parser only creates a String the
+ * first time a value is seen.
+ */
+final class StringDictionary {
+	private String[] values = new String[16];
+	private byte[][] utf8 = new byte[16][];
+	private int[] hashes = new int[16];
+	private int[] slots = newSlots(32);
+	private int size;
+
+	/**
+	 * Returns the code of the value, adding it to the dictionary when unseen
+	 * 
+	 * @param value
+	 * @return
+	 */
+	int encode(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return encode(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Returns the code of the UTF-8 encoded value, adding it to the dictionary
+	 * when unseen
+	 * 
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	int encode(byte[] bytes, int offset, int length) {
+		int hash = hash(bytes, offset, length);
+		int slot = find(hash, bytes, offset, length);
+		if (slots[slot] != -1)
+			return slots[slot];
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+			utf8 = Arrays.copyOf(utf8, size * 2);
+			hashes = Arrays.copyOf(hashes, size * 2);
+		}
+		values[size] = new String(bytes, offset, length, StandardCharsets.UTF_8);
+		utf8[size] = Arrays.copyOfRange(bytes, offset, offset + length);
+		hashes[size] = hash;
+		slots[slot] = size;
+		if (++size * 2 > slots.length)
+			rehash();
+		return size - 1;
+	}
+
+	/**
+	 * Returns the code of the value or -1 when it is not in the dictionary
+	 * 
+	 * @param value
+	 * @return
+	 */
+	int codeOf(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return slots[find(hash(bytes, 0, bytes.length), bytes, 0, bytes.length)];
+	}
+
+	/**
+	 * Adds every value of this dictionary to the target and returns, for each
+	 * code of this dictionary, the code of the same value in the target
+	 * 
+	 * @param target
+	 * @return
+	 */
+	int[] remapInto(StringDictionary target) {
+		int[] remapped = new int[size];
+		for (int code = 0; code < size; code++)
+			remapped[code] = target.encode(utf8[code], 0, utf8[code].length);
+		return remapped;
+	}
+
+	/**
+	 * Returns an independent dictionary holding the same codes, which can be
+	 * extended without affecting this one
+	 * 
+	 * @return
+	 */
+	StringDictionary copy() {
+		StringDictionary copy = new StringDictionary();
+		copy.values = values.clone();
+		copy.utf8 = utf8.clone();
+		copy.hashes = hashes.clone();
+		copy.slots = slots.clone();
+		copy.size = size;
+		return copy;
+	}
+
+	String decode(int code) {
+		return values[code];
+	}
+
+	int size() {
+		return size;
+	}
+
+	private int find(int hash, byte[] bytes, int offset, int length) {
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		int code;
+		while ((code = slots[slot]) != -1) {
+			if (hashes[code] == hash && Arrays.equals(utf8[code], 0, utf8[code].length, bytes, offset, offset + length))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		slots = newSlots(slots.length * 2);
+		int mask = slots.length - 1;
+		for (int code = 0; code < size; code++) {
+			int slot = hashes[code] & mask;
+			while (slots[slot] != -1)
+				slot = (slot + 1) & mask;
+			slots[slot] = code;
+		}
+	}
+
+	private static int[] newSlots(int capacity) {
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, -1);
+		return slots;
+	}
+
+	private static int hash(byte[] bytes, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++)
+			hash = 31 * hash + bytes[i];
+		return hash ^ (hash >>> 16);
+	}
+}
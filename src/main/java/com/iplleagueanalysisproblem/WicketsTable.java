@@ -0,0 +1,451 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Columnar storage of the wickets factsheet. Every CSVWickets field is held in
+ * its own primitive array indexed by row and player names are dictionary
+ * encoded. CSVWickets objects are only created when a row is handed out by the
+ * API. Derived metrics are computed into columns once, when the table is built,
+ * together with the row bitmaps of its {@link FilterIndex}. An upserted copy
+ * shares the columns the upsert left unchanged with the table it came from and
+ * patches its derived columns and row bitmaps for the changed rows only.
+ */
+final class WicketsTable {
+	final int size;
+	final StringDictionary names;
+	final int[] position;
+	final int[] playerName;
+	final int[] matches;
+	final int[] innings;
+	final double[] overs;
+	final int[] runs;
+	final int[] wickets;
+	final int[] bbi;
+	final double[] average;
+	final double[] economy;
+	final double[] strikeRate;
+	final int[] fourWickets;
+	final int[] fiveWickets;
+	final DerivedColumns<WicketsTable> derived;
+	final FilterIndex<WicketsTable> filters;
+	final double[] ballsBowled;
+	final double[] strikeRateWith4w5w;
+	private final AtomicReferenceArray<CSVWickets> materialized;
+	private volatile int[] rowOfName;
+
+	private WicketsTable(Builder builder) {
+		size = builder.size;
+		names = builder.names;
+		position = Arrays.copyOf(builder.position, size);
+		playerName = Arrays.copyOf(builder.playerName, size);
+		matches = Arrays.copyOf(builder.matches, size);
+		innings = Arrays.copyOf(builder.innings, size);
+		overs = Arrays.copyOf(builder.overs, size);
+		runs = Arrays.copyOf(builder.runs, size);
+		wickets = Arrays.copyOf(builder.wickets, size);
+		bbi = Arrays.copyOf(builder.bbi, size);
+		average = Arrays.copyOf(builder.average, size);
+		economy = Arrays.copyOf(builder.economy, size);
+		strikeRate = Arrays.copyOf(builder.strikeRate, size);
+		fourWickets = Arrays.copyOf(builder.fourWickets, size);
+		fiveWickets = Arrays.copyOf(builder.fiveWickets, size);
+		materialized = new AtomicReferenceArray<>(size);
+		derived = DerivedColumns.of(this);
+		ballsBowled = derived.column(DerivedColumns.BALLS_BOWLED);
+		strikeRateWith4w5w = derived.column(DerivedColumns.STRIKE_RATE_WITH_4W_5W);
+		filters = FilterIndex.of(this);
+	}
+
+	/**
+	 * Builds the upserted copy of the previous table. Columns the builder did not
+	 * change are shared with the previous table, derived columns and row bitmaps
+	 * are patched for the changed rows.
+	 * 
+	 * @param builder
+	 * @param previous
+	 * @param changedRows
+	 */
+	private WicketsTable(Builder builder, WicketsTable previous, int[] changedRows) {
+		size = builder.size;
+		names = builder.names;
+		position = trim(builder.position, size);
+		playerName = trim(builder.playerName, size);
+		matches = trim(builder.matches, size);
+		innings = trim(builder.innings, size);
+		overs = trim(builder.overs, size);
+		runs = trim(builder.runs, size);
+		wickets = trim(builder.wickets, size);
+		bbi = trim(builder.bbi, size);
+		average = trim(builder.average, size);
+		economy = trim(builder.economy, size);
+		strikeRate = trim(builder.strikeRate, size);
+		fourWickets = trim(builder.fourWickets, size);
+		fiveWickets = trim(builder.fiveWickets, size);
+		materialized = new AtomicReferenceArray<>(size);
+		derived = previous.derived.patched(this, size, changedRows);
+		ballsBowled = derived.column(DerivedColumns.BALLS_BOWLED);
+		strikeRateWith4w5w = derived.column(DerivedColumns.STRIKE_RATE_WITH_4W_5W);
+		filters = previous.filters.patched(this, size, changedRows);
+		int[] previousRows = previous.rowOfName;
+		if (previousRows != null && playerName == previous.playerName)
+			rowOfName = previousRows;
+	}
+
+	/**
+	 * Reads a table written by {@link #write(DataOutputStream)}
+	 * 
+	 * @param in
+	 */
+	WicketsTable(ByteBuffer in) {
+		size = in.getInt();
+		names = SnapshotIO.readDictionary(in);
+		position = SnapshotIO.readInts(in);
+		playerName = SnapshotIO.readInts(in);
+		matches = SnapshotIO.readInts(in);
+		innings = SnapshotIO.readInts(in);
+		overs = SnapshotIO.readDoubles(in);
+		runs = SnapshotIO.readInts(in);
+		wickets = SnapshotIO.readInts(in);
+		bbi = SnapshotIO.readInts(in);
+		average = SnapshotIO.readDoubles(in);
+		economy = SnapshotIO.readDoubles(in);
+		strikeRate = SnapshotIO.readDoubles(in);
+		fourWickets = SnapshotIO.readInts(in);
+		fiveWickets = SnapshotIO.readInts(in);
+		materialized = new AtomicReferenceArray<>(size);
+		derived = DerivedColumns.of(this);
+		ballsBowled = derived.column(DerivedColumns.BALLS_BOWLED);
+		strikeRateWith4w5w = derived.column(DerivedColumns.STRIKE_RATE_WITH_4W_5W);
+		filters = FilterIndex.of(this);
+	}
+
+	/**
+	 * Writes the dictionaries and columns of the table to a snapshot
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(size);
+		SnapshotIO.writeDictionary(out, names);
+		SnapshotIO.writeInts(out, position, size);
+		SnapshotIO.writeInts(out, playerName, size);
+		SnapshotIO.writeInts(out, matches, size);
+		SnapshotIO.writeInts(out, innings, size);
+		SnapshotIO.writeDoubles(out, overs, size);
+		SnapshotIO.writeInts(out, runs, size);
+		SnapshotIO.writeInts(out, wickets, size);
+		SnapshotIO.writeInts(out, bbi, size);
+		SnapshotIO.writeDoubles(out, average, size);
+		SnapshotIO.writeDoubles(out, economy, size);
+		SnapshotIO.writeDoubles(out, strikeRate, size);
+		SnapshotIO.writeInts(out, fourWickets, size);
+		SnapshotIO.writeInts(out, fiveWickets, size);
+	}
+
+	/**
+	 * Returns the row as a CSVWickets, creating it on first request. Concurrent
+	 * callers agree on a single instance per row.
+	 * 
+	 * @param row
+	 * @return
+	 */
+	CSVWickets row(int row) {
+		CSVWickets entry = materialized.get(row);
+		if (entry == null) {
+			entry = new CSVWickets();
+			entry.position = position[row];
+			entry.playerName = names.decode(playerName[row]);
+			entry.matches = matches[row];
+			entry.innings = innings[row];
+			entry.overs = overs[row];
+			entry.runs = runs[row];
+			entry.wickets = wickets[row];
+			entry.bbi = bbi[row];
+			entry.average = average[row];
+			entry.economy = economy[row];
+			entry.strikeRate = strikeRate[row];
+			entry.fourWickets = fourWickets[row];
+			entry.fiveWickets = fiveWickets[row];
+			if (!materialized.compareAndSet(row, null, entry))
+				entry = materialized.get(row);
+		}
+		return entry;
+	}
+
+	String playerName(int row) {
+		return names.decode(playerName[row]);
+	}
+
+	/**
+	 * Returns the first row of the player with the name code, or -1 when no row
+	 * has it
+	 * 
+	 * @param name
+	 * @return
+	 */
+	int rowOfName(int name) {
+		int[] rows = rowOfName;
+		if (rows == null) {
+			rows = new int[names.size()];
+			Arrays.fill(rows, -1);
+			for (int row = size - 1; row >= 0; row--)
+				rows[playerName[row]] = row;
+			rowOfName = rows;
+		}
+		return name >= 0 && name < rows.length ? rows[name] : -1;
+	}
+
+	/**
+	 * Returns a copy of the table with the entries applied. An entry for a player
+	 * already in the table overwrites that player's row, any other entry is
+	 * appended. The row written for each entry is stored in changedRows.
+	 * 
+	 * @param entries
+	 * @param changedRows
+	 * @return
+	 */
+	WicketsTable upsert(List<CSVWickets> entries, int[] changedRows) {
+		Builder builder = new Builder(this);
+		Map<String, Integer> appended = new HashMap<>();
+		for (int index = 0; index < entries.size(); index++) {
+			CSVWickets entry = entries.get(index);
+			int row = rowOfName(names.codeOf(entry.playerName));
+			if (row < 0)
+				row = appended.getOrDefault(entry.playerName, -1);
+			if (row < 0) {
+				row = builder.size();
+				builder.add(entry);
+				appended.put(entry.playerName, row);
+			} else {
+				builder.set(row, entry);
+			}
+			changedRows[index] = row;
+		}
+		return new WicketsTable(builder, this, changedRows);
+	}
+
+	private static int[] trim(int[] column, int size) {
+		return column.length == size ? column : Arrays.copyOf(column, size);
+	}
+
+	private static double[] trim(double[] column, int size) {
+		return column.length == size ? column : Arrays.copyOf(column, size);
+	}
+
+	/**
+	 * Header columns of the factsheet, in the order the builder reads them
+	 */
+	static final String[] COLUMNS = { "POS", "PLAYER", "Mat", "Inns", "Ov", "Runs", "Wkts", "BBI",
+			"Avg", "Econ", "SR", "4w", "5w" };
+
+	static final class Builder implements FactsheetSink {
+		private final WicketsTable base;
+		private StringDictionary names;
+		/**
+		 * Columns still shared with the base table, one bit per index into COLUMNS
+		 */
+		private int sharedColumns;
+		private final int[] columns = new int[COLUMNS.length];
+		private int requiredFields;
+		private int size;
+		private int[] position = new int[64];
+		private int[] playerName = new int[64];
+		private int[] matches = new int[64];
+		private int[] innings = new int[64];
+		private double[] overs = new double[64];
+		private int[] runs = new int[64];
+		private int[] wickets = new int[64];
+		private int[] bbi = new int[64];
+		private double[] average = new double[64];
+		private double[] economy = new double[64];
+		private double[] strikeRate = new double[64];
+		private int[] fourWickets = new int[64];
+		private int[] fiveWickets = new int[64];
+
+		Builder() {
+			base = null;
+			names = new StringDictionary();
+		}
+
+		/**
+		 * Starts from the rows of the table, sharing its columns and dictionary.
+		 * Each one is copied on the first write that changes it, so the table is
+		 * never modified.
+		 * 
+		 * @param table
+		 */
+		Builder(WicketsTable table) {
+			base = table;
+			names = table.names;
+			sharedColumns = (1 << COLUMNS.length) - 1;
+			size = table.size;
+			position = table.position;
+			playerName = table.playerName;
+			matches = table.matches;
+			innings = table.innings;
+			overs = table.overs;
+			runs = table.runs;
+			wickets = table.wickets;
+			bbi = table.bbi;
+			average = table.average;
+			economy = table.economy;
+			strikeRate = table.strikeRate;
+			fourWickets = table.fourWickets;
+			fiveWickets = table.fiveWickets;
+		}
+
+		void add(CSVWickets entry) {
+			if (size == position.length)
+				grow(size + 1);
+			set(size++, entry);
+		}
+
+		/**
+		 * Overwrites the row with the values of the entry
+		 * 
+		 * @param row
+		 * @param entry
+		 */
+		void set(int row, CSVWickets entry) {
+			if (base != null && names == base.names && names.codeOf(entry.playerName) == -1)
+				names = names.copy();
+			position = write(position, 0, row, entry.position);
+			playerName = write(playerName, 1, row, names.encode(entry.playerName));
+			matches = write(matches, 2, row, entry.matches);
+			innings = write(innings, 3, row, entry.innings);
+			overs = write(overs, 4, row, entry.overs);
+			runs = write(runs, 5, row, entry.runs);
+			wickets = write(wickets, 6, row, entry.wickets);
+			bbi = write(bbi, 7, row, entry.bbi);
+			average = write(average, 8, row, entry.average);
+			economy = write(economy, 9, row, entry.economy);
+			strikeRate = write(strikeRate, 10, row, entry.strikeRate);
+			fourWickets = write(fourWickets, 11, row, entry.fourWickets);
+			fiveWickets = write(fiveWickets, 12, row, entry.fiveWickets);
+		}
+
+		/**
+		 * Writes the value into the column, copying the column first when it is
+		 * still shared with the base table and the value changes it
+		 */
+		private int[] write(int[] column, int index, int row, int value) {
+			if (column[row] == value)
+				return column;
+			if ((sharedColumns & 1 << index) != 0) {
+				column = column.clone();
+				sharedColumns &= ~(1 << index);
+			}
+			column[row] = value;
+			return column;
+		}
+
+		private double[] write(double[] column, int index, int row, double value) {
+			if (Double.compare(column[row], value) == 0)
+				return column;
+			if ((sharedColumns & 1 << index) != 0) {
+				column = column.clone();
+				sharedColumns &= ~(1 << index);
+			}
+			column[row] = value;
+			return column;
+		}
+
+		@Override
+		public void header(FactsheetRow header) throws IPLLeagueAnalyserException {
+			for (int column = 0; column < COLUMNS.length; column++) {
+				columns[column] = header.indexOf(COLUMNS[column]);
+				if (columns[column] < 0)
+					throw new IPLLeagueAnalyserException("Missing column " + COLUMNS[column],
+							IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+				requiredFields = Math.max(requiredFields, columns[column] + 1);
+			}
+		}
+
+		@Override
+		public void accept(FactsheetRow row) throws IPLLeagueAnalyserException {
+			if (row.fieldCount() < requiredFields)
+				throw new IPLLeagueAnalyserException(
+						"Expected " + requiredFields + " columns but found " + row.fieldCount(),
+						IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE);
+			if (size == position.length)
+				grow(size + 1);
+			position[size] = row.intField(columns[0]);
+			playerName[size] = names.encode(row.buffer, row.start(columns[1]), row.length(columns[1]));
+			matches[size] = row.intField(columns[2]);
+			innings[size] = row.intField(columns[3]);
+			overs[size] = row.doubleField(columns[4]);
+			runs[size] = row.intField(columns[5]);
+			wickets[size] = row.intField(columns[6]);
+			bbi[size] = row.bestBowlingField(columns[7]);
+			average[size] = row.doubleField(columns[8]);
+			economy[size] = row.doubleField(columns[9]);
+			strikeRate[size] = row.doubleField(columns[10]);
+			fourWickets[size] = row.intField(columns[11]);
+			fiveWickets[size] = row.intField(columns[12]);
+			size++;
+		}
+
+		/**
+		 * Appends the rows of the other builder after the rows of this one
+		 * 
+		 * @param other
+		 */
+		void append(Builder other) {
+			if (size + other.size > position.length)
+				grow(size + other.size);
+			int[] nameCodes = other.names.remapInto(names);
+			System.arraycopy(other.position, 0, position, size, other.size);
+			System.arraycopy(other.playerName, 0, playerName, size, other.size);
+			System.arraycopy(other.matches, 0, matches, size, other.size);
+			System.arraycopy(other.innings, 0, innings, size, other.size);
+			System.arraycopy(other.overs, 0, overs, size, other.size);
+			System.arraycopy(other.runs, 0, runs, size, other.size);
+			System.arraycopy(other.wickets, 0, wickets, size, other.size);
+			System.arraycopy(other.bbi, 0, bbi, size, other.size);
+			System.arraycopy(other.average, 0, average, size, other.size);
+			System.arraycopy(other.economy, 0, economy, size, other.size);
+			System.arraycopy(other.strikeRate, 0, strikeRate, size, other.size);
+			System.arraycopy(other.fourWickets, 0, fourWickets, size, other.size);
+			System.arraycopy(other.fiveWickets, 0, fiveWickets, size, other.size);
+			for (int row = 0; row < other.size; row++) {
+				playerName[size + row] = nameCodes[other.playerName[row]];
+			}
+			size += other.size;
+		}
+
+		private void grow(int minCapacity) {
+			int capacity = Math.max(position.length * 2, minCapacity);
+			sharedColumns = 0;
+			position = Arrays.copyOf(position, capacity);
+			playerName = Arrays.copyOf(playerName, capacity);
+			matches = Arrays.copyOf(matches, capacity);
+			innings = Arrays.copyOf(innings, capacity);
+			overs = Arrays.copyOf(overs, capacity);
+			runs = Arrays.copyOf(runs, capacity);
+			wickets = Arrays.copyOf(wickets, capacity);
+			bbi = Arrays.copyOf(bbi, capacity);
+			average = Arrays.copyOf(average, capacity);
+			economy = Arrays.copyOf(economy, capacity);
+			strikeRate = Arrays.copyOf(strikeRate, capacity);
+			fourWickets = Arrays.copyOf(fourWickets, capacity);
+			fiveWickets = Arrays.copyOf(fiveWickets, capacity);
+		}
+
+		int size() {
+			return size;
+		}
+
+		WicketsTable build() {
+			return new WicketsTable(this);
+		}
+	}
+}
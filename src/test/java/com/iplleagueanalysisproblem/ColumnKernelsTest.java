@@ -0,0 +1,116 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnKernelsTest {
+	private static RunsTable runs;
+	private static WicketsTable wickets;
+
+	@BeforeAll
+	static void setUp() throws IOException, IPLLeagueAnalyserException {
+		runs = Factsheets.runs();
+		wickets = Factsheets.wickets();
+	}
+
+	/**
+	 * checking the column kernels in use match the scalar scans
+	 */
+	@Test
+	void givenLoadedTables_whenScannedByKernels_shouldMatch_scalarScans() {
+		ColumnKernels kernels = ColumnKernels.get();
+		ColumnKernels scalar = new ScalarKernels();
+		assertEquals(scalar.argMax(runs.strikeRate, runs.size), kernels.argMax(runs.strikeRate, runs.size));
+		assertEquals(scalar.argMax(runs.sixes, runs.size), kernels.argMax(runs.sixes, runs.size));
+		assertEquals(scalar.argMin(wickets.economy, wickets.size), kernels.argMin(wickets.economy, wickets.size));
+		assertArrayEquals(scalar.selectNonZero(wickets.wickets, wickets.size),
+				kernels.selectNonZero(wickets.wickets, wickets.size));
+		double[] boundaryStrikeRate = new double[runs.size];
+		kernels.boundaryStrikeRate(runs.fours, runs.sixes, runs.ballsFaced, boundaryStrikeRate, runs.size);
+		assertArrayEquals(runs.boundaryStrikeRate, boundaryStrikeRate);
+	}
+
+	/**
+	 * Returns size values drawn from a few numbers, so that ties fall in
+	 * different lanes, with 0.0 and -0.0 mixed and NaN in some arrays
+	 */
+	private static double[] doubles(Random random, int size, boolean withNaN) {
+		double[] pool = { -0.0, 0.0, 1.5, -2.0, 7.25, 7.25 };
+		double[] values = new double[size];
+		for (int row = 0; row < size; row++)
+			values[row] = pool[random.nextInt(pool.length)];
+		if (withNaN)
+			values[random.nextInt(size)] = Double.NaN;
+		return values;
+	}
+
+	private static int referenceArgMax(double[] values, int size) {
+		int best = 0;
+		for (int row = 1; row < size; row++)
+			if (Double.compare(values[row], values[best]) > 0)
+				best = row;
+		return best;
+	}
+
+	private static int referenceArgMin(double[] values, int size) {
+		int best = 0;
+		for (int row = 1; row < size; row++)
+			if (Double.compare(values[row], values[best]) < 0)
+				best = row;
+		return best;
+	}
+
+	/**
+	 * checking the kernels match a scan with Double.compare on seeded random
+	 * columns, for sizes below one vector and with loop tails, and on arrays
+	 * longer than size
+	 */
+	@Test
+	void givenRandomColumns_whenScannedByKernels_shouldMatch_scanWithDoubleCompare() {
+		ColumnKernels kernels = ColumnKernels.get();
+		ColumnKernels scalar = new ScalarKernels();
+		Random random = new Random(22);
+		int[] sizes = IntStream.concat(IntStream.rangeClosed(1, 70), IntStream.of(255, 256, 257, 1000, 1027)).toArray();
+		for (int size : sizes) {
+			for (int round = 0; round < 8; round++) {
+				double[] values = doubles(random, size + random.nextInt(3), round % 4 == 3);
+				String context = "size " + size + " round " + round;
+				int maxRow = referenceArgMax(values, size);
+				assertEquals(maxRow, scalar.argMax(values, size), context);
+				assertEquals(maxRow, kernels.argMax(values, size), context);
+				int minRow = referenceArgMin(values, size);
+				assertEquals(minRow, scalar.argMin(values, size), context);
+				assertEquals(minRow, kernels.argMin(values, size), context);
+
+				int[] ints = new int[values.length];
+				for (int row = 0; row < ints.length; row++)
+					ints[row] = random.nextInt(4) == 0 ? 0 : random.nextInt(5) - 2;
+				int intMaxRow = 0;
+				for (int row = 1; row < size; row++)
+					if (ints[row] > ints[intMaxRow])
+						intMaxRow = row;
+				assertEquals(intMaxRow, scalar.argMax(ints, size), context);
+				assertEquals(intMaxRow, kernels.argMax(ints, size), context);
+				int[] nonZero = IntStream.range(0, size).filter(row -> ints[row] != 0).toArray();
+				assertArrayEquals(nonZero, scalar.selectNonZero(ints, size), context);
+				assertArrayEquals(nonZero, kernels.selectNonZero(ints, size), context);
+
+				int[] fours = random.ints(values.length, 0, 30).toArray();
+				int[] sixes = random.ints(values.length, 0, 20).toArray();
+				int[] balls = random.ints(values.length, 0, 3).map(zero -> zero == 0 ? 0 : random.nextInt(400))
+						.toArray();
+				double[] expected = new double[values.length];
+				double[] actual = new double[values.length];
+				scalar.boundaryStrikeRate(fours, sixes, balls, expected, size);
+				kernels.boundaryStrikeRate(fours, sixes, balls, actual, size);
+				assertArrayEquals(expected, actual, context);
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DeliveryAggregatorTest {
+	private static final String HEADER = "match_id,season,start_date,venue,innings,ball,batting_team,bowling_team,"
+			+ "striker,non_striker,bowler,runs_off_bat,extras,wides,noballs,byes,legbyes,penalty,wicket_type,"
+			+ "player_dismissed,other_wicket_type,other_player_dismissed";
+	private static final String DELIVERIES = HEADER + "\n"
+			+ "1,2019,2019-03-23,Chennai,1,0.1,X,Y,Anil,Chetan,Bala,4,0,,,,,,,,,\n"
+			+ "1,2019,2019-03-23,Chennai,1,0.2,X,Y,Anil,Chetan,Bala,6,0,,,,,,,,,\n"
+			+ "1,2019,2019-03-23,Chennai,1,0.3,X,Y,Anil,Chetan,Bala,0,1,1,,,,,,,,\n"
+			+ "1,2019,2019-03-23,Chennai,1,0.3,X,Y,Anil,Chetan,Bala,1,0,,,,,,,,,\n"
+			+ "1,2019,2019-03-23,Chennai,1,0.4,X,Y,Chetan,Anil,Bala,0,0,,,,,,bowled,Chetan,,\n"
+			+ "1,2019,2019-03-23,Chennai,2,0.1,Y,X,Bala,Dev,Anil,2,1,,1,,,,,,,\n"
+			+ "1,2019,2019-03-23,Chennai,2,0.1,Y,X,Bala,Dev,Anil,0,0,,,,,,run out,Dev,,\n"
+			+ "2,2019,2019-03-24,Mumbai,1,0.1,X,Y,Anil,Chetan,Bala,0,0,,,,,,caught,Anil,,\n"
+			+ "2,2019,2019-03-24,Mumbai,3,0.1,Y,X,Bala,Dev,Anil,6,0,,,,,,,,,\n";
+	private static ExecutorService pool;
+
+	@BeforeAll
+	static void setUp() {
+		pool = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		pool.shutdown();
+	}
+
+	private static DeliveryAggregator aggregate(String csv) throws Exception {
+		DeliveryAggregator aggregator = new DeliveryAggregator(pool, 2);
+		try {
+			new FactsheetParser(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).parse(aggregator);
+			aggregator.finish();
+		} finally {
+			aggregator.cancel();
+		}
+		return aggregator;
+	}
+
+	private static CSVRuns batting(RunsTable table, String playerName) {
+		int row = table.rowOfName(table.names.codeOf(playerName));
+		return row == -1 ? null : table.row(row);
+	}
+
+	private static CSVWickets bowling(WicketsTable table, String playerName) {
+		int row = table.rowOfName(table.names.codeOf(playerName));
+		return row == -1 ? null : table.row(row);
+	}
+
+	/**
+	 * checking deliveries are summed into the batting columns of the factsheet
+	 */
+	@Test
+	void givenDeliveries_shouldReturn_battingTotals() throws Exception {
+		DeliveryAggregator aggregator = aggregate(DELIVERIES);
+		assertEquals(9, aggregator.deliveries());
+		RunsTable runs = aggregator.runsTable();
+		assertEquals(4, runs.size);
+		CSVRuns anil = batting(runs, "Anil");
+		assertEquals(1, anil.position);
+		assertEquals(2, anil.matches);
+		assertEquals(2, anil.innings);
+		assertEquals(1, anil.notOut);
+		assertEquals(11, anil.runs);
+		assertEquals("11*", anil.highScore);
+		assertEquals(4, anil.ballsFaced);
+		assertEquals(11.0, anil.average);
+		assertEquals(275.0, anil.strikeRate);
+		assertEquals(1, anil.fours);
+		assertEquals(1, anil.sixes);
+		CSVRuns bala = batting(runs, "Bala");
+		assertEquals("2*", bala.highScore);
+		assertEquals(1, bala.notOut);
+		assertEquals(0, batting(runs, "Chetan").runs);
+	}
+
+	/**
+	 * checking wides and no balls count against the bowler but not as legal
+	 * balls, and run outs are not the bowler's wickets
+	 */
+	@Test
+	void givenDeliveries_shouldReturn_bowlingTotals() throws Exception {
+		WicketsTable wickets = aggregate(DELIVERIES).wicketsTable();
+		assertEquals(2, wickets.size);
+		CSVWickets bala = bowling(wickets, "Bala");
+		assertEquals(1, bala.position);
+		assertEquals(0.5, bala.overs);
+		assertEquals(12, bala.runs);
+		assertEquals(2, bala.wickets);
+		assertEquals(14.4, bala.economy);
+		CSVWickets anil = bowling(wickets, "Anil");
+		assertEquals(1, anil.innings);
+		assertEquals(0, anil.wickets);
+		assertNull(bowling(wickets, "Dev"));
+	}
+
+	/**
+	 * checking a match whose deliveries are not consecutive fails the load
+	 */
+	@Test
+	void givenMatchSplitAcrossFile_shouldThrow_unableToParse() {
+		IPLLeagueAnalyserException exception = assertThrows(IPLLeagueAnalyserException.class,
+				() -> aggregate(HEADER + "\n1,2019,2019-03-23,Chennai,1,0.1,X,Y,Anil,Chetan,Bala,4,0,,,,,,,,,\n"
+						+ "2,2019,2019-03-24,Mumbai,1,0.1,X,Y,Anil,Chetan,Bala,0,0,,,,,,,,,\n"
+						+ "1,2019,2019-03-23,Chennai,1,0.2,X,Y,Anil,Chetan,Bala,6,0,,,,,,,,,\n"));
+		assertEquals(IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE, exception.type);
+	}
+}
@@ -0,0 +1,54 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class FactsheetParserTest {
+	private static final String RUNS_HEADER = "POS,PLAYER,Mat,Inns,NO,Runs,HS,Avg,BF,SR,100,50,4s,6s";
+
+	private static RunsTable parseRuns(String csv) throws IOException, IPLLeagueAnalyserException {
+		RunsTable.Builder builder = new RunsTable.Builder();
+		new FactsheetParser(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).parse(builder);
+		return builder.build();
+	}
+
+	/**
+	 * checking not out high scores and undefined averages are parsed
+	 */
+	@Test
+	void givenNotOutHighScoreAndDashAverage_shouldParse_row() throws Exception {
+		RunsTable table = parseRuns(RUNS_HEADER + "\n1,David Warner,12,12,2,692,100*,69.2,481,143.86,1,8,57,21\n"
+				+ "2,Ishant Sharma,13,1,1,10,10*,-,6,166.66,0,0,0,1\n");
+		assertEquals(2, table.size);
+		assertEquals("100*", table.row(0).highScore);
+		assertEquals(143.86, table.strikeRate[0]);
+		assertEquals(0.0, table.average[1]);
+	}
+
+	/**
+	 * checking windows line endings and a missing final newline
+	 */
+	@Test
+	void givenCrlfWithoutTrailingNewline_shouldParse_allRows() throws Exception {
+		RunsTable table = parseRuns(RUNS_HEADER + "\r\n1,KL Rahul,14,14,3,593,100*,53.9,438,135.38,1,6,49,25\r\n"
+				+ "2,Quinton de Kock,16,16,1,529,81,35.26,398,132.91,0,4,45,25");
+		assertEquals(2, table.size);
+		assertEquals("Quinton de Kock", table.playerName(1));
+		assertEquals(25, table.sixes[1]);
+	}
+
+	/**
+	 * checking a non numeric value fails with unable to parse
+	 */
+	@Test
+	void givenInvalidNumber_shouldThrow_unableToParse() {
+		IPLLeagueAnalyserException exception = assertThrows(IPLLeagueAnalyserException.class,
+				() -> parseRuns(RUNS_HEADER + "\n1,KL Rahul,14,x,3,593,100*,53.9,438,135.38,1,6,49,25\n"));
+		assertEquals(IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE, exception.type);
+	}
+}
@@ -0,0 +1,38 @@
+package com.iplleagueanalysisproblem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The 2019 factsheets the tests run against, parsed straight into tables
+ */
+final class Factsheets {
+	static final String RUNS_FILE_PATH = "C:\\Users\\abc\\eclipse-workspace\\com.iplleagueanalysisproblem\\WP DP Data_01 IPL2019FactsheetMostRuns.csv";
+	static final String WICKET_FILE_PATH = "C:\\Users\\abc\\eclipse-workspace\\com.iplleagueanalysisproblem\\WP DP Data_02 IPL2019FactsheetMostWkts.csv";
+
+	private Factsheets() {
+	}
+
+	static RunsTable runs() throws IOException, IPLLeagueAnalyserException {
+		return runs(Paths.get(RUNS_FILE_PATH));
+	}
+
+	static RunsTable runs(Path path) throws IOException, IPLLeagueAnalyserException {
+		RunsTable.Builder builder = new RunsTable.Builder();
+		try (InputStream input = Files.newInputStream(path)) {
+			new FactsheetParser(input).parse(builder);
+		}
+		return builder.build();
+	}
+
+	static WicketsTable wickets() throws IOException, IPLLeagueAnalyserException {
+		WicketsTable.Builder builder = new WicketsTable.Builder();
+		try (InputStream input = Files.newInputStream(Paths.get(WICKET_FILE_PATH))) {
+			new FactsheetParser(input).parse(builder);
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,69 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FilterIndexTest {
+	private static WicketsTable wickets;
+
+	@BeforeAll
+	static void setUp() throws IOException, IPLLeagueAnalyserException {
+		wickets = Factsheets.wickets();
+	}
+
+	/**
+	 * checking the metric filter bitmaps select the rows a scan selects
+	 */
+	@Test
+	void givenMetricFilters_shouldSelect_rowsOfScan() {
+		for (BowlingMetric metric : BowlingMetric.values())
+			assertArrayEquals(RankingEngine.select(wickets, wickets.size, metric.filter),
+					wickets.filters.select(metric.filter));
+	}
+
+	/**
+	 * checking range indexes combined as bitmaps select the rows a scan selects
+	 */
+	@Test
+	void givenRangeConditions_whenCombined_shouldSelect_rowsOfScan() {
+		RowBitmap atLeastTenInnings = wickets.filters.where(BowlingField.INNINGS.column, Comparison.AT_LEAST, 10);
+		RowBitmap fewerThanFourteenMatches = wickets.filters.where(BowlingField.MATCHES.column, Comparison.LESS_THAN,
+				14);
+		assertArrayEquals(
+				RankingEngine.select(wickets, wickets.size,
+						(table, row) -> table.innings[row] >= 10 && table.matches[row] >= 14),
+				atLeastTenInnings.andNot(fewerThanFourteenMatches).toArray());
+		assertArrayEquals(
+				RankingEngine.select(wickets, wickets.size,
+						(table, row) -> table.innings[row] >= 10 || table.matches[row] < 14),
+				atLeastTenInnings.or(fewerThanFourteenMatches).toArray());
+		assertEquals(wickets.size, atLeastTenInnings.cardinality() + atLeastTenInnings.not(wickets.size).cardinality());
+	}
+
+	/**
+	 * checking every comparison on every field selects the rows a scan selects
+	 */
+	@Test
+	void givenEveryComparison_shouldSelect_rowsOfScan() {
+		for (BowlingField field : BowlingField.values())
+			for (int row = 0; row < wickets.size; row += 7) {
+				double bound = field.column.compute(wickets, row);
+				assertArrayEquals(
+						RankingEngine.select(wickets, wickets.size,
+								(table, other) -> field.column.compute(table, other) < bound),
+						wickets.filters.where(field.column, Comparison.LESS_THAN, bound).toArray());
+				assertArrayEquals(
+						RankingEngine.select(wickets, wickets.size,
+								(table, other) -> field.column.compute(table, other) == bound),
+						wickets.filters.where(field.column, Comparison.EQUAL_TO, bound).toArray());
+				assertArrayEquals(
+						RankingEngine.select(wickets, wickets.size,
+								(table, other) -> field.column.compute(table, other) >= bound),
+						wickets.filters.where(field.column, Comparison.AT_LEAST, bound).toArray());
+			}
+	}
+}
@@ -2,7 +2,27 @@ package com.iplleagueanalysisproblem;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -50,6 +70,77 @@ class IPLAnalysisTest {
 		assertEquals(99, numOfRecords);
 	}
 
+	/**
+	 * checking parallel chunked load returns the same number of records
+	 */
+	@Test
+	void givenFilePaths_whenLoadedInParallel_shouldReturn_sameNumberOfRecords() throws IPLLeagueAnalyserException {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			IPLAnalysis parallelAnalysis = new IPLAnalysis();
+			assertEquals(101, parallelAnalysis.loadRunsCSV(RUNS_FILE_PATH, pool));
+			assertEquals(99, parallelAnalysis.loadWicketsCSV(WICKET_FILE_PATH, pool));
+			assertEquals(83.2, parallelAnalysis.getTopBattingAvg().get(0).average);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * checking tables are restored from a snapshot once it has been written
+	 */
+	@Test
+	void givenFilePaths_whenSnapshotWritten_shouldLoad_sameTablesFromSnapshot()
+			throws IPLLeagueAnalyserException, IOException {
+		Path snapshotPath = Files.createTempDirectory("ipl").resolve("factsheets.snapshot");
+		IPLAnalysis csvAnalysis = new IPLAnalysis();
+		assertFalse(csvAnalysis.loadWithSnapshot(RUNS_FILE_PATH, WICKET_FILE_PATH, snapshotPath.toString()));
+		csvAnalysis.getTopBattingAvg();
+		csvAnalysis.saveSnapshot(snapshotPath.toString());
+		IPLAnalysis snapshotAnalysis = new IPLAnalysis();
+		assertTrue(snapshotAnalysis.loadWithSnapshot(RUNS_FILE_PATH, WICKET_FILE_PATH, snapshotPath.toString()));
+		assertEquals(csvAnalysis.getSortedJsonMaxRunsAndAverage(), snapshotAnalysis.getSortedJsonMaxRunsAndAverage());
+		assertEquals(csvAnalysis.getTopBattingAvg().toString(), snapshotAnalysis.getTopBattingAvg().toString());
+		assertEquals("Alzarri Joseph", snapshotAnalysis.getPlayerWithBestStrikeRateWith4w5w());
+		Path runsPath = Path.of(RUNS_FILE_PATH);
+		assertFalse(snapshotAnalysis.reloadRuns(runsPath.getParent().resolve(".").resolve(runsPath.getFileName())
+				.toString()));
+		assertFalse(snapshotAnalysis.reloadWickets(Path.of(WICKET_FILE_PATH).toAbsolutePath().toString()));
+	}
+
+	/**
+	 * checking concurrent readers get consistent rankings while files reload
+	 */
+	@Test
+	void givenConcurrentReadersAndReloads_shouldReturn_consistentRankings() throws Exception {
+		IPLAnalysis sharedAnalysis = new IPLAnalysis();
+		sharedAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+		sharedAnalysis.loadWicketsCSV(WICKET_FILE_PATH);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> readers = new ArrayList<>();
+			for (int reader = 0; reader < 8; reader++)
+				readers.add(pool.submit(() -> {
+					for (int query = 0; query < 200; query++) {
+						if (sharedAnalysis.getTopBattingAvg().get(0).average != 83.2
+								|| !sharedAnalysis.getPlayersWithMaxHundredsBestBattingAverage().get(0).playerName
+										.equals("David Warner")
+								|| !sharedAnalysis.getBestAllRounder().get(0).equals("Andre Russell"))
+							return false;
+					}
+					return true;
+				}));
+			for (int reload = 0; reload < 20; reload++) {
+				sharedAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+				sharedAnalysis.loadWicketsCSV(WICKET_FILE_PATH);
+			}
+			for (Future<Boolean> reader : readers)
+				assertTrue(reader.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
 	/**
 	 * UC 1 : checking top batting average
 	 */
@@ -115,6 +206,425 @@ class IPLAnalysisTest {
 		assertEquals("David Warner", actualSortedPlayers[0].playerName);
 	}
 
+	/**
+	 * checking rankings after an upsert match a full reload of the same rows
+	 */
+	@Test
+	void givenUpsertedRuns_shouldReturn_rankingsOfFullReload() throws IPLLeagueAnalyserException, IOException {
+		IPLAnalysis liveAnalysis = new IPLAnalysis();
+		liveAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+		liveAnalysis.getTopBattingAvg();
+		CSVRuns[] players = new Gson().fromJson(liveAnalysis.getSortedJsonMaxRunsAndAverage(), CSVRuns[].class);
+		CSVRuns updated = players[20];
+		updated.runs += 150;
+		updated.average += 10;
+		CSVRuns added = new CSVRuns();
+		added.position = players.length + 1;
+		added.playerName = "Debutant";
+		added.highScore = "64*";
+		added.runs = 64;
+		added.average = 64;
+		assertEquals(players.length + 1, liveAnalysis.upsertRuns(List.of(updated, added)));
+
+		List<CSVRuns> rows = new ArrayList<>(List.of(players));
+		rows.add(added);
+		rows.sort((left, right) -> left.position - right.position);
+		Path runsPath = Files.createTempFile("ipl-runs", ".csv");
+		List<String> lines = new ArrayList<>();
+		lines.add("POS,PLAYER,Mat,Inns,NO,Runs,HS,Avg,BF,SR,100,50,4s,6s");
+		for (CSVRuns row : rows)
+			lines.add(row.position + "," + row.playerName + "," + row.matches + "," + row.innings + "," + row.notOut + ","
+					+ row.runs + "," + row.highScore + "," + row.average + "," + row.ballsFaced + "," + row.strikeRate
+					+ "," + row.hundreds + "," + row.fiftys + "," + row.fours + "," + row.sixes);
+		Files.write(runsPath, lines);
+		IPLAnalysis reloadedAnalysis = new IPLAnalysis();
+		reloadedAnalysis.loadRunsCSV(runsPath.toString());
+		Files.delete(runsPath);
+
+		assertEquals(reloadedAnalysis.getSortedJsonMaxRunsAndAverage(), liveAnalysis.getSortedJsonMaxRunsAndAverage());
+		assertEquals(reloadedAnalysis.getTopBattingAvg().toString(), liveAnalysis.getTopBattingAvg().toString());
+		assertEquals(reloadedAnalysis.getSortedJsonMaxAvgAndStrikeRate(),
+				liveAnalysis.getSortedJsonMaxAvgAndStrikeRate());
+	}
+
+	/**
+	 * checking tolerant loads quarantine malformed rows and keep the good ones
+	 */
+	@Test
+	void givenMalformedRows_whenTolerantLoad_shouldQuarantine_onlyBadRows()
+			throws IPLLeagueAnalyserException, IOException {
+		Path wicketsPath = Files.createTempFile("ipl-wickets", ".csv");
+		Files.write(wicketsPath, List.of("POS,PLAYER,Mat,Inns,Ov,Runs,Wkts,BBI,Avg,Econ,SR,4w,5w",
+				"1,Imran Tahir,17,17,64.2,431,26,4/12,16.57,6.69,14.84,2,0",
+				"2,Kagiso Rabada,12,12,47,368,-,4/21,14.72,7.82,11.28,2,0",
+				"3,Deepak Chahar,17,17,64.3,482,22,3/20,21.9,7.47,17.59",
+				"4,Shreyas Gopal,14,14,48,347,20,3/12,17.35,7.22,14.4,0,0"));
+		IPLAnalysis tolerantAnalysis = new IPLAnalysis();
+		assertThrows(IPLLeagueAnalyserException.class, () -> tolerantAnalysis.loadWicketsCSV(wicketsPath.toString()));
+
+		StringWriter quarantine = new StringWriter();
+		assertEquals(2, tolerantAnalysis.loadWicketsCSV(wicketsPath.toString(), ParseMode.SKIP_INVALID_ROWS,
+				quarantine));
+		String[] skipped = quarantine.toString().split("\n");
+		assertEquals(2, skipped.length);
+		assertTrue(skipped[0].startsWith("3\tRejected: Invalid value '-' in column 7\t2,Kagiso Rabada"));
+		assertTrue(skipped[1].startsWith("4\tRejected: Expected 13 columns but found 11\t"));
+		assertEquals(4, tolerantAnalysis.getTopBowlingAvg().stream()
+				.filter(player -> player.playerName.equals("Imran Tahir")).findFirst().get().bbi);
+
+		quarantine = new StringWriter();
+		assertEquals(3, tolerantAnalysis.loadWicketsCSV(wicketsPath.toString(), ParseMode.DEFAULT_INVALID_CELLS,
+				quarantine));
+		String[] defaulted = quarantine.toString().split("\n");
+		assertEquals(2, defaulted.length);
+		assertTrue(defaulted[0].startsWith("3\tDefaulted: Invalid value '-' in column 7\t"));
+		assertEquals(0, tolerantAnalysis.topK(BowlingMetric.WICKETS, 3).stream()
+				.filter(player -> player.playerName.equals("Kagiso Rabada")).findFirst().get().wickets);
+		Files.delete(wicketsPath);
+	}
+
+	/**
+	 * checking percentile ranks, medians and histograms of player metrics
+	 */
+	@Test
+	void givenRunsAndWicketsFilePath_shouldReturn_percentilesMediansAndHistograms() {
+		CSVRuns[] players = new Gson().fromJson(iplAnalysis.getSortedJsonMaxRunsAndAverage(), CSVRuns[].class);
+		double[] averages = Arrays.stream(players).filter(player -> player.innings >= 10)
+				.mapToDouble(player -> player.average).sorted().toArray();
+		assertEquals(averages[(averages.length + 1) / 2 - 1], iplAnalysis.getMedian(BattingField.AVERAGE, 10));
+		assertEquals(averages[averages.length - 1], iplAnalysis.getQuantile(BattingField.AVERAGE, 1, 10));
+
+		String fastestScorer = iplAnalysis.topK(BattingMetric.STRIKE_RATE, 1).get(0).playerName;
+		assertEquals(100.0, iplAnalysis.getPercentileRank(fastestScorer, BattingField.STRIKE_RATE));
+		double economyRank = iplAnalysis.getPercentileRank("Imran Tahir", BowlingField.ECONOMY);
+		assertTrue(economyRank > 0 && economyRank < 100);
+		assertEquals(economyRank, iplAnalysis.getPercentileRank(" imran  TAHIR", BowlingField.ECONOMY));
+		assertThrows(NoSuchElementException.class,
+				() -> iplAnalysis.getPercentileRank("Imran Tahir", BattingField.AVERAGE));
+
+		SortedMap<Double, Integer> histogram = iplAnalysis.getHistogram(BattingField.RUNS, 100, 0);
+		assertEquals(players.length, histogram.values().stream().mapToInt(Integer::intValue).sum());
+		assertEquals(0.0, (double) histogram.firstKey());
+		IPLAnalysis sketchedAnalysis = new IPLAnalysis();
+		sketchedAnalysis.setQuantileMode(QuantileMode.APPROXIMATE);
+		sketchedAnalysis.install(iplAnalysis.dataset().runs, iplAnalysis.dataset().wickets);
+		assertEquals(iplAnalysis.getMedian(BowlingField.ECONOMY, 5), sketchedAnalysis.getMedian(BowlingField.ECONOMY, 5));
+	}
+
+	/**
+	 * checking both files load concurrently and use cases run in parallel
+	 */
+	@Test
+	void givenRunsAndWicketsFilePath_whenLoadedAsync_shouldAnswer_useCasesInParallel() throws Exception {
+		IPLAnalysis asyncAnalysis = new IPLAnalysis();
+		asyncAnalysis.loadAsync(RUNS_FILE_PATH, WICKET_FILE_PATH).get(30, TimeUnit.SECONDS);
+		CompletableFuture<List<CSVRuns>> topBattingAvg = asyncAnalysis.queryAsync(IPLAnalysis::getTopBattingAvg);
+		CompletableFuture<Double> topEconomy = asyncAnalysis.queryAsync(IPLAnalysis::getTopEconomy);
+		assertEquals(iplAnalysis.getTopBattingAvg().toString(), topBattingAvg.get(30, TimeUnit.SECONDS).toString());
+		assertEquals(iplAnalysis.getTopEconomy(), (double) topEconomy.get(30, TimeUnit.SECONDS));
+		assertEquals(101, (int) asyncAnalysis.loadRunsCSVAsync(RUNS_FILE_PATH).get(30, TimeUnit.SECONDS));
+
+		ExecutionException failure = assertThrows(ExecutionException.class,
+				() -> asyncAnalysis.loadAsync(RUNS_FILE_PATH, WICKET_FILE_PATH + ".missing").get(30, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof IPLLeagueAnalyserException);
+		assertEquals(99, asyncAnalysis.dataset().wickets.size);
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CompletableFuture<String> blocked = asyncAnalysis.queryAsync(analysis -> {
+			started.countDown();
+			try {
+				Thread.sleep(60_000);
+			} catch (InterruptedException exception) {
+				interrupted.countDown();
+			}
+			return analysis.getPlayerWithBestStrikeRateWith4w5w();
+		});
+		started.await();
+		failure = assertThrows(ExecutionException.class, () -> blocked.orTimeout(50, TimeUnit.MILLISECONDS).get());
+		assertTrue(failure.getCause() instanceof TimeoutException);
+		assertTrue(interrupted.await(30, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * checking a changed factsheet is reloaded and a broken one keeps the old data
+	 */
+	@Test
+	void givenWatchedFactsheet_whenChanged_shouldReload_andKeepDataOnFailure() throws Exception {
+		Path directory = Files.createTempDirectory("ipl-watch");
+		Path runsPath = directory.resolve("runs.csv");
+		List<String> lines = Files.readAllLines(Path.of(RUNS_FILE_PATH));
+		Files.write(runsPath, lines);
+		IPLAnalysis watchedAnalysis = new IPLAnalysis();
+		watchedAnalysis.loadRunsCSV(runsPath.toString());
+		try (FactsheetWatcher watcher = new FactsheetWatcher(watchedAnalysis, runsPath.toString(), null, 100,
+				TimeUnit.MILLISECONDS)) {
+			Files.write(runsPath, lines.subList(0, lines.size() - 1));
+			for (int wait = 0; wait < 300 && watcher.getReloadCount() == 0; wait++)
+				Thread.sleep(100);
+			assertEquals(1, watcher.getReloadCount());
+			assertEquals(100, watchedAnalysis.dataset().runs.size);
+			assertEquals(iplAnalysis.getTopBattingAvg().get(0).playerName,
+					watchedAnalysis.getTopBattingAvg().get(0).playerName);
+
+			Files.write(runsPath, List.of(lines.get(0), "not,a,row"));
+			for (int wait = 0; wait < 300 && watcher.getLastFailure() == null; wait++)
+				Thread.sleep(100);
+			assertEquals(IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE, watcher.getLastFailure().type);
+			assertEquals(1, watcher.getReloadCount());
+			assertEquals(100, watchedAnalysis.dataset().runs.size);
+		}
+		Files.delete(runsPath);
+		Files.delete(directory);
+	}
+
+	/**
+	 * checking aggregates answered in one pass match the separate use cases
+	 */
+	@Test
+	void givenRunsAndWicketsFilePath_whenAggregatesBatched_shouldMatch_singleUseCases() {
+		AggregateSummary summary = iplAnalysis.getAggregates(EnumSet.allOf(ScalarAggregate.class));
+		assertEquals(iplAnalysis.getTopStrikingRate(), summary.value(ScalarAggregate.TOP_STRIKING_RATE));
+		assertSame(iplAnalysis.getPlayerMaxFours(), summary.battingRow(ScalarAggregate.MAX_FOURS));
+		assertSame(iplAnalysis.getPlayerMaxSixes(), summary.battingRow(ScalarAggregate.MAX_SIXES));
+		assertSame(iplAnalysis.getPlayerMaxStrikeRateWithFoursSixes(),
+				summary.battingRow(ScalarAggregate.MAX_STRIKE_RATE_WITH_FOURS_SIXES));
+		assertEquals(iplAnalysis.getTopEconomy(), summary.value(ScalarAggregate.TOP_ECONOMY));
+		assertEquals(iplAnalysis.getPlayerWithBestStrikeRateWith4w5w(),
+				summary.playerName(ScalarAggregate.BEST_STRIKE_RATE_WITH_4W_5W));
+
+		AggregateSummary bowlingOnly = iplAnalysis.getAggregates(EnumSet.of(ScalarAggregate.TOP_ECONOMY));
+		assertThrows(IllegalArgumentException.class, () -> bowlingOnly.value(ScalarAggregate.MAX_FOURS));
+	}
+
+	/**
+	 * checking players are found by exact, prefix and misspelt names
+	 */
+	@Test
+	void givenRunsAndWicketsFilePath_whenPlayerSearched_shouldReturn_rowsOfBothFiles() {
+		PlayerProfile russell = iplAnalysis.findPlayer("  andre  RUSSELL ");
+		assertEquals("Andre Russell", russell.playerName);
+		assertEquals(510, russell.runs.runs);
+		assertEquals(11, russell.wickets.wickets);
+		PlayerProfile tahir = iplAnalysis.findPlayer("Imran Tahir");
+		assertEquals(26, tahir.wickets.wickets);
+		assertNull(tahir.runs);
+		assertThrows(NoSuchElementException.class, () -> iplAnalysis.findPlayer("Andre"));
+		List<PlayerProfile> davids = iplAnalysis.findPlayersByPrefix("david ", 10);
+		assertEquals("David Miller", davids.get(0).playerName);
+		assertEquals("David Warner", davids.get(1).playerName);
+		assertEquals(1, iplAnalysis.findPlayersByPrefix("david ", 1).size());
+		assertTrue(iplAnalysis.findPlayersByPrefix("zzz", 10).isEmpty());
+		List<PlayerProfile> similar = iplAnalysis.findPlayersBySimilarName("Imran Tahri", 2, 5);
+		assertEquals("Imran Tahir", similar.get(0).playerName);
+		assertTrue(iplAnalysis.findPlayersBySimilarName("Imran Tahri", 1, 5).isEmpty());
+		assertEquals("David Warner", iplAnalysis.findPlayersBySimilarName("Davd Warnr", 2, 1).get(0).playerName);
+	}
+
+	/**
+	 * checking deliveries are summed into factsheet rows the use cases run on
+	 */
+	@Test
+	void givenDeliveriesFile_shouldReturn_battingAndBowlingTotals() throws IPLLeagueAnalyserException, IOException {
+		String header = "match_id,season,start_date,venue,innings,ball,batting_team,bowling_team,striker,non_striker,"
+				+ "bowler,runs_off_bat,extras,wides,noballs,byes,legbyes,penalty,wicket_type,player_dismissed,"
+				+ "other_wicket_type,other_player_dismissed";
+		Path deliveriesPath = Files.createTempFile("ipl-deliveries", ".csv");
+		Files.write(deliveriesPath, List.of(header,
+				"1,2019,2019-03-23,Chennai,1,0.1,X,Y,Anil,Chetan,Bala,4,0,,,,,,,,,",
+				"1,2019,2019-03-23,Chennai,1,0.2,X,Y,Anil,Chetan,Bala,6,0,,,,,,,,,",
+				"1,2019,2019-03-23,Chennai,1,0.3,X,Y,Anil,Chetan,Bala,0,1,1,,,,,,,,",
+				"1,2019,2019-03-23,Chennai,1,0.3,X,Y,Anil,Chetan,Bala,1,0,,,,,,,,,",
+				"1,2019,2019-03-23,Chennai,1,0.4,X,Y,Chetan,Anil,Bala,0,0,,,,,,bowled,Chetan,,",
+				"1,2019,2019-03-23,Chennai,2,0.1,Y,X,Bala,Dev,Anil,2,1,,1,,,,,,,",
+				"1,2019,2019-03-23,Chennai,2,0.1,Y,X,Bala,Dev,Anil,0,0,,,,,,run out,Dev,,",
+				"2,2019,2019-03-24,Mumbai,1,0.1,X,Y,Anil,Chetan,Bala,0,0,,,,,,caught,Anil,,",
+				"2,2019,2019-03-24,Mumbai,3,0.1,Y,X,Bala,Dev,Anil,6,0,,,,,,,,,"));
+		IPLAnalysis deliveryAnalysis = new IPLAnalysis();
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			assertEquals(9, deliveryAnalysis.loadDeliveriesCSV(deliveriesPath.toString(), pool));
+		} finally {
+			pool.shutdown();
+		}
+		CSVRuns anil = deliveryAnalysis.topK(BattingMetric.RUNS, 1).get(0);
+		assertEquals("Anil", anil.playerName);
+		assertEquals(11, anil.runs);
+		assertEquals("Anil", deliveryAnalysis.getPlayerMaxSixes().playerName);
+		assertEquals(2, deliveryAnalysis.findPlayer("Bala").wickets.wickets);
+		assertNull(deliveryAnalysis.findPlayer("Dev").wickets);
+		assertEquals(4, deliveryAnalysis.getTopBattingAvg().size());
+		IPLAnalysis commonPoolAnalysis = new IPLAnalysis();
+		commonPoolAnalysis.loadDeliveriesCSV(deliveriesPath.toString());
+		assertEquals(deliveryAnalysis.getSortedJsonMaxRunsAndAverage(),
+				commonPoolAnalysis.getSortedJsonMaxRunsAndAverage());
+		Files.write(deliveriesPath, List.of(header, "1,2019,2019-03-23,Chennai,1,0.1,X,Y,Anil,Chetan,Bala,4,0,,,,,,,,,",
+				"2,2019,2019-03-24,Mumbai,1,0.1,X,Y,Anil,Chetan,Bala,0,0,,,,,,,,,",
+				"1,2019,2019-03-23,Chennai,1,0.2,X,Y,Anil,Chetan,Bala,6,0,,,,,,,,,"));
+		IPLLeagueAnalyserException exception = assertThrows(IPLLeagueAnalyserException.class,
+				() -> deliveryAnalysis.loadDeliveriesCSV(deliveriesPath.toString()));
+		assertEquals(IPLLeagueAnalyserException.ExceptionType.UNABLE_TO_PARSE, exception.type);
+	}
+
+	/**
+	 * checking seasons answer the use cases alone and summed into careers
+	 */
+	@Test
+	void givenTwoSeasons_shouldReturn_seasonAndCareerTotals() throws IPLLeagueAnalyserException {
+		IPLSeasons seasons = new IPLSeasons();
+		assertEquals(2, seasons.loadSeasons(Map.of("2018", RUNS_FILE_PATH, "2019", RUNS_FILE_PATH),
+				Map.of("2018", WICKET_FILE_PATH, "2019", WICKET_FILE_PATH)));
+		assertEquals(List.of("2018", "2019"), seasons.seasons());
+		assertEquals(iplAnalysis.getSortedJsonMaxRunsAndAverage(), seasons.season("2019").getSortedJsonMaxRunsAndAverage());
+		IPLAnalysis career = seasons.career();
+		CSVRuns topScorer = career.topK(BattingMetric.RUNS, 1).get(0);
+		assertEquals("David Warner", topScorer.playerName);
+		assertEquals(2 * 692, topScorer.runs);
+		assertEquals(1, topScorer.position);
+		CSVWickets topWicketTaker = career.topK(BowlingMetric.WICKETS, 1).get(0);
+		assertEquals("Imran Tahir", topWicketTaker.playerName);
+		assertEquals(52, topWicketTaker.wickets);
+		assertEquals(128.4, topWicketTaker.overs, 0.0);
+		assertSame(career, seasons.career());
+	}
+
+	/**
+	 * checking derived metric rankings agree with UC 4 and UC 10, and a player
+	 * without balls faced gets a zero boundary strike rate
+	 */
+	@Test
+	void givenDerivedMetrics_shouldReturn_sameLeadersAsUseCases() throws IPLLeagueAnalyserException {
+		IPLAnalysis liveAnalysis = new IPLAnalysis();
+		liveAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+		liveAnalysis.loadWicketsCSV(WICKET_FILE_PATH);
+		assertSame(liveAnalysis.getPlayerMaxStrikeRateWithFoursSixes(),
+				liveAnalysis.topK(BattingMetric.BOUNDARY_STRIKE_RATE, 1).get(0));
+		assertEquals(liveAnalysis.getPlayerWithBestStrikeRateWith4w5w(),
+				liveAnalysis.topK(BowlingMetric.STRIKE_RATE_WITH_4W_5W, 1).get(0).playerName);
+		CSVRuns unbeaten = new CSVRuns();
+		unbeaten.playerName = "Concussion Substitute";
+		unbeaten.highScore = "0*";
+		unbeaten.fours = 1;
+		liveAnalysis.upsertRuns(List.of(unbeaten));
+		assertEquals("Ishant Sharma", liveAnalysis.getPlayerMaxStrikeRateWithFoursSixes().playerName);
+	}
+
+	/**
+	 * checking names with characters Gson escapes are written as Gson writes them
+	 */
+	@Test
+	void givenNameWithApostrophe_shouldReturn_jsonOfGson() throws IPLLeagueAnalyserException {
+		IPLAnalysis liveAnalysis = new IPLAnalysis();
+		liveAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+		liveAnalysis.loadWicketsCSV(WICKET_FILE_PATH);
+		CSVRuns batsman = new CSVRuns();
+		batsman.playerName = "D'Arcy Short";
+		batsman.highScore = "40";
+		batsman.runs = 40;
+		batsman.average = 99;
+		liveAnalysis.upsertRuns(List.of(batsman));
+		CSVWickets bowler = new CSVWickets();
+		bowler.playerName = "Tom <Curran> & Sam";
+		bowler.wickets = 30;
+		bowler.average = 1;
+		liveAnalysis.upsertWickets(List.of(bowler));
+		List<CSVRuns> batsmen = liveAnalysis.query(new BattingQuery().orderByDescending(BattingField.AVERAGE)
+				.orderByDescending(BattingField.STRIKE_RATE));
+		assertEquals("D'Arcy Short", batsmen.get(0).playerName);
+		assertEquals(new Gson().toJson(batsmen), liveAnalysis.getSortedJsonMaxAvgAndStrikeRate());
+		List<CSVWickets> bowlers = liveAnalysis.query(new BowlingQuery()
+				.where(BowlingField.WICKETS, Comparison.NOT_EQUAL_TO, 0)
+				.where(BowlingField.AVERAGE, Comparison.NOT_EQUAL_TO, 0).orderByDescending(BowlingField.WICKETS)
+				.orderByAscending(BowlingField.AVERAGE));
+		assertEquals("Tom <Curran> & Sam", bowlers.get(0).playerName);
+		assertEquals(new Gson().toJson(bowlers), liveAnalysis.getSortedJsonMaxWicketsWithBestBowlingAvg());
+	}
+
+	/**
+	 * checking queries reproduce the hand-written UC 5 and UC 12 rankings
+	 */
+	@Test
+	void givenQueries_shouldReturn_sameRankingsAsUseCases() {
+		List<CSVRuns> batsmen = iplAnalysis.query(new BattingQuery().orderByDescending(BattingField.AVERAGE)
+				.orderByDescending(BattingField.STRIKE_RATE));
+		assertEquals(iplAnalysis.getSortedJsonMaxAvgAndStrikeRate(), new Gson().toJson(batsmen));
+		List<CSVWickets> bowlers = iplAnalysis.query(new BowlingQuery()
+				.where(BowlingField.WICKETS, Comparison.NOT_EQUAL_TO, 0)
+				.where(BowlingField.AVERAGE, Comparison.NOT_EQUAL_TO, 0).orderByDescending(BowlingField.WICKETS)
+				.orderByAscending(BowlingField.AVERAGE));
+		assertEquals(iplAnalysis.getSortedJsonMaxWicketsWithBestBowlingAvg(), new Gson().toJson(bowlers));
+		List<CSVRuns> centurions = iplAnalysis.query(new BattingQuery()
+				.where(BattingField.HUNDREDS, Comparison.AT_LEAST, 1).orderByDescending(BattingField.RUNS).limit(2));
+		assertEquals(2, centurions.size());
+		assertEquals("David Warner", centurions.get(0).playerName);
+	}
+
+	/**
+	 * checking repeated leaderboards are served from the cache until a reload
+	 */
+	@Test
+	void givenRepeatedQueries_shouldReturn_cachedResultsUntilReload() throws IPLLeagueAnalyserException {
+		IPLAnalysis cachedAnalysis = new IPLAnalysis();
+		cachedAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+		String json = cachedAnalysis.getSortedJsonMaxRunsAndAverage();
+		List<CSVRuns> topBattingAvg = cachedAnalysis.getTopBattingAvg();
+		assertEquals(json, cachedAnalysis.getSortedJsonMaxRunsAndAverage());
+		assertSame(topBattingAvg, cachedAnalysis.getTopBattingAvg());
+		ResultCacheStats stats = cachedAnalysis.getCacheStats();
+		assertEquals(2, stats.hitCount);
+		assertEquals(2, stats.missCount);
+		cachedAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+		assertEquals(0, cachedAnalysis.getCacheStats().size);
+		assertNotSame(topBattingAvg, cachedAnalysis.getTopBattingAvg());
+		assertEquals(json, cachedAnalysis.getSortedJsonMaxRunsAndAverage());
+	}
+
+	/**
+	 * checking loads and use cases are measured in the metrics registry
+	 */
+	@Test
+	void givenMetricsRegistry_shouldRecord_loadsErrorsAndUseCaseLatencies()
+			throws IPLLeagueAnalyserException, IOException {
+		MetricsRegistry previous = IPLAnalysis.getMetricsRegistry();
+		InProcessMetrics metrics = new InProcessMetrics();
+		IPLAnalysis.setMetricsRegistry(metrics);
+		try {
+			IPLAnalysis measuredAnalysis = new IPLAnalysis();
+			measuredAnalysis.loadRunsCSV(RUNS_FILE_PATH);
+			measuredAnalysis.getTopBattingAvg();
+			measuredAnalysis.getTopStrikingRate();
+			IPLLeagueAnalyserException exception = assertThrows(IPLLeagueAnalyserException.class,
+					() -> measuredAnalysis.loadWicketsCSV(RUNS_FILE_PATH + ".missing"));
+			assertEquals(101, metrics.count("rows.parsed"));
+			assertEquals(Files.size(Path.of(RUNS_FILE_PATH)), metrics.count("bytes.read"));
+			assertEquals(1, metrics.count("errors." + exception.type));
+			assertEquals(2, metrics.samples("load.duration"));
+			assertEquals(1, metrics.samples("uc.UC1"));
+			assertEquals(1, metrics.samples("uc.UC2"));
+			assertTrue(metrics.percentile("uc.UC1", 0.99) > 0);
+			assertTrue(metrics.dump().contains("uc.UC2 count=1 "));
+		} finally {
+			IPLAnalysis.setMetricsRegistry(previous);
+		}
+	}
+
+	/**
+	 * UC 6 : checking a streamed page matches the same slice of the full JSON
+	 */
+	@Test
+	void givenOffsetAndLimit_shouldStream_pageOfSortedPlayers() throws IPLLeagueAnalyserException {
+		CSVRuns[] allPlayers = new Gson().fromJson(iplAnalysis.getSortedJsonMaxRunsAndAverage(), CSVRuns[].class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		iplAnalysis.getSortedJsonMaxRunsAndAverage(out, 5, 3);
+		CSVRuns[] page = new Gson().fromJson(new String(out.toByteArray(), StandardCharsets.UTF_8), CSVRuns[].class);
+		assertEquals(3, page.length);
+		for (int index = 0; index < page.length; index++)
+			assertEquals(new Gson().toJson(allPlayers[5 + index]), new Gson().toJson(page[index]));
+		StringWriter writer = new StringWriter();
+		iplAnalysis.getSortedJsonMaxWicketsWithBestBowlingAvg(writer, 1000, 10);
+		assertEquals("[]", writer.toString());
+	}
+
 	/**
 	 * UC 7 : checking top bowling average
 	 */
@@ -191,6 +701,20 @@ class IPLAnalysisTest {
 		assertEquals("Andre Russell", sortedPlayers.get(0));
 	}
 
+	/**
+	 * UC 14 : checking all rounders without a cutoff are every player in both
+	 * files
+	 */
+	@Test
+	void givenRunsAndWicketsFilePath_whenNoCutoff_shouldReturn_allPlayersInBothFiles() {
+		List<AllRounder> allRounders = iplAnalysis.getAllRounders();
+		assertEquals(allRounders.size(), iplAnalysis.getBestAllRounder(Integer.MAX_VALUE).size());
+		AllRounder russell = allRounders.stream().filter(player -> player.playerName.equals("Andre Russell"))
+				.findFirst().get();
+		assertEquals(510, russell.runs);
+		assertEquals(11, russell.wickets);
+	}
+
 	/**
 	 * UC 15 : checking players scoring max hundreds with best batting averages
 	 */
@@ -208,4 +732,27 @@ class IPLAnalysisTest {
 		List<CSVRuns> sortedPlayers = iplAnalysis.getPlayerHittingZeroHundredsAndFiftysWithBestAverage();
 		assertEquals("Marcus Stoinis", sortedPlayers.get(0).playerName);
 	}
+
+	/**
+	 * checking top k batting average matches the full ranking
+	 */
+	@Test
+	void givenRunsFilePath_whenTopK_shouldReturn_sameOrderAsFullRanking() {
+		List<CSVRuns> topThree = iplAnalysis.topK(BattingMetric.AVERAGE, 3);
+		assertEquals(3, topThree.size());
+		assertEquals(83.2, topThree.get(0).average);
+		assertEquals(iplAnalysis.getTopBattingAvg().subList(0, 3), topThree);
+	}
+
+	/**
+	 * checking a ranking is not reordered by queries on other metrics
+	 */
+	@Test
+	void givenRunsFilePath_whenOtherRankingQueried_shouldKeep_topBattingAvgOrder() {
+		List<CSVRuns> battingAvgSortedList = iplAnalysis.getTopBattingAvg();
+		iplAnalysis.getSortedJsonMaxRunsAndAverage();
+		iplAnalysis.getPlayersWithMaxHundredsBestBattingAverage();
+		assertEquals(83.2, battingAvgSortedList.get(0).average);
+		assertSame(battingAvgSortedList, iplAnalysis.getTopBattingAvg());
+	}
 }
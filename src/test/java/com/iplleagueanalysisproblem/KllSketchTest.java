@@ -0,0 +1,66 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class KllSketchTest {
+	private static final int COUNT = 100_000;
+	private static final double RANK_ERROR = 0.02;
+
+	private static QuantileSummary sketch(int[] values) {
+		KllSketch sketch = new KllSketch();
+		for (int value : values)
+			sketch.add(value);
+		return sketch.summary();
+	}
+
+	private static int[] shuffled(int count, long seed) {
+		int[] values = new int[count];
+		for (int index = 0; index < count; index++)
+			values[index] = index;
+		Random random = new Random(seed);
+		for (int index = count - 1; index > 0; index--) {
+			int other = random.nextInt(index + 1);
+			int value = values[index];
+			values[index] = values[other];
+			values[other] = value;
+		}
+		return values;
+	}
+
+	private static void assertRanksWithinBound(QuantileSummary summary) {
+		assertEquals(COUNT, summary.count());
+		for (int step = 0; step <= 100; step++) {
+			int value = (int) ((long) (COUNT - 1) * step / 100);
+			double exactRank = (value + 1) / (double) COUNT;
+			assertEquals(exactRank, summary.rank(value), RANK_ERROR);
+			double fraction = step / 100.0;
+			double quantileRank = (summary.quantile(fraction) + 1) / COUNT;
+			assertEquals(fraction, quantileRank, RANK_ERROR + 1.0 / COUNT);
+		}
+	}
+
+	/**
+	 * checking ranks and quantiles of a shuffled stream far larger than k stay
+	 * within the documented error
+	 */
+	@Test
+	void givenShuffledValues_shouldReturn_ranksWithinTwoPercent() {
+		assertRanksWithinBound(sketch(shuffled(COUNT, 42)));
+	}
+
+	/**
+	 * checking ranks and quantiles of a sorted stream far larger than k stay
+	 * within the documented error
+	 */
+	@Test
+	void givenSortedValues_shouldReturn_ranksWithinTwoPercent() {
+		int[] values = new int[COUNT];
+		for (int index = 0; index < COUNT; index++)
+			values[index] = index;
+		assertRanksWithinBound(sketch(values));
+	}
+}
@@ -0,0 +1,47 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class NameTrieTest {
+	private static final String[] KEYS = { "david warner", "david miller", "dale steyn", "imran tahir", "ishan kishan",
+			"ishant sharma", "kl rahul" };
+	private static final NameTrie NAMES = new NameTrie(KEYS);
+
+	/**
+	 * checking exact lookups return the id of the key and -1 for prefixes of it
+	 */
+	@Test
+	void givenKeys_whenLookedUpExactly_shouldReturn_theirIds() {
+		for (int id = 0; id < KEYS.length; id++)
+			assertEquals(id, NAMES.exact(KEYS[id]));
+		assertEquals(-1, NAMES.exact("david"));
+		assertEquals(-1, NAMES.exact("david warner jr"));
+		assertEquals(-1, NAMES.exact(""));
+	}
+
+	/**
+	 * checking prefix lookups return matching keys in key order up to the limit
+	 */
+	@Test
+	void givenPrefix_shouldReturn_matchingKeysInOrder() {
+		assertArrayEquals(new int[] { 2, 1, 0 }, NAMES.prefix("da", 10));
+		assertArrayEquals(new int[] { 4, 5 }, NAMES.prefix("ishan", 10));
+		assertArrayEquals(new int[] { 2 }, NAMES.prefix("da", 1));
+		assertArrayEquals(new int[0], NAMES.prefix("zz", 10));
+		assertEquals(KEYS.length, NAMES.prefix("", 100).length);
+	}
+
+	/**
+	 * checking fuzzy lookups return keys within the edit distance, nearest first
+	 */
+	@Test
+	void givenMisspeltKey_shouldReturn_nearestKeysFirst() {
+		assertArrayEquals(new int[] { 3 }, NAMES.fuzzy("imran tahri", 2, 10));
+		assertArrayEquals(new int[0], NAMES.fuzzy("imran tahri", 1, 10));
+		assertArrayEquals(new int[] { 4, 5 }, NAMES.fuzzy("ishan kishan", 6, 2));
+		assertArrayEquals(new int[] { 0 }, NAMES.fuzzy("davd warnr", 2, 10));
+		assertArrayEquals(new int[] { 6 }, NAMES.fuzzy("kl rahul", 0, 10));
+	}
+}
@@ -0,0 +1,75 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelFactsheetLoaderTest {
+	private static final long SMALL_CHUNK_SIZE = 256;
+	private static ExecutorService pool;
+
+	@BeforeAll
+	static void setUp() {
+		pool = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		pool.shutdown();
+	}
+
+	private static RunsTable merge(List<RunsTable.Builder> chunks) {
+		RunsTable.Builder merged = new RunsTable.Builder();
+		chunks.forEach(merged::append);
+		return merged.build();
+	}
+
+	/**
+	 * checking small chunks are parsed into the same rows as a single threaded
+	 * load
+	 */
+	@Test
+	void givenSmallChunks_whenLoadedInParallel_shouldReturn_sameRowsAsSequentialLoad() throws Exception {
+		Path path = Paths.get(Factsheets.RUNS_FILE_PATH);
+		List<RunsTable.Builder> chunks = ParallelFactsheetLoader.load(path, RunsTable.Builder::new, pool, 8,
+				SMALL_CHUNK_SIZE);
+		assertEquals(8, chunks.size());
+		RunsTable parallel = merge(chunks);
+		RunsTable sequential = Factsheets.runs(path);
+		assertEquals(sequential.size, parallel.size);
+		for (int row = 0; row < sequential.size; row++)
+			assertEquals(sequential.row(row).toString(), parallel.row(row).toString());
+		assertArrayEquals(sequential.runs, parallel.runs);
+		assertArrayEquals(sequential.average, parallel.average);
+		assertArrayEquals(sequential.strikeRate, parallel.strikeRate);
+	}
+
+	/**
+	 * checking a bad row in a later chunk is reported on the same line as a
+	 * single threaded load
+	 */
+	@Test
+	void givenBadRowInLaterChunk_whenLoadedInParallel_shouldReport_sameLineAsSequentialLoad() throws Exception {
+		List<String> lines = Files.readAllLines(Paths.get(Factsheets.RUNS_FILE_PATH), StandardCharsets.UTF_8);
+		lines.set(90, lines.get(90).replaceFirst(",[0-9]+,", ",x,"));
+		Path path = Files.createTempFile("ipl", ".csv");
+		Files.write(path, lines, StandardCharsets.UTF_8);
+		IPLLeagueAnalyserException sequential = assertThrows(IPLLeagueAnalyserException.class,
+				() -> Factsheets.runs(path));
+		IPLLeagueAnalyserException parallel = assertThrows(IPLLeagueAnalyserException.class,
+				() -> ParallelFactsheetLoader.load(path, RunsTable.Builder::new, pool, 8, SMALL_CHUNK_SIZE));
+		assertTrue(sequential.getMessage().startsWith("Line 91: "));
+		assertEquals(sequential.getMessage(), parallel.getMessage());
+		assertEquals(sequential.type, parallel.type);
+	}
+}
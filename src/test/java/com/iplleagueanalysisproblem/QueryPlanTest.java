@@ -0,0 +1,103 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class QueryPlanTest {
+	private static RunsTable runs;
+
+	@BeforeAll
+	static void setUp() throws IOException, IPLLeagueAnalyserException {
+		runs = Factsheets.runs();
+	}
+
+	/**
+	 * checking a compiled plan returns the rows a scan and a sort return
+	 */
+	@Test
+	void givenConditionsAndOrderKeys_shouldReturn_rowsOfScanAndSort() {
+		QueryPlan<RunsTable> plan = QueryPlan.compile(
+				List.of(BattingField.INNINGS.column, BattingField.STRIKE_RATE.column),
+				List.of(Comparison.AT_LEAST, Comparison.GREATER_THAN),
+				List.of(BattingField.SIXES.column, BattingField.AVERAGE.column), List.of(true, false));
+		int[] expected = Arrays.stream(RankingEngine.select(runs, runs.size,
+				(table, row) -> table.innings[row] >= 10 && table.strikeRate[row] > 120)).boxed()
+				.sorted(Comparator.<Integer>comparingInt(row -> -runs.sixes[row])
+						.thenComparingDouble(row -> runs.average[row]).thenComparingInt(row -> row))
+				.mapToInt(Integer::intValue).toArray();
+		assertArrayEquals(expected, plan.run(runs, runs.filters, new double[] { 10, 120 }, Integer.MAX_VALUE));
+		assertArrayEquals(Arrays.copyOf(expected, 3), plan.run(runs, runs.filters, new double[] { 10, 120 }, 3));
+	}
+
+	/**
+	 * checking a plan without order keys keeps table order
+	 */
+	@Test
+	void givenNoOrderKeys_shouldReturn_rowsInTableOrder() {
+		QueryPlan<RunsTable> plan = QueryPlan.compile(List.of(BattingField.HUNDREDS.column),
+				List.of(Comparison.EQUAL_TO), List.of(), List.of());
+		int[] centurions = RankingEngine.select(runs, runs.size, (table, row) -> table.hundreds[row] == 1);
+		assertArrayEquals(centurions, plan.run(runs, runs.filters, new double[] { 1 }, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * checking negated conditions and alternative groups return the rows a scan
+	 * returns
+	 */
+	@Test
+	void givenNegatedConditionsInGroups_shouldReturn_rowsOfScan() {
+		QueryPlan<RunsTable> plan = QueryPlan.compile(
+				List.of(BattingField.INNINGS.column, BattingField.STRIKE_RATE.column, BattingField.HUNDREDS.column,
+						BattingField.SIXES.column),
+				List.of(Comparison.AT_LEAST, Comparison.LESS_THAN, Comparison.AT_LEAST, Comparison.GREATER_THAN),
+				List.of(false, true, false, true), List.of(2, 4), List.of(BattingField.RUNS.column), List.of(true));
+		int[] expected = Arrays.stream(RankingEngine.select(runs, runs.size,
+				(table, row) -> table.innings[row] >= 10 && !(table.strikeRate[row] < 130)
+						|| table.hundreds[row] >= 1 && !(table.sixes[row] > 20)))
+				.boxed().sorted(Comparator.<Integer>comparingInt(row -> -runs.runs[row]).thenComparingInt(row -> row))
+				.mapToInt(Integer::intValue).toArray();
+		assertTrue(expected.length > 0);
+		assertArrayEquals(expected, plan.run(runs, runs.filters, new double[] { 10, 130, 1, 20 }, Integer.MAX_VALUE));
+		BattingQuery query = new BattingQuery().where(BattingField.INNINGS, Comparison.AT_LEAST, 10)
+				.whereNot(BattingField.STRIKE_RATE, Comparison.LESS_THAN, 130).or()
+				.where(BattingField.HUNDREDS, Comparison.AT_LEAST, 1)
+				.whereNot(BattingField.SIXES, Comparison.GREATER_THAN, 20).orderByDescending(BattingField.RUNS);
+		assertArrayEquals(expected, query.run(runs));
+	}
+
+	/**
+	 * checking an or without conditions on both sides is ignored, and an or
+	 * changes the shape of a query
+	 */
+	@Test
+	void givenOrWithoutConditions_shouldReturn_rowsWithoutOr() {
+		BattingQuery plain = new BattingQuery().where(BattingField.FIFTYS, Comparison.AT_LEAST, 3);
+		BattingQuery padded = new BattingQuery().or().where(BattingField.FIFTYS, Comparison.AT_LEAST, 3).or();
+		assertEquals(plain.shape(), padded.shape());
+		assertArrayEquals(plain.run(runs), padded.run(runs));
+		assertNotEquals(new BattingQuery().where(BattingField.FIFTYS, Comparison.AT_LEAST, 3)
+				.where(BattingField.SIXES, Comparison.AT_LEAST, 10).shape(),
+				new BattingQuery().where(BattingField.FIFTYS, Comparison.AT_LEAST, 3).or()
+						.where(BattingField.SIXES, Comparison.AT_LEAST, 10).shape());
+	}
+
+	/**
+	 * checking plans are compiled once per shape
+	 */
+	@Test
+	void givenSameShape_shouldReturn_cachedPlan() {
+		QueryPlan<RunsTable> first = QueryPlan.of("QueryPlanTest shape",
+				() -> QueryPlan.compile(List.of(), List.of(), List.of(BattingField.RUNS.column), List.of(true)));
+		QueryPlan<RunsTable> second = QueryPlan.of("QueryPlanTest shape", () -> {
+			throw new AssertionError("compiled twice");
+		});
+		assertSame(first, second);
+	}
+}
@@ -0,0 +1,88 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class RankingEngineTest {
+	private static final int SIZE = 500;
+
+	private static int[] values(long seed) {
+		Random random = new Random(seed);
+		return IntStream.range(0, SIZE).map(row -> random.nextInt(40)).toArray();
+	}
+
+	/**
+	 * Ranking of the rows by value, greatest first and ties in row order
+	 */
+	private static int[] expectedRanking(int[] values, int[] rows) {
+		return Arrays.stream(rows).boxed()
+				.sorted(Comparator.<Integer>comparingInt(row -> -values[row]).thenComparingInt(row -> row))
+				.mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * checking the sort ranks greatest first and keeps ties in row order
+	 */
+	@Test
+	void givenRowsWithTies_whenSorted_shouldKeep_rowOrderOfTies() {
+		int[] values = values(1);
+		int[] rows = IntStream.range(0, SIZE).toArray();
+		RankingEngine.sort(rows, (left, right) -> Integer.compare(values[left], values[right]));
+		assertArrayEquals(expectedRanking(values, IntStream.range(0, SIZE).toArray()), rows);
+	}
+
+	/**
+	 * checking top k returns the first k rows of the full ranking
+	 */
+	@Test
+	void givenLimits_whenTopK_shouldReturn_prefixOfRanking() {
+		int[] values = values(2);
+		int[] rows = IntStream.range(0, SIZE).toArray();
+		int[] ranking = expectedRanking(values, rows);
+		for (int limit : new int[] { 0, 1, 7, 64, SIZE - 1, SIZE, SIZE + 10 })
+			assertArrayEquals(Arrays.copyOf(ranking, Math.min(limit, SIZE)),
+					RankingEngine.topK(rows, (left, right) -> Integer.compare(values[left], values[right]), limit));
+	}
+
+	/**
+	 * checking a ranking updated for changed rows equals the ranking sorted again
+	 */
+	@Test
+	void givenChangedRows_whenUpdated_shouldReturn_rankingOfNewValues() {
+		int[] before = values(3);
+		int[] ranked = expectedRanking(before, IntStream.range(0, SIZE).toArray());
+		Random random = new Random(4);
+		int[] changed = random.ints(20, 0, SIZE).distinct().sorted().toArray();
+		int[] after = before.clone();
+		for (int row : changed)
+			after[row] = random.nextInt(40);
+		int[] appended = { SIZE, SIZE + 1 };
+		after = Arrays.copyOf(after, SIZE + appended.length);
+		after[SIZE] = 39;
+		after[SIZE + 1] = 0;
+		int[] inserted = IntStream.concat(Arrays.stream(changed), Arrays.stream(appended)).toArray();
+		int[] next = after;
+		int[] updated = RankingEngine.update(ranked, changed,
+				(left, right) -> Integer.compare(before[left], before[right]), inserted,
+				(left, right) -> Integer.compare(next[left], next[right]));
+		assertArrayEquals(expectedRanking(after, IntStream.range(0, after.length).toArray()), updated);
+	}
+
+	/**
+	 * checking removing a row that is not ranked fails
+	 */
+	@Test
+	void givenRowNotInRanking_whenRemoved_shouldThrow_illegalState() {
+		int[] values = values(5);
+		int[] ranked = expectedRanking(values, new int[] { 0, 1, 2 });
+		assertThrows(IllegalStateException.class, () -> RankingEngine.update(ranked, new int[] { 3 },
+				(left, right) -> Integer.compare(values[left], values[right]), new int[0],
+				(left, right) -> Integer.compare(values[left], values[right])));
+	}
+}
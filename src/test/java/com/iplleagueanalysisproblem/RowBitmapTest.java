@@ -0,0 +1,39 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class RowBitmapTest {
+
+	/**
+	 * checking set operations across a sparse and a dense chunk
+	 */
+	@Test
+	void givenBitmapsSpanningChunks_shouldCombine_rowsOfBoth() {
+		int[] rows = new int[6000];
+		for (int index = 0; index < rows.length; index++)
+			rows[index] = 60000 + index * 3;
+		RowBitmap spanningChunks = RowBitmap.of(rows);
+		RowBitmap secondChunk = RowBitmap.range(65536, 140000);
+		assertArrayEquals(Arrays.stream(rows).filter(row -> row >= 65536).toArray(),
+				spanningChunks.and(secondChunk).toArray());
+		assertEquals(140000 - 65536 + Arrays.stream(rows).filter(row -> row < 65536).count(),
+				spanningChunks.or(secondChunk).cardinality());
+		assertTrue(spanningChunks.contains(60003));
+		assertFalse(spanningChunks.andNot(secondChunk).contains(65538));
+	}
+
+	/**
+	 * checking the complement holds every other row up to the size
+	 */
+	@Test
+	void givenRows_whenNegated_shouldReturn_remainingRows() {
+		RowBitmap evens = RowBitmap.of(new int[] { 0, 2, 4, 70000 });
+		assertArrayEquals(new int[] { 1, 3, 5 }, evens.not(6).toArray());
+		assertEquals(0, RowBitmap.EMPTY.cardinality());
+		assertEquals(70000 - 3, evens.not(70001).cardinality());
+	}
+}
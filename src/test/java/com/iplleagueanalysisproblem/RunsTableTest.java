@@ -0,0 +1,86 @@
+package com.iplleagueanalysisproblem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RunsTableTest {
+	private static CSVRuns copyOf(CSVRuns row) {
+		CSVRuns copy = new CSVRuns();
+		copy.position = row.position;
+		copy.playerName = row.playerName;
+		copy.matches = row.matches;
+		copy.innings = row.innings;
+		copy.notOut = row.notOut;
+		copy.runs = row.runs;
+		copy.highScore = row.highScore;
+		copy.average = row.average;
+		copy.ballsFaced = row.ballsFaced;
+		copy.strikeRate = row.strikeRate;
+		copy.hundreds = row.hundreds;
+		copy.fiftys = row.fiftys;
+		copy.fours = row.fours;
+		copy.sixes = row.sixes;
+		return copy;
+	}
+
+	/**
+	 * checking an upsert shares the columns and indexes it leaves unchanged
+	 */
+	@Test
+	void givenUpsertedRuns_shouldShare_unchangedColumnsAndIndexes() throws Exception {
+		RunsTable table = Factsheets.runs();
+		CSVRuns updated = copyOf(table.row(10));
+		updated.runs += 40;
+		int[] changedRows = new int[1];
+		RunsTable upserted = table.upsert(List.of(updated), changedRows);
+
+		assertEquals(10, changedRows[0]);
+		assertEquals(table.runs[10] + 40, upserted.runs[10]);
+		assertNotSame(table.runs, upserted.runs);
+		assertSame(table.names, upserted.names);
+		assertSame(table.matches, upserted.matches);
+		assertSame(table.average, upserted.average);
+		assertSame(table.sixes, upserted.sixes);
+		assertSame(table.boundaryStrikeRate, upserted.boundaryStrikeRate);
+		for (BattingMetric metric : BattingMetric.values())
+			assertSame(table.filters.bitmap(metric.filter), upserted.filters.bitmap(metric.filter));
+	}
+
+	/**
+	 * checking derived columns, filter bitmaps and range indexes patched by an
+	 * upsert match a table built from the same rows
+	 */
+	@Test
+	void givenUpsertedRuns_shouldPatch_derivedColumnsAndIndexes() throws Exception {
+		RunsTable table = Factsheets.runs();
+		table.filters.where(BattingField.MATCHES.column, Comparison.AT_LEAST, 10);
+		int row = 0;
+		while (table.hundreds[row] + table.fiftys[row] > 0)
+			row++;
+		CSVRuns updated = copyOf(table.row(row));
+		updated.fiftys++;
+		updated.sixes += 5;
+		updated.matches = 30;
+		CSVRuns added = copyOf(table.row(row));
+		added.playerName = "Debutant";
+		added.matches = 1;
+		int[] changedRows = new int[2];
+		RunsTable upserted = table.upsert(List.of(updated, added), changedRows);
+		RunsTable rebuilt = new RunsTable.Builder(upserted).build();
+
+		assertArrayEquals(new int[] { row, table.size }, changedRows);
+		assertNotSame(table.boundaryStrikeRate, upserted.boundaryStrikeRate);
+		assertArrayEquals(rebuilt.boundaryStrikeRate, upserted.boundaryStrikeRate);
+		for (BattingMetric metric : BattingMetric.values())
+			assertArrayEquals(rebuilt.filters.select(metric.filter), upserted.filters.select(metric.filter));
+		for (double bound : new double[] { 1, 10, 16, 30 })
+			for (Comparison comparison : Comparison.values())
+				assertArrayEquals(rebuilt.filters.where(BattingField.MATCHES.column, comparison, bound).toArray(),
+						upserted.filters.where(BattingField.MATCHES.column, comparison, bound).toArray());
+		assertEquals("Debutant", upserted.playerName(table.size));
+		assertEquals(table.size, upserted.rowOfName(upserted.names.codeOf("Debutant")));
+	}
+}
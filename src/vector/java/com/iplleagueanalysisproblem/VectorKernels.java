@@ -0,0 +1,133 @@
+package com.iplleagueanalysisproblem;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Column kernels on jdk.incubator.vector, loaded by {@link ColumnKernels#get()}
+ * when the module is resolved. Maxima and minima are reduced lane wise and the
+ * first row holding the result is then found by a vector compare; NaN, which
+ * lane wise max and min propagate but Double.compare ranks, is left to the
+ * scalar kernels.
+ */
+final class VectorKernels implements ColumnKernels {
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	/**
+	 * Ints with as many lanes as DOUBLES, for columns converted to doubles
+	 */
+	private static final VectorSpecies<Integer> INTS_PER_DOUBLE = VectorSpecies.of(int.class,
+			VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+	@Override
+	public int argMax(double[] values, int size) {
+		int bound = DOUBLES.loopBound(size);
+		DoubleVector maxima = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+		for (int row = 0; row < bound; row += DOUBLES.length())
+			maxima = maxima.max(DoubleVector.fromArray(DOUBLES, values, row));
+		double max = maxima.reduceLanes(VectorOperators.MAX);
+		for (int row = bound; row < size; row++)
+			max = Math.max(max, values[row]);
+		if (Double.isNaN(max))
+			return ScalarKernels.argMax(values, 0, size);
+		return firstRowOf(values, size, max);
+	}
+
+	@Override
+	public int argMin(double[] values, int size) {
+		int bound = DOUBLES.loopBound(size);
+		DoubleVector minima = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+		for (int row = 0; row < bound; row += DOUBLES.length())
+			minima = minima.min(DoubleVector.fromArray(DOUBLES, values, row));
+		double min = minima.reduceLanes(VectorOperators.MIN);
+		for (int row = bound; row < size; row++)
+			min = Math.min(min, values[row]);
+		if (Double.isNaN(min))
+			return ScalarKernels.argMin(values, 0, size);
+		return firstRowOf(values, size, min);
+	}
+
+	/**
+	 * Returns the first row equal to the value under Double.compare. A vector
+	 * compare finds candidates; their bits are checked since it holds 0.0 and
+	 * -0.0 equal.
+	 */
+	private static int firstRowOf(double[] values, int size, double value) {
+		long bits = Double.doubleToLongBits(value);
+		int bound = DOUBLES.loopBound(size);
+		int row = 0;
+		for (; row < bound; row += DOUBLES.length()) {
+			VectorMask<Double> equal = DoubleVector.fromArray(DOUBLES, values, row).compare(VectorOperators.EQ,
+					value);
+			for (long lanes = equal.toLong(); lanes != 0; lanes &= lanes - 1) {
+				int candidate = row + Long.numberOfTrailingZeros(lanes);
+				if (Double.doubleToLongBits(values[candidate]) == bits)
+					return candidate;
+			}
+		}
+		for (; row < size; row++)
+			if (Double.doubleToLongBits(values[row]) == bits)
+				return row;
+		throw new IllegalStateException("Reduced value " + value + " not found");
+	}
+
+	@Override
+	public int argMax(int[] values, int size) {
+		int bound = INTS.loopBound(size);
+		IntVector maxima = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+		for (int row = 0; row < bound; row += INTS.length())
+			maxima = maxima.max(IntVector.fromArray(INTS, values, row));
+		int max = maxima.reduceLanes(VectorOperators.MAX);
+		for (int row = bound; row < size; row++)
+			max = Math.max(max, values[row]);
+		int row = 0;
+		for (; row < bound; row += INTS.length()) {
+			VectorMask<Integer> equal = IntVector.fromArray(INTS, values, row).compare(VectorOperators.EQ, max);
+			if (equal.anyTrue())
+				return row + equal.firstTrue();
+		}
+		while (values[row] != max)
+			row++;
+		return row;
+	}
+
+	@Override
+	public int[] selectNonZero(int[] values, int size) {
+		int[] rows = new int[size];
+		int count = 0;
+		int bound = INTS.loopBound(size);
+		int row = 0;
+		for (; row < bound; row += INTS.length()) {
+			VectorMask<Integer> nonZero = IntVector.fromArray(INTS, values, row).compare(VectorOperators.NE, 0);
+			for (long lanes = nonZero.toLong(); lanes != 0; lanes &= lanes - 1)
+				rows[count++] = row + Long.numberOfTrailingZeros(lanes);
+		}
+		for (; row < size; row++)
+			if (values[row] != 0)
+				rows[count++] = row;
+		return count == size ? rows : Arrays.copyOf(rows, count);
+	}
+
+	@Override
+	public void boundaryStrikeRate(int[] fours, int[] sixes, int[] ballsFaced, double[] out, int size) {
+		int bound = DOUBLES.loopBound(size);
+		int row = 0;
+		for (; row < bound; row += DOUBLES.length()) {
+			IntVector boundaryRuns = IntVector.fromArray(INTS_PER_DOUBLE, fours, row).mul(4)
+					.add(IntVector.fromArray(INTS_PER_DOUBLE, sixes, row).mul(6));
+			IntVector balls = IntVector.fromArray(INTS_PER_DOUBLE, ballsFaced, row);
+			DoubleVector rate = ((DoubleVector) boundaryRuns.convertShape(VectorOperators.I2D, DOUBLES, 0)).mul(100.0)
+					.div((DoubleVector) balls.convertShape(VectorOperators.I2D, DOUBLES, 0));
+			VectorMask<Double> noBalls = balls.compare(VectorOperators.EQ, 0).cast(DOUBLES);
+			rate.blend(0.0, noBalls).intoArray(out, row);
+		}
+		for (; row < size; row++)
+			out[row] = ScalarKernels.boundaryStrikeRate(fours[row], sixes[row], ballsFaced[row]);
+	}
+}